@@ -0,0 +1,60 @@
+package com.tetgame.modules.game.tienlen;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Dữ liệu dùng chung cho benchmark: các ván chia ngẫu nhiên có seed cố định,
+ * để mọi lần chạy đo trên cùng một phân bố bài.
+ */
+final class BenchmarkData {
+    static final int SAMPLES = 1024; // lũy thừa của 2 để xoay vòng bằng & (SAMPLES - 1)
+    static final long SEED = 20240210L;
+
+    private BenchmarkData() {}
+
+    /** deals[i][p] = bitboard 13 lá của người thứ p trong ván thứ i. */
+    static long[][] deals(int count, int players, long seed) {
+        Random rnd = new Random(seed);
+        int cardsPerPlayer = CardMask.DECK_SIZE / players;
+        long[][] deals = new long[count][];
+        int[] codes = new int[CardMask.DECK_SIZE];
+        for (int i = 0; i < count; i++) {
+            for (int c = 0; c < codes.length; c++) codes[c] = c;
+            for (int c = codes.length - 1; c > 0; c--) {
+                int j = rnd.nextInt(c + 1);
+                int t = codes[c]; codes[c] = codes[j]; codes[j] = t;
+            }
+            long[] hands = new long[players];
+            for (int c = 0; c < players * cardsPerPlayer; c++) hands[c % players] |= 1L << codes[c];
+            deals[i] = hands;
+        }
+        return deals;
+    }
+
+    /** Các nước đi thực tế: lấy ngẫu nhiên từ nước hợp lệ khi đánh tự do của từng tay bài. */
+    static List<Play> plays(long[][] deals, int count, long seed) {
+        Random rnd = new Random(seed);
+        List<Play> plays = new ArrayList<>(count);
+        while (plays.size() < count) {
+            long[] deal = deals[rnd.nextInt(deals.length)];
+            List<Play> options = MoveGenerator.legalPlays(deal[rnd.nextInt(deal.length)], null);
+            plays.add(options.get(rnd.nextInt(options.size())));
+        }
+        return plays;
+    }
+
+    static List<UUID> players(int count) {
+        List<UUID> players = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) players.add(new UUID(0L, i + 1L));
+        return players;
+    }
+
+    static GameState state(long[] hands) {
+        GameState state = new GameState(new UUID(0L, 0L), players(hands.length));
+        for (int p = 0; p < hands.length; p++) state.setHand(state.getTurnOrder().get(p), hands[p]);
+        return state;
+    }
+}
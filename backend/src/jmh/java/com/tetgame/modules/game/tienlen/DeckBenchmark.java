@@ -0,0 +1,58 @@
+package com.tetgame.modules.game.tienlen;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DeckBenchmark {
+    private DeckSource pooled;
+    private long seed;
+
+    @Setup
+    public void setup() {
+        pooled = new DeckSource();
+    }
+
+    @TearDown
+    public void tearDown() {
+        pooled.close();
+    }
+
+    @Benchmark
+    public Deck newDeckAndShuffle() {
+        Deck deck = new Deck();
+        deck.shuffle();
+        return deck;
+    }
+
+    @Benchmark
+    public List<List<Card>> shuffleAndDeal() {
+        Deck deck = new Deck();
+        deck.shuffle();
+        return deck.deal(4, 13);
+    }
+
+    @Benchmark
+    public long[] shuffleAndDealMasks() {
+        Deck deck = new Deck();
+        deck.shuffle();
+        return deck.dealMasks(4, 13);
+    }
+
+    @Benchmark
+    public long[] seededShuffleAndDeal() {
+        return DeckSource.shuffle(seed++).dealMasks(4, 13);
+    }
+
+    @Benchmark
+    public long[] pooledDeckAndDeal() {
+        return pooled.next().dealMasks(4, 13);
+    }
+}
@@ -0,0 +1,106 @@
+package com.tetgame.modules.game.tienlen;
+
+import com.tetgame.modules.room.entity.BetLevel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Các thao tác của GameEngine trong một ván 4 người. playMove/pass làm thay đổi GameState,
+ * nên mỗi lần gọi dùng một state mới dựng lại từ bitboard (setup theo Level.Invocation, rẻ so với phép đo).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameEngineBenchmark {
+    private static final int MASK = BenchmarkData.SAMPLES - 1;
+
+    // RoomService không được GameEngine dùng tới trong các thao tác này
+    private static final GameEngine ENGINE = new GameEngine(null);
+
+    @State(Scope.Thread)
+    public static class Deals {
+        long[][] deals;
+        GameState[] inProgress;
+        GameState[] finished;
+        int i;
+
+        @Setup
+        public void setup() {
+            deals = BenchmarkData.deals(BenchmarkData.SAMPLES, 4, BenchmarkData.SEED);
+            inProgress = new GameState[BenchmarkData.SAMPLES];
+            finished = new GameState[BenchmarkData.SAMPLES];
+            for (int k = 0; k < BenchmarkData.SAMPLES; k++) {
+                inProgress[k] = BenchmarkData.state(deals[k]);
+                // ván đã kết thúc: người đầu hết bài, những người khác còn số lá khác nhau
+                long[] endHands = deals[k].clone();
+                endHands[0] = 0L;
+                for (int p = 1; p < endHands.length; p++) {
+                    for (int drop = 0; drop < p * 3; drop++) endHands[p] &= endHands[p] - 1;
+                }
+                finished[k] = BenchmarkData.state(endHands);
+            }
+        }
+
+        int next() {
+            return i = (i + 1) & MASK;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class FreshTurn {
+        GameState state;
+        GameState passState;
+        UUID leader;
+        UUID follower;
+        List<Card> lead;
+
+        @Setup(Level.Invocation)
+        public void setup(Deals deals) {
+            long[] hands = deals.deals[deals.next()];
+            state = BenchmarkData.state(hands);
+            leader = state.getCurrentPlayer();
+            follower = state.getTurnOrder().get(1);
+            lead = List.of(CardMask.lowest(hands[0]));
+            // bỏ lượt chỉ hợp lệ khi trên bàn có bài và đúng lượt
+            passState = BenchmarkData.state(hands);
+            passState.setCurrentPile(Play.fromCards(lead));
+            passState.setCurrentTurnIndex(1);
+        }
+    }
+
+    @Benchmark
+    public GameState startTienLenGame() {
+        return ENGINE.startTienLenGame(new UUID(0L, 0L), BenchmarkData.players(4));
+    }
+
+    @Benchmark
+    public boolean playMove(FreshTurn turn) {
+        return ENGINE.playMove(turn.state, turn.leader, turn.lead);
+    }
+
+    @Benchmark
+    public boolean pass(FreshTurn turn) {
+        return ENGINE.pass(turn.passState, turn.follower);
+    }
+
+    @Benchmark
+    public List<UUID> checkGameEndInProgress(Deals deals) {
+        return ENGINE.checkGameEnd(deals.inProgress[deals.next()]);
+    }
+
+    @Benchmark
+    public List<UUID> checkGameEndFinished(Deals deals) {
+        return ENGINE.checkGameEnd(deals.finished[deals.next()]);
+    }
+
+    @Benchmark
+    public Map<UUID, Integer> settle(Deals deals) {
+        return SettlementEngine.settle(deals.finished[deals.next()], BetLevel.BAN3);
+    }
+}
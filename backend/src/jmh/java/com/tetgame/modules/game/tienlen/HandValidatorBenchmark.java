@@ -0,0 +1,88 @@
+package com.tetgame.modules.game.tienlen;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Phân loại bộ bài, kiểm tra tới trắng, Play.fromCards và Play.beats trên các nước đi
+ * lấy từ các ván chia ngẫu nhiên (seed cố định).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HandValidatorBenchmark {
+    private static final int MASK = BenchmarkData.SAMPLES - 1;
+
+    private List<Card>[] playCards;
+    private long[] playMasks;
+    private Play[] plays;
+    private List<Card>[] dealtHands;
+    private long[] dealtMasks;
+    private int i;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        long[][] deals = BenchmarkData.deals(BenchmarkData.SAMPLES, 4, BenchmarkData.SEED);
+        List<Play> sampled = BenchmarkData.plays(deals, BenchmarkData.SAMPLES, BenchmarkData.SEED);
+        playCards = new List[BenchmarkData.SAMPLES];
+        playMasks = new long[BenchmarkData.SAMPLES];
+        plays = new Play[BenchmarkData.SAMPLES];
+        dealtHands = new List[BenchmarkData.SAMPLES];
+        dealtMasks = new long[BenchmarkData.SAMPLES];
+        for (int k = 0; k < BenchmarkData.SAMPLES; k++) {
+            Play p = sampled.get(k);
+            playCards[k] = List.copyOf(p.getCards());
+            playMasks[k] = p.getMask();
+            plays[k] = p;
+            dealtMasks[k] = deals[k][k & 3];
+            dealtHands[k] = CardMask.toList(dealtMasks[k]);
+        }
+    }
+
+    private int next() {
+        return i = (i + 1) & MASK;
+    }
+
+    @Benchmark
+    public HandType classify() {
+        return HandValidator.classify(playCards[next()]);
+    }
+
+    @Benchmark
+    public HandType classifyMask() {
+        return HandValidator.classify(playMasks[next()]);
+    }
+
+    @Benchmark
+    public boolean laToiTrang() {
+        return HandValidator.laToiTrang(dealtHands[next()]);
+    }
+
+    @Benchmark
+    public boolean laToiTrangMask() {
+        return HandValidator.laToiTrang(dealtMasks[next()]);
+    }
+
+    @Benchmark
+    public Play playFromCards() {
+        return Play.fromCards(playCards[next()]);
+    }
+
+    @Benchmark
+    public boolean playBeats() {
+        int k = next();
+        return plays[k].beats(plays[(k * 7 + 3) & MASK]);
+    }
+
+    @Benchmark
+    public List<Play> legalPlays() {
+        int k = next();
+        return MoveGenerator.legalPlays(dealtMasks[k], plays[(k * 7 + 3) & MASK]);
+    }
+}
@@ -0,0 +1,88 @@
+package com.tetgame.websocket;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Số tin/giây một listener thread định tuyến được: chuỗi startsWith/endsWith cũ (giải mã kênh và
+ * body thành String) so với {@link ChannelRouter} đọc thẳng trên byte.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChannelRouterBenchmark {
+    private static final String[] EVENTS = {
+        "room:%s:updates", "room:%s:seats", "game:%s:updates", "game:%s:updates",
+        "game:%s:updates", "chat:%s:messages", "game:%s:ended", "lobby:updates"
+    };
+
+    private byte[][] channels;
+    private byte[] body;
+    private ChannelRouter router;
+    private int i;
+
+    @Setup
+    public void setup() {
+        channels = new byte[64][];
+        for (int k = 0; k < channels.length; k++) {
+            String pattern = EVENTS[k % EVENTS.length];
+            String channel = pattern.contains("%s") ? pattern.formatted(UUID.randomUUID()) : pattern;
+            channels[k] = channel.getBytes(StandardCharsets.UTF_8);
+        }
+        body = ("{\"type\":\"game.play\",\"playerId\":\"" + UUID.randomUUID()
+            + "\",\"cards\":[12,13,14],\"nextPlayer\":2}").getBytes(StandardCharsets.UTF_8);
+        router = ChannelRouter.standard();
+    }
+
+    @Benchmark
+    public void legacyStringChain(Blackhole bh) {
+        byte[] channelBytes = channels[i++ & 63];
+        String channel = new String(channelBytes);
+        String payload = new String(body);
+        bh.consume(legacyDestination(channel));
+        bh.consume(payload);
+    }
+
+    @Benchmark
+    public void compiledByteRouter(Blackhole bh) {
+        bh.consume(router.destination(channels[i++ & 63]));
+        bh.consume(body);
+    }
+
+    // Bản sao nhánh định tuyến cũ của RedisSubscriber.onMessage
+    private static String legacyDestination(String channel) {
+        if (channel.startsWith("lobby:")) {
+            return "/topic/lobby/updates";
+        } else if (channel.startsWith("room:") && channel.endsWith(":updates")) {
+            return "/topic/room/" + extractRoomId(channel, "room:", ":updates") + "/updates";
+        } else if (channel.startsWith("room:") && channel.endsWith(":seats")) {
+            return "/topic/room/" + extractRoomId(channel, "room:", ":seats") + "/seats";
+        } else if (channel.startsWith("room:") && channel.endsWith(":player-list")) {
+            return "/topic/room/" + extractRoomId(channel, "room:", ":player-list") + "/player-list";
+        } else if (channel.startsWith("game:") && channel.endsWith(":updates")) {
+            return "/topic/game/" + extractRoomId(channel, "game:", ":updates") + "/updates";
+        } else if (channel.startsWith("game:") && channel.endsWith(":started")) {
+            return "/topic/game/" + extractRoomId(channel, "game:", ":started") + "/started";
+        } else if (channel.startsWith("game:") && channel.endsWith(":ended")) {
+            return "/topic/game/" + extractRoomId(channel, "game:", ":ended") + "/ended";
+        } else if (channel.startsWith("chat:") && channel.endsWith(":messages")) {
+            return "/topic/chat/" + extractRoomId(channel, "chat:", ":messages") + "/messages";
+        } else if (channel.startsWith("presence:")) {
+            return "/topic/presence/updates";
+        }
+        return null;
+    }
+
+    private static String extractRoomId(String channel, String prefix, String suffix) {
+        int startIdx = channel.indexOf(prefix) + prefix.length();
+        int endIdx = channel.indexOf(suffix, startIdx);
+        return channel.substring(startIdx, endIdx);
+    }
+}
@@ -0,0 +1,158 @@
+package com.tetgame.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompEncoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chi phí một lần phát trạng thái ván cho phòng 4 người chơi + 200 người xem qua SimpleBroker,
+ * mỗi session được đóng khung STOMP như StompSubProtocolHandler. Cũ: serialize String cho Redis rồi
+ * convertAndSend(Map) serialize lại qua converter, StompEncoder mã hóa lại cả khung cho từng session.
+ * Mới: {@link RoomBroadcaster} serialize một lần, {@link SharedFrameStompEncoder} dựng khung một lần.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RoomBroadcastBenchmark {
+    private static final int PLAYERS = 4;
+    private static final int SPECTATORS = 200;
+
+    private String roomId;
+    private String destination;
+    private Map<String, Object> state;
+    private ObjectMapper objectMapper;
+    private SimpleBrokerMessageHandler broker;
+    private SimpMessagingTemplate legacyTemplate;
+    private RoomBroadcaster broadcaster;
+    private Blackhole sink;
+    private final StompEncoder stockEncoder = new StompEncoder();
+    private final StompEncoder sharedEncoder = new SharedFrameStompEncoder();
+    private StompEncoder frameEncoder;
+    private List<Map<String, Object>> sessionHeaders;
+    private byte[] statePayload;
+
+    @Setup
+    public void setup(Blackhole bh) throws Exception {
+        sink = bh;
+        roomId = UUID.randomUUID().toString();
+        destination = "/topic/game/" + roomId + "/state";
+        objectMapper = new ObjectMapper();
+
+        ExecutorSubscribableChannel inbound = new ExecutorSubscribableChannel();
+        ExecutorSubscribableChannel outbound = new ExecutorSubscribableChannel();
+        ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+        outbound.subscribe(message -> {
+            SimpMessageHeaderAccessor simp = SimpMessageHeaderAccessor.wrap(message);
+            if (simp.getMessageType() != SimpMessageType.MESSAGE) return;
+            // đóng khung STOMP cho từng session như StompSubProtocolHandler
+            StompHeaderAccessor stomp = StompHeaderAccessor.create(StompCommand.MESSAGE);
+            stomp.setDestination(simp.getDestination());
+            stomp.setSubscriptionId(simp.getSubscriptionId());
+            stomp.setMessageId(simp.getSessionId() + "-" + System.nanoTime());
+            stomp.setContentType(simp.getContentType());
+            sink.consume(frameEncoder.encode(stomp.getMessageHeaders(), (byte[]) message.getPayload()));
+        });
+        broker = new SimpleBrokerMessageHandler(inbound, outbound, brokerChannel, List.of("/topic"));
+        broker.start();
+        for (int i = 0; i < PLAYERS + SPECTATORS; i++) {
+            SimpMessageHeaderAccessor connect = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT);
+            connect.setSessionId("s" + i);
+            broker.handleMessage(MessageBuilder.createMessage(new byte[0], connect.getMessageHeaders()));
+            SimpMessageHeaderAccessor sub = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+            sub.setSessionId("s" + i);
+            sub.setSubscriptionId("sub-" + i);
+            sub.setDestination(destination);
+            broker.handleMessage(MessageBuilder.createMessage(new byte[0], sub.getMessageHeaders()));
+        }
+
+        legacyTemplate = new SimpMessagingTemplate(brokerChannel);
+        legacyTemplate.setMessageConverter(new CompositeMessageConverter(List.of(
+            new StringMessageConverter(), new ByteArrayMessageConverter(), new MappingJackson2MessageConverter())));
+        RedisTemplate<String, Object> noRedis = new RedisTemplate<>() {
+            @Override
+            public <T> T execute(RedisCallback<T> action) { return null; }
+        };
+        broadcaster = new RoomBroadcaster(objectMapper,
+            new RedisPublisher(noRedis, new SimpMessagingTemplate(brokerChannel), "bench000"));
+
+        // trạng thái giữa ván: 4 tay bài, log ~24 nước
+        state = new HashMap<>();
+        Map<String, Integer> hands = new HashMap<>();
+        List<String> log = new ArrayList<>();
+        for (int i = 0; i < PLAYERS; i++) hands.put(UUID.randomUUID().toString(), 13 - i);
+        for (int i = 0; i < 24; i++) log.add("Player " + UUID.randomUUID() + " played [THREE of SPADES, FOUR of HEARTS]");
+        state.put("currentPlayer", UUID.randomUUID().toString());
+        state.put("currentPile", "[SEVEN of CLUBS, SEVEN of HEARTS]");
+        state.put("hands", hands);
+        state.put("log", log);
+        prepareFrames();
+    }
+
+    // Riêng phần đóng khung STOMP cho 204 session, header dựng sẵn
+    private void prepareFrames() throws Exception {
+        statePayload = objectMapper.writeValueAsBytes(state);
+        sessionHeaders = new ArrayList<>();
+        for (int i = 0; i < PLAYERS + SPECTATORS; i++) {
+            StompHeaderAccessor stomp = StompHeaderAccessor.create(StompCommand.MESSAGE);
+            stomp.setDestination(destination);
+            stomp.setSubscriptionId("sub-" + i);
+            stomp.setMessageId("s" + i + "-1");
+            stomp.setContentType(RedisPublisher.PAYLOAD_TYPE);
+            sessionHeaders.add(stomp.getMessageHeaders());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        broker.stop();
+    }
+
+    @Benchmark
+    public void legacySerializePerPath() throws Exception {
+        frameEncoder = stockEncoder;
+        sink.consume(objectMapper.writeValueAsString(state)); // bản cho Redis
+        legacyTemplate.convertAndSend(destination, state);    // converter serialize lại cho broker
+    }
+
+    @Benchmark
+    public void serializeOnceBroadcast() {
+        frameEncoder = sharedEncoder;
+        broadcaster.game(roomId, "state", state);
+    }
+
+    @Benchmark
+    public void stockFrameEncoding() {
+        for (Map<String, Object> headers : sessionHeaders) sink.consume(stockEncoder.encode(headers, statePayload));
+    }
+
+    @Benchmark
+    public void sharedFrameEncoding() {
+        for (Map<String, Object> headers : sessionHeaders) sink.consume(sharedEncoder.encode(headers, statePayload));
+    }
+}
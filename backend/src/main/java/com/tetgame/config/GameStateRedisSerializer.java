@@ -0,0 +1,25 @@
+package com.tetgame.config;
+
+import com.tetgame.modules.game.tienlen.GameState;
+import com.tetgame.modules.game.tienlen.GameStateCodec;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/** Serializer cho key game:{roomId}:state, dùng định dạng nhị phân của GameStateCodec. */
+public class GameStateRedisSerializer implements RedisSerializer<GameState> {
+
+    @Override
+    public byte[] serialize(GameState state) throws SerializationException {
+        return state == null ? null : GameStateCodec.encode(state);
+    }
+
+    @Override
+    public GameState deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) return null;
+        try {
+            return GameStateCodec.decode(bytes);
+        } catch (IllegalArgumentException ex) {
+            throw new SerializationException("Cannot decode GameState snapshot", ex);
+        }
+    }
+}
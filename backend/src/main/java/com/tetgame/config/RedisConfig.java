@@ -1,5 +1,6 @@
 package com.tetgame.config;
 
+import com.tetgame.modules.game.tienlen.GameState;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
@@ -46,4 +47,17 @@ public class RedisConfig {
         template.afterPropertiesSet();
         return template;
     }
+
+    @Bean
+    public RedisTemplate<String, GameState> gameStateRedisTemplate(RedisConnectionFactory factory) {
+        RedisTemplate<String, GameState> template = new RedisTemplate<>();
+        template.setConnectionFactory(factory);
+
+        template.setKeySerializer(new StringRedisSerializer());
+        // Snapshot ván đấu dạng nhị phân (vài trăm byte), một GET/SET mỗi lượt
+        template.setValueSerializer(new GameStateRedisSerializer());
+
+        template.afterPropertiesSet();
+        return template;
+    }
 }
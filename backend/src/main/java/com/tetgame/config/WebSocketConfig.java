@@ -1,12 +1,20 @@
 package com.tetgame.config;
 
 import com.tetgame.websocket.JwtHandshakeInterceptor;
+import com.tetgame.websocket.SharedFrameStompEncoder;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.messaging.StompSubProtocolHandler;
+import org.springframework.web.socket.messaging.SubProtocolHandler;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
 
 @Configuration
 @EnableWebSocketMessageBroker
@@ -37,6 +45,21 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .withSockJS();
     }
 
+    /**
+     * Khung MESSAGE của cùng một tin được mã hóa một lần cho mọi session (xem SharedFrameStompEncoder).
+     * Handler STOMP chỉ được gắn vào sau khi mọi singleton đã tạo xong nên thay encoder ở bước này.
+     */
+    @Bean
+    public static SmartInitializingSingleton sharedFrameStompEncoder(
+            @Qualifier("subProtocolWebSocketHandler") WebSocketHandler webSocketHandler) {
+        return () -> {
+            if (!(webSocketHandler instanceof SubProtocolWebSocketHandler handler)) return;
+            for (SubProtocolHandler protocolHandler : handler.getProtocolHandlers()) {
+                if (protocolHandler instanceof StompSubProtocolHandler stomp) stomp.setEncoder(new SharedFrameStompEncoder());
+            }
+        };
+    }
+
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
         // Can add custom interceptors here if needed
@@ -0,0 +1,226 @@
+package com.tetgame.modules.game;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mỗi phòng một hộp thư (mailbox): mọi lệnh của cùng một phòng chạy tuần tự, không chồng lấn,
+ * trong khi các phòng khác nhau chạy song song trên một pool worker dùng chung (số luồng = số core).
+ * Hàng đợi mỗi phòng có giới hạn; lệnh vượt quá bị từ chối thay vì chặn luồng inbound của STOMP.
+ * <p>
+ * Chỉ tuần tự trong một node. Giữa các node, snapshot ván được ghi bằng so sánh-và-ghi theo revision
+ * ({@code RoomStateService#saveGameState}): lệnh chạy song song trên node khác sẽ ghi hỏng và bị bỏ.
+ * Mailbox rảnh quá {@code idleTimeout} bị dọn trong lượt quét chạy kèm submit, nên số mailbox chỉ
+ * tỉ lệ với số phòng có lệnh gần đây, kể cả phòng không bao giờ gọi {@link #release}.
+ */
+@Component
+public class RoomCommandExecutor {
+    private static final Logger log = LoggerFactory.getLogger(RoomCommandExecutor.class);
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+    public static final long DEFAULT_IDLE_TIMEOUT_MS = 10 * 60_000;
+    // Số lệnh tối đa xử lý liên tục cho một phòng trước khi nhường worker cho phòng khác
+    private static final int BATCH = 32;
+
+    private final ExecutorService workers;
+    private final int queueCapacity;
+    private final ConcurrentHashMap<UUID, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final LongAdder rejected = new LongAdder();
+    private final long idleTimeoutNanos;
+    private final AtomicLong nextSweep;
+
+    public RoomCommandExecutor() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public RoomCommandExecutor(int threads, int queueCapacity) {
+        this(threads, queueCapacity, DEFAULT_IDLE_TIMEOUT_MS);
+    }
+
+    public RoomCommandExecutor(int threads, int queueCapacity, long idleTimeoutMs) {
+        this.queueCapacity = queueCapacity;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs);
+        this.nextSweep = new AtomicLong(System.nanoTime() + idleTimeoutNanos / 2);
+        AtomicInteger ids = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "room-worker-" + ids.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Xếp lệnh vào hàng đợi của phòng. Trả về false nếu hàng đợi đầy hoặc executor đã đóng. */
+    public boolean submit(UUID roomId, Runnable command) {
+        sweepIfDue(System.nanoTime());
+        AtomicBoolean accepted = new AtomicBoolean();
+        // Giữ chỗ trong compute để không đua với release()
+        Mailbox mailbox = mailboxes.compute(roomId, (id, mb) -> {
+            if (mb == null) mb = new Mailbox(id);
+            accepted.set(mb.reserve());
+            return mb;
+        });
+        if (!accepted.get()) {
+            rejected.increment();
+            return false;
+        }
+        mailbox.queue.offer(command);
+        mailbox.schedule();
+        return true;
+    }
+
+    /**
+     * Bỏ mailbox của phòng khi ván kết thúc. Có thể gọi từ chính lệnh của phòng:
+     * mailbox chỉ bị xóa khi không còn lệnh nào đang chạy hoặc đang chờ.
+     */
+    public void release(UUID roomId) {
+        Mailbox mb = mailboxes.get(roomId);
+        if (mb != null) {
+            mb.released = true;
+            mb.tryRemove();
+        }
+    }
+
+    /** Dọn mọi mailbox rảnh (không lệnh chạy/chờ) quá idleTimeout; trả về số mailbox đã bỏ. */
+    public int evictIdle() {
+        return evictIdle(System.nanoTime());
+    }
+
+    // Mỗi nửa idleTimeout chỉ một lời gọi submit đi quét
+    private void sweepIfDue(long now) {
+        long due = nextSweep.get();
+        if (now - due >= 0 && nextSweep.compareAndSet(due, now + idleTimeoutNanos / 2)) evictIdle(now);
+    }
+
+    private int evictIdle(long now) {
+        int evicted = 0;
+        for (Mailbox mb : mailboxes.values()) {
+            if (mb.isIdle(now) && mb.tryRemoveIdle(now)) evicted++;
+        }
+        return evicted;
+    }
+
+    // ========== METRICS ==========
+
+    public int queueDepth(UUID roomId) {
+        Mailbox mb = mailboxes.get(roomId);
+        return mb == null ? 0 : mb.depth.get();
+    }
+
+    public int peakQueueDepth(UUID roomId) {
+        Mailbox mb = mailboxes.get(roomId);
+        return mb == null ? 0 : mb.peak.get();
+    }
+
+    public long processedCount(UUID roomId) {
+        Mailbox mb = mailboxes.get(roomId);
+        return mb == null ? 0L : mb.processed.sum();
+    }
+
+    /** Độ sâu hàng đợi hiện tại của từng phòng đang có mailbox. */
+    public Map<UUID, Integer> queueDepths() {
+        Map<UUID, Integer> result = new LinkedHashMap<>();
+        mailboxes.forEach((id, mb) -> result.put(id, mb.depth.get()));
+        return result;
+    }
+
+    public long rejectedCount() { return rejected.sum(); }
+    public int getQueueCapacity() { return queueCapacity; }
+
+    @PreDestroy
+    public void close() {
+        workers.shutdown();
+    }
+
+    private final class Mailbox implements Runnable {
+        private final UUID roomId;
+        private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger depth = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final LongAdder processed = new LongAdder();
+        private final AtomicInteger peak = new AtomicInteger();
+        private volatile boolean released;
+        private volatile long lastActive = System.nanoTime();
+
+        Mailbox(UUID roomId) { this.roomId = roomId; }
+
+        boolean reserve() {
+            int d = depth.incrementAndGet();
+            if (d > queueCapacity) {
+                depth.decrementAndGet();
+                return false;
+            }
+            peak.accumulateAndGet(d, Math::max);
+            lastActive = System.nanoTime();
+            return true;
+        }
+
+        void tryRemove() {
+            mailboxes.computeIfPresent(roomId, (id, mb) -> mb == this && depth.get() == 0 ? null : mb);
+        }
+
+        boolean isIdle(long now) {
+            return depth.get() == 0 && now - lastActive >= idleTimeoutNanos;
+        }
+
+        // Kiểm tra lại trong compute: submit giữ chỗ cũng trong compute nên không thể lọt vào giữa
+        boolean tryRemoveIdle(long now) {
+            AtomicBoolean removed = new AtomicBoolean();
+            mailboxes.computeIfPresent(roomId, (id, mb) -> {
+                if (mb != this || !isIdle(now)) return mb;
+                removed.set(true);
+                return null;
+            });
+            return removed.get();
+        }
+
+        void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    workers.execute(this);
+                } catch (RejectedExecutionException ex) {
+                    // executor đã đóng: bỏ các lệnh còn lại
+                    queue.clear();
+                    depth.set(0);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < BATCH; i++) {
+                Runnable command = queue.poll();
+                if (command == null) break;
+                // đếm trước khi chạy: ai chờ lệnh cuối chạy xong thì đã thấy đủ số đếm
+                processed.increment();
+                try {
+                    command.run();
+                } catch (Throwable ex) {
+                    log.error("Room {}: command failed", roomId, ex);
+                } finally {
+                    depth.decrementAndGet();
+                }
+            }
+            lastActive = System.nanoTime();
+            scheduled.set(false);
+            if (released) tryRemove();
+            // Lệnh đến sau khi poll trả về null, hoặc còn lệnh sau một batch: lên lịch lại
+            if (!queue.isEmpty()) schedule();
+        }
+    }
+}
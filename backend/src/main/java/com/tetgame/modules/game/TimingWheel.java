@@ -0,0 +1,215 @@
+package com.tetgame.modules.game;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.LongSupplier;
+
+/**
+ * Hashed timing wheel (kiểu Varghese & Lauck): một vòng các ô, mỗi ô là danh sách liên kết đôi
+ * các timeout; timeout xa hơn một vòng mang theo số vòng còn lại. schedule/cancel O(1) từ bất kỳ
+ * thread nào (đẩy vào hàng đợi lock-free), chỉ thread tick mới chạm vào các ô.
+ * <p>
+ * Task chạy trên thread tick nên phải ngắn (thường chỉ submit vào {@link RoomCommandExecutor}).
+ */
+public final class TimingWheel implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(TimingWheel.class);
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+    // Giới hạn số timeout mới chuyển vào vòng mỗi tick để một đợt schedule dồn dập không làm trễ tick
+    private static final int MAX_TRANSFER_PER_TICK = 100_000;
+
+    private final long tickMillis;
+    private final int mask;
+    private final Bucket[] wheel;
+    private final LongSupplier clock;
+    private final long startMillis;
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger scheduled = new AtomicInteger();
+    // tick kế tiếp cần xử lý (chỉ thread tick đọc/ghi)
+    private long tick;
+    private volatile Thread worker;
+    private volatile boolean closed;
+
+    public TimingWheel(long tickMillis, int wheelSize) {
+        this(tickMillis, wheelSize, System::currentTimeMillis);
+    }
+
+    public TimingWheel(long tickMillis, int wheelSize, LongSupplier clock) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("tickMillis must be > 0");
+        if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("wheelSize must be a power of two");
+        }
+        this.tickMillis = tickMillis;
+        this.mask = wheelSize - 1;
+        this.wheel = new Bucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) wheel[i] = new Bucket();
+        this.clock = clock;
+        this.startMillis = clock.getAsLong();
+    }
+
+    public Timeout schedule(Runnable task, long delayMillis) {
+        if (closed) throw new IllegalStateException("TimingWheel is closed");
+        long deadline = clock.getAsLong() + Math.max(0L, delayMillis);
+        Timeout timeout = new Timeout(task, deadline);
+        scheduled.incrementAndGet();
+        pending.add(timeout);
+        return timeout;
+    }
+
+    /** Chạy thread tick nền (daemon). Test có thể bỏ qua và gọi {@link #advance} trực tiếp. */
+    public synchronized TimingWheel start() {
+        if (worker == null) {
+            Thread t = new Thread(this::runLoop, "timing-wheel");
+            t.setDaemon(true);
+            worker = t;
+            t.start();
+        }
+        return this;
+    }
+
+    /** Xử lý mọi tick có thời điểm <= nowMillis. Chỉ được gọi từ một thread. */
+    public void advance(long nowMillis) {
+        while (startMillis + tick * tickMillis <= nowMillis) {
+            processCancelled();
+            transferPending();
+            wheel[(int) (tick & mask)].expire();
+            tick++;
+        }
+    }
+
+    /** Số timeout đã schedule mà chưa hết hạn hoặc bị hủy. */
+    public int pendingTimeouts() { return scheduled.get(); }
+    public long getTickMillis() { return tickMillis; }
+
+    @Override
+    public void close() {
+        closed = true;
+        Thread t = worker;
+        if (t != null) t.interrupt();
+    }
+
+    private void runLoop() {
+        while (!closed) {
+            long next = startMillis + tick * tickMillis;
+            long sleep = next - clock.getAsLong();
+            if (sleep > 0) {
+                try {
+                    Thread.sleep(sleep);
+                } catch (InterruptedException ex) {
+                    if (closed) return;
+                }
+                continue;
+            }
+            advance(clock.getAsLong());
+        }
+    }
+
+    private void transferPending() {
+        for (int i = 0; i < MAX_TRANSFER_PER_TICK; i++) {
+            Timeout t = pending.poll();
+            if (t == null) return;
+            if (t.state != PENDING) continue;
+            long deadlineTick = Math.floorDiv(t.deadline - startMillis + tickMillis - 1, tickMillis);
+            long target = Math.max(deadlineTick, tick);
+            t.remainingRounds = (target - tick) >>> Integer.numberOfTrailingZeros(wheel.length);
+            wheel[(int) (target & mask)].add(t);
+        }
+    }
+
+    private void processCancelled() {
+        Timeout t;
+        while ((t = cancelled.poll()) != null) {
+            if (t.bucket != null) t.bucket.remove(t);
+        }
+    }
+
+    public final class Timeout {
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final Runnable task;
+        private final long deadline;
+        private volatile int state = PENDING;
+        // các trường dưới chỉ thread tick truy cập
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /** Hủy timeout; false nếu đã hết hạn hoặc đã hủy trước đó. */
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, PENDING, CANCELLED)) return false;
+            scheduled.decrementAndGet();
+            cancelled.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() { return state == CANCELLED; }
+        public boolean isExpired() { return state == EXPIRED; }
+        public long getDeadlineMillis() { return deadline; }
+
+        private void expire() {
+            if (!STATE.compareAndSet(this, PENDING, EXPIRED)) return;
+            scheduled.decrementAndGet();
+            try {
+                task.run();
+            } catch (Throwable ex) {
+                log.error("Timeout task due at {} failed", deadline, ex);
+            }
+        }
+    }
+
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout t) {
+            t.bucket = this;
+            if (head == null) {
+                head = tail = t;
+            } else {
+                tail.next = t;
+                t.prev = tail;
+                tail = t;
+            }
+        }
+
+        void remove(Timeout t) {
+            Timeout next = t.next;
+            if (t.prev != null) t.prev.next = next;
+            if (next != null) next.prev = t.prev;
+            if (t == head) head = next;
+            if (t == tail) tail = t.prev;
+            t.prev = t.next = null;
+            t.bucket = null;
+        }
+
+        void expire() {
+            Timeout t = head;
+            while (t != null) {
+                Timeout next = t.next;
+                if (t.remainingRounds <= 0) {
+                    remove(t);
+                    t.expire();
+                } else if (t.isCancelled()) {
+                    remove(t);
+                } else {
+                    t.remainingRounds--;
+                }
+                t = next;
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.tetgame.modules.game.bala;
+
+import com.tetgame.modules.game.tienlen.DeckSource;
+import org.springframework.stereotype.Service;
+
+/**
+ * Luật Ba Lá: mỗi người 3 lá, tay có hạng cao nhất (xem {@link BaLaRanking}) ăn hết tiền cược
+ * của cả bàn. Chia và so bài trong một lượt qua các ghế, chỉ tra bảng, không cấp phát.
+ */
+@Service
+public class BaLaEngine {
+    public static final int CARDS_PER_PLAYER = 3;
+
+    /** Chơi một ván với seed từ PRNG; trả về ghế thắng. */
+    public int playRound(BaLaTable table) {
+        return playRound(table, DeckSource.nextSeed());
+    }
+
+    /** Như trên với seed cho trước (dựng lại ván khi đối soát). */
+    public int playRound(BaLaTable table, long seed) {
+        DeckSource.shuffleInto(seed, table.deck);
+        table.seed = seed;
+        table.round++;
+        int n = table.getSeatCount();
+        byte[] deck = table.deck;
+        long[] masks = table.masks;
+        int[] ranks = table.ranks;
+        long[] bets = table.bets;
+        long[] deltas = table.deltas;
+        int best = 0, bestRank = -1;
+        long pot = 0L;
+        for (int i = 0; i < n; i++) {
+            // chia vòng như bàn thật: lá thứ k của ghế i là deck[k * n + i]
+            long hand = 1L << deck[i] | 1L << deck[n + i] | 1L << deck[2 * n + i];
+            int rank = BaLaRanking.rank(hand);
+            masks[i] = hand;
+            ranks[i] = rank;
+            deltas[i] = -bets[i];
+            pot += bets[i];
+            if (rank > bestRank) {
+                bestRank = rank;
+                best = i;
+            }
+        }
+        deltas[best] += pot;
+        table.winner = best;
+        return best;
+    }
+}
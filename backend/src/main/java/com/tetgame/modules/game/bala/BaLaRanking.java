@@ -0,0 +1,93 @@
+package com.tetgame.modules.game.bala;
+
+import com.tetgame.modules.game.tienlen.CardMask;
+import com.tetgame.modules.game.tienlen.CardRank;
+import com.tetgame.modules.game.tienlen.CardSuit;
+
+import java.util.Arrays;
+
+/**
+ * Bảng xếp hạng dựng sẵn cho mọi tay Ba Lá (C(52,3) = 22100 tay). Chỉ số của tay là số thứ tự
+ * tổ hợp của 3 mã lá (C(c0,1) + C(c1,2) + C(c2,3), c0 < c1 < c2 lấy thẳng từ bitboard nên không
+ * cần sắp xếp); giá trị là hạng dày (0 = yếu nhất) nên so bài chỉ là một lần tra mảng.
+ * <p>
+ * Luật: Sáp (3 lá cùng rank) > Ba Tây (3 lá J/Q/K) > điểm (tổng điểm mod 10, A = 1, 10/J/Q/K = 0).
+ * Bằng nhau thì so lá mạnh nhất: chất Rô > Cơ > Bích > Chuồn, cùng chất thì A > K > ... > 2.
+ * Hai tay cùng một ván không thể có chung lá mạnh nhất nên trong một ván không bao giờ hòa.
+ */
+public final class BaLaRanking {
+    public static final int HANDS = 22100;
+
+    public static final int POINTS = 0;
+    public static final int BA_TAY = 1;
+    public static final int SAP = 2;
+
+    private static final int[][] BINOM = new int[CardMask.DECK_SIZE][4];
+    private static final short[] RANK = new short[HANDS];
+    private static final int[] VALUE = new int[HANDS];
+
+    static {
+        for (int n = 0; n < CardMask.DECK_SIZE; n++) {
+            BINOM[n][0] = 1;
+            for (int k = 1; k < 4 && k <= n; k++) BINOM[n][k] = BINOM[n - 1][k - 1] + BINOM[n - 1][k];
+        }
+        for (int a = 0; a < CardMask.DECK_SIZE; a++)
+            for (int b = a + 1; b < CardMask.DECK_SIZE; b++)
+                for (int c = b + 1; c < CardMask.DECK_SIZE; c++) {
+                    VALUE[BINOM[a][1] + BINOM[b][2] + BINOM[c][3]] = slowValue(a, b, c);
+                }
+        int[] distinct = Arrays.stream(VALUE).distinct().sorted().toArray();
+        for (int i = 0; i < HANDS; i++) RANK[i] = (short) Arrays.binarySearch(distinct, VALUE[i]);
+    }
+
+    private BaLaRanking() {}
+
+    /** Chỉ số tổ hợp của tay 3 lá. */
+    public static int index(long mask) {
+        int c0 = Long.numberOfTrailingZeros(mask);
+        mask &= mask - 1;
+        int c1 = Long.numberOfTrailingZeros(mask);
+        mask &= mask - 1;
+        int c2 = Long.numberOfTrailingZeros(mask);
+        return BINOM[c0][1] + BINOM[c1][2] + BINOM[c2][3];
+    }
+
+    /** Hạng của tay (càng lớn càng mạnh). */
+    public static int rank(long mask) { return RANK[index(mask)]; }
+    public static int category(long mask) { return VALUE[index(mask)] >>> 12; }
+    /** Số nút (0..9); có nghĩa khi loại là {@link #POINTS}. */
+    public static int points(long mask) { return (VALUE[index(mask)] >>> 8) & 0xF; }
+
+    // loại << 12 | nút << 8 | rank sáp << 6 (chỉ cho Sáp) | lá mạnh nhất (chất 2 bit, rank 4 bit)
+    private static int slowValue(int... codes) {
+        CardRank[] ranks = CardRank.values();
+        int points = 0, face = 0, best = 0;
+        for (int code : codes) {
+            CardRank rank = ranks[code / CardMask.SUITS];
+            CardSuit suit = CardSuit.values()[code % CardMask.SUITS];
+            int v = rank.getValue();   // 3..15, A = 14, 2 = 15
+            points += v == 14 ? 1 : v == 15 ? 2 : v >= 10 ? 0 : v;
+            if (v >= 11 && v <= 13) face++;
+            int pokerRank = v == 15 ? 0 : v - 2;   // 2 = 0 ... A = 12
+            best = Math.max(best, suitOrder(suit) << 4 | pokerRank);
+        }
+        int r0 = codes[0] / CardMask.SUITS;
+        boolean sap = r0 == codes[1] / CardMask.SUITS && r0 == codes[2] / CardMask.SUITS;
+        if (sap) {
+            int v = ranks[r0].getValue();
+            return SAP << 12 | (v == 15 ? 0 : v - 2) << 6 | best;
+        }
+        if (face == 3) return BA_TAY << 12 | best;
+        return POINTS << 12 | (points % 10) << 8 | best;
+    }
+
+    // Rô > Cơ > Bích > Chuồn
+    private static int suitOrder(CardSuit suit) {
+        return switch (suit) {
+            case DIAMONDS -> 3;
+            case HEARTS -> 2;
+            case SPADES -> 1;
+            case CLUBS -> 0;
+        };
+    }
+}
@@ -0,0 +1,50 @@
+package com.tetgame.modules.game.bala;
+
+import com.tetgame.modules.game.tienlen.CardMask;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Trạng thái một bàn Ba Lá, cấp một lần khi mở bàn và dùng lại cho mọi ván nên mỗi ván
+ * trong {@link BaLaEngine} không cấp phát.
+ */
+public class BaLaTable {
+    public static final int MAX_PLAYERS = 17; // 17 * 3 = 51 lá
+
+    private final UUID roomId;
+    private final UUID[] seats;
+    final long[] masks;
+    final int[] ranks;
+    final long[] bets;
+    final long[] deltas;
+    final byte[] deck = new byte[CardMask.DECK_SIZE];
+    long seed;
+    int round;
+    int winner = -1;
+
+    public BaLaTable(UUID roomId, List<UUID> players) {
+        if (players.size() < 2 || players.size() > MAX_PLAYERS) {
+            throw new IllegalArgumentException("Ba La needs 2-" + MAX_PLAYERS + " players");
+        }
+        this.roomId = roomId;
+        this.seats = players.toArray(new UUID[0]);
+        this.masks = new long[seats.length];
+        this.ranks = new int[seats.length];
+        this.bets = new long[seats.length];
+        this.deltas = new long[seats.length];
+    }
+
+    public UUID getRoomId() { return roomId; }
+    public int getSeatCount() { return seats.length; }
+    public UUID getPlayer(int seat) { return seats[seat]; }
+    public long getHand(int seat) { return masks[seat]; }
+    public int getRank(int seat) { return ranks[seat]; }
+    public long getBet(int seat) { return bets[seat]; }
+    public void setBet(int seat, long amount) { bets[seat] = amount; }
+    public long getDelta(int seat) { return deltas[seat]; }
+    /** Ghế thắng ván vừa chơi, -1 nếu chưa chơi ván nào. */
+    public int getWinner() { return winner; }
+    public long getSeed() { return seed; }
+    public int getRound() { return round; }
+}
@@ -0,0 +1,109 @@
+package com.tetgame.modules.game.baucua;
+
+import com.tetgame.modules.user.service.WalletService;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Luật Bầu Cua: lắc 3 xúc xắc, mặt nào ra k lần thì cược vào mặt đó ăn k lần tiền cược,
+ * mặt không ra thì mất cược. Tiền cược bị trừ khỏi ví ngay khi đặt (không đủ số dư thì từ chối),
+ * sổ cược nằm trong {@link BauCuaRound} (không khóa). Đóng ván chỉ còn cộng tiền cho người thắng
+ * (vốn + tiền ăn) bằng một lần {@link WalletService#applyDeltas}, nên không thể lỗi vì thiếu số dư;
+ * ghi ví lỗi thì ván chưa bị coi là đã tính tiền và gọi settle lại được.
+ */
+@Service
+public class BauCuaEngine {
+    public static final int DICE = 3;
+
+    private final WalletService walletService;
+    private final SecureRandom random = new SecureRandom();
+    private final AtomicLong roundIds = new AtomicLong();
+
+    /**
+     * Kết quả một ván: mặt xúc xắc, tiền thắng/thua ròng từng người (chỉ người có tiền đổi),
+     * tiền cộng vào ví khi tính tiền (chỉ người có mặt trúng) và phần nhà cái.
+     */
+    public record Result(long roundId, List<BauCuaSymbol> dice, Map<UUID, Long> deltas,
+                         Map<UUID, Long> payouts, long houseDelta) {}
+
+    public BauCuaEngine(WalletService walletService) {
+        this.walletService = walletService;
+    }
+
+    public BauCuaRound openRound(UUID roomId) {
+        return new BauCuaRound(roomId, roundIds.incrementAndGet());
+    }
+
+    /**
+     * Đặt cược, gọi được từ nhiều thread cùng lúc: trừ tiền cược khỏi ví rồi ghi sổ.
+     * False nếu ván đã đóng, số tiền <= 0 hoặc ví không đủ; ván đóng giữa chừng thì hoàn lại tiền.
+     */
+    public boolean placeBet(BauCuaRound round, UUID userId, BauCuaSymbol symbol, long amount) {
+        if (amount <= 0 || round.isClosed()) return false;
+        try {
+            walletService.subtract(userId, amount);
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+        if (round.bet(userId, symbol, amount)) return true;
+        walletService.add(userId, amount);
+        return false;
+    }
+
+    /** Đóng ván, lắc xúc xắc (hoặc dùng kết quả đã chốt nếu lần tính trước lỗi) và tính tiền. */
+    public Result settle(BauCuaRound round) {
+        List<BauCuaSymbol> dice = round.getDice();
+        if (dice == null) {
+            dice = new ArrayList<>(DICE);
+            for (int i = 0; i < DICE; i++) dice.add(BauCuaSymbol.of(random.nextInt(BauCuaSymbol.COUNT)));
+        }
+        return settle(round, dice);
+    }
+
+    /** Như trên với kết quả xúc xắc cho trước (đối soát, test). */
+    public Result settle(BauCuaRound round, List<BauCuaSymbol> dice) {
+        if (dice.size() != DICE) throw new IllegalArgumentException("Bau Cua needs " + DICE + " dice");
+        round.close();
+        if (!round.beginSettle()) throw new IllegalStateException("Round already settled");
+        boolean committed = false;
+        try {
+            List<BauCuaSymbol> rolled = round.fixDice(List.copyOf(dice));
+            if (!rolled.equals(dice)) throw new IllegalStateException("Dice already rolled for this round");
+
+            // số lần mỗi mặt ra: trúng k lần thì nhận lại vốn + k lần tiền cược (vốn đã trừ lúc đặt)
+            long[] hits = new long[BauCuaSymbol.COUNT];
+            for (BauCuaSymbol face : rolled) hits[face.ordinal()]++;
+
+            Map<UUID, AtomicLongArray> ledger = round.ledger();
+            Map<UUID, Long> deltas = new HashMap<>(ledger.size() * 4 / 3 + 1);
+            Map<UUID, Long> payouts = new HashMap<>();
+            long house = 0L;
+            for (Map.Entry<UUID, AtomicLongArray> e : ledger.entrySet()) {
+                AtomicLongArray bets = e.getValue();
+                long staked = 0L, payout = 0L;
+                for (int s = 0; s < BauCuaSymbol.COUNT; s++) {
+                    long bet = bets.get(s);
+                    staked += bet;
+                    if (hits[s] > 0) payout += bet * (hits[s] + 1);
+                }
+                long delta = payout - staked;
+                if (delta != 0L) deltas.put(e.getKey(), delta);
+                if (payout > 0L) payouts.put(e.getKey(), payout);
+                house -= delta;
+            }
+            walletService.applyDeltas(payouts);
+            committed = true;
+            return new Result(round.getRoundId(), rolled, deltas, payouts, house);
+        } finally {
+            round.endSettle(committed);
+        }
+    }
+}
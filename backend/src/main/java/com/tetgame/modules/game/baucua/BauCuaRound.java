@@ -0,0 +1,89 @@
+package com.tetgame.modules.game.baucua;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Một ván Bầu Cua đang nhận cược. Có thể có hàng nghìn người đặt cùng lúc nên không có khóa chung:
+ * tổng cược mỗi mặt là một {@link LongAdder} (cộng dồn phân mảnh theo thread), sổ cược của từng
+ * người là một {@link AtomicLongArray} 6 ô trong {@link ConcurrentHashMap}.
+ * <p>
+ * Đóng ván: bật cờ closed rồi chờ các lượt đặt đang dở (đếm bằng inFlight) xong hẳn, sau đó sổ
+ * cược không đổi nữa và có thể tính tiền một lượt.
+ * <p>
+ * Tiền cược đã bị trừ khỏi ví lúc đặt ({@link BauCuaEngine#placeBet}); ván chỉ được đánh dấu đã tính
+ * tiền sau khi ghi ví thành công, ghi ví lỗi thì ván trở lại chờ tính tiền với đúng kết quả xúc xắc cũ.
+ */
+public class BauCuaRound {
+    private final UUID roomId;
+    private final long roundId;
+    private final LongAdder[] totals = new LongAdder[BauCuaSymbol.COUNT];
+    private final Map<UUID, AtomicLongArray> ledger = new ConcurrentHashMap<>();
+    private final LongAdder inFlight = new LongAdder();
+    private volatile boolean closed;
+    // 0 = chưa tính tiền, 1 = đang tính, 2 = đã tính xong
+    private final AtomicInteger settlement = new AtomicInteger();
+    private final AtomicReference<List<BauCuaSymbol>> dice = new AtomicReference<>();
+
+    public BauCuaRound(UUID roomId, long roundId) {
+        this.roomId = roomId;
+        this.roundId = roundId;
+        for (int i = 0; i < totals.length; i++) totals[i] = new LongAdder();
+    }
+
+    /** Ghi cược; false nếu ván đã đóng hoặc số tiền không hợp lệ. */
+    boolean bet(UUID userId, BauCuaSymbol symbol, long amount) {
+        if (amount <= 0 || closed) return false;
+        inFlight.increment();
+        try {
+            // kiểm tra lại sau khi đã đăng ký: close() thấy inFlight > 0 sẽ chờ lượt này
+            if (closed) return false;
+            ledger.computeIfAbsent(userId, id -> new AtomicLongArray(BauCuaSymbol.COUNT))
+                .addAndGet(symbol.ordinal(), amount);
+            totals[symbol.ordinal()].add(amount);
+            return true;
+        } finally {
+            inFlight.decrement();
+        }
+    }
+
+    /** Ngừng nhận cược và chờ các lượt đặt đang dở. Gọi nhiều lần không sao. */
+    void close() {
+        closed = true;
+        while (inFlight.sum() != 0) Thread.onSpinWait();
+    }
+
+    /** Giành quyền tính tiền; false nếu ván đang được tính hoặc đã tính xong. */
+    boolean beginSettle() { return settlement.compareAndSet(0, 1); }
+
+    /** Kết thúc lượt tính tiền: thành công thì ván xong hẳn, lỗi thì cho tính lại. */
+    void endSettle(boolean committed) { settlement.set(committed ? 2 : 0); }
+
+    /** Chốt kết quả xúc xắc lần đầu; các lần sau trả về kết quả đã chốt. */
+    List<BauCuaSymbol> fixDice(List<BauCuaSymbol> rolled) {
+        return dice.compareAndSet(null, rolled) ? rolled : dice.get();
+    }
+
+    public UUID getRoomId() { return roomId; }
+    public long getRoundId() { return roundId; }
+    public boolean isClosed() { return closed; }
+    public boolean isSettled() { return settlement.get() == 2; }
+    /** Kết quả xúc xắc đã chốt, null nếu chưa lắc. */
+    public List<BauCuaSymbol> getDice() { return dice.get(); }
+    public long getTotal(BauCuaSymbol symbol) { return totals[symbol.ordinal()].sum(); }
+    public int getBettorCount() { return ledger.size(); }
+
+    /** Cược của một người vào một mặt (0 nếu chưa đặt). */
+    public long getBet(UUID userId, BauCuaSymbol symbol) {
+        AtomicLongArray bets = ledger.get(userId);
+        return bets == null ? 0L : bets.get(symbol.ordinal());
+    }
+
+    Map<UUID, AtomicLongArray> ledger() { return ledger; }
+}
@@ -0,0 +1,16 @@
+package com.tetgame.modules.game.baucua;
+
+/** Sáu mặt xúc xắc Bầu Cua; ordinal dùng làm chỉ số trong các bộ cộng dồn. */
+public enum BauCuaSymbol {
+    NAI,   // Nai
+    BAU,   // Bầu
+    GA,    // Gà
+    CA,    // Cá
+    CUA,   // Cua
+    TOM;   // Tôm
+
+    public static final int COUNT = 6;
+    private static final BauCuaSymbol[] VALUES = values();
+
+    public static BauCuaSymbol of(int ordinal) { return VALUES[ordinal]; }
+}
@@ -0,0 +1,18 @@
+package com.tetgame.modules.game.binh;
+
+/** Cách xếp 13 lá: chi cuối (5 lá), chi giữa (5 lá), chi đầu (3 lá), đều là bitboard. */
+public record BinhArrangement(long back, long middle, long front) {
+
+    /** Đúng số lá mỗi chi, không trùng lá và dùng đúng các lá trên tay. */
+    public boolean isWellFormed(long hand) {
+        return Long.bitCount(back) == 5 && Long.bitCount(middle) == 5 && Long.bitCount(front) == 3
+            && (back & middle) == 0L && (back & front) == 0L && (middle & front) == 0L
+            && (back | middle | front) == hand;
+    }
+
+    /** Binh lủng: chi sau yếu hơn chi trước. */
+    public boolean isFouled() {
+        int middleValue = BinhEvaluator.eval5(middle);
+        return BinhEvaluator.eval5(back) < middleValue || middleValue < BinhEvaluator.eval3(front);
+    }
+}
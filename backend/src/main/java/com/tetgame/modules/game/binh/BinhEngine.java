@@ -0,0 +1,97 @@
+package com.tetgame.modules.game.binh;
+
+import com.tetgame.modules.game.tienlen.DeckSource;
+import org.springframework.stereotype.Service;
+
+/**
+ * Luật Mậu Binh: chia 13 lá mỗi người, mỗi người xếp 3 chi rồi so chi với từng người khác.
+ * <ul>
+ *   <li>Thắng/thua mỗi chi: ±1. Thắng cả 3 chi với một người (sập hầm): x2.</li>
+ *   <li>Binh lủng thua mọi người không lủng {@link #FOUL_PENALTY} chi; hai người cùng lủng thì hòa.</li>
+ *   <li>Sập hầm tất cả người còn lại (sập làng, từ 3 người): tiền ăn từ mỗi người x2 lần nữa.</li>
+ * </ul>
+ * So bài chỉ là tra bảng nên chạy thẳng trong mailbox của phòng; xếp bài tự động (hết giờ hoặc
+ * gợi ý) dùng {@link BinhOptimizer}.
+ */
+@Service
+public class BinhEngine {
+    public static final int CARDS_PER_PLAYER = 13;
+    public static final int MAX_PLAYERS = 4;
+    public static final int FOUL_PENALTY = 6;
+
+    /** Kết quả so bài: chi thắng/thua của từng ghế, ghế lủng (bit), số người bị mỗi ghế sập hầm. */
+    public record Showdown(int[] chi, int fouledSeats, int[] scoops) {
+        public boolean isFouled(int seat) { return (fouledSeats & (1 << seat)) != 0; }
+    }
+
+    /** Chia bài cho 2-4 người từ seed (dựng lại được ván khi đối soát). */
+    public long[] deal(int players, long seed) {
+        if (players < 2 || players > MAX_PLAYERS) throw new IllegalArgumentException("Binh needs 2-4 players");
+        return DeckSource.shuffle(seed).dealMasks(players, CARDS_PER_PLAYER);
+    }
+
+    public long[] deal(int players) {
+        return deal(players, DeckSource.nextSeed());
+    }
+
+    /** Xếp bài tốt nhất cho tay bài (gợi ý, hoặc xếp thay người hết giờ). */
+    public BinhArrangement autoArrange(long hand) {
+        return BinhOptimizer.best(hand);
+    }
+
+    /**
+     * So bài cả bàn. arrangements[i] null hoặc không khớp tay bài thì được xếp tự động.
+     * Tổng chi của cả bàn luôn bằng 0.
+     */
+    public Showdown showdown(long[] hands, BinhArrangement[] arrangements) {
+        int n = hands.length;
+        int[] back = new int[n], middle = new int[n], front = new int[n];
+        int fouled = 0;
+        for (int i = 0; i < n; i++) {
+            BinhArrangement a = arrangements[i];
+            if (a == null || !a.isWellFormed(hands[i])) arrangements[i] = a = autoArrange(hands[i]);
+            back[i] = BinhEvaluator.eval5(a.back());
+            middle[i] = BinhEvaluator.eval5(a.middle());
+            front[i] = BinhEvaluator.eval3(a.front());
+            if (back[i] < middle[i] || middle[i] < front[i]) fouled |= 1 << i;
+        }
+
+        // pay[i][j]: chi ghế j trả cho ghế i (âm = i trả j)
+        int[][] pay = new int[n][n];
+        int[] scoops = new int[n];
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                boolean fi = (fouled & (1 << i)) != 0, fj = (fouled & (1 << j)) != 0;
+                int d;
+                if (fi || fj) {
+                    d = fi == fj ? 0 : fi ? -FOUL_PENALTY : FOUL_PENALTY;
+                } else {
+                    int b = Integer.signum(Integer.compare(back[i], back[j]));
+                    int m = Integer.signum(Integer.compare(middle[i], middle[j]));
+                    int f = Integer.signum(Integer.compare(front[i], front[j]));
+                    d = b + m + f;
+                    if (d == 3) scoops[i]++;
+                    if (d == -3) scoops[j]++;
+                    if (Math.abs(d) == 3) d *= 2; // sập hầm
+                }
+                pay[i][j] = d;
+                pay[j][i] = -d;
+            }
+        }
+        int[] chi = new int[n];
+        for (int i = 0; i < n; i++) {
+            // sập làng: ăn gấp đôi từ mọi người
+            int factor = n >= 3 && scoops[i] == n - 1 ? 2 : 1;
+            for (int j = 0; j < n; j++) {
+                if (i == j) continue;
+                if (factor == 2) {
+                    chi[i] += 2 * pay[i][j];
+                    chi[j] -= pay[i][j];   // phần gấp thêm
+                } else {
+                    chi[i] += pay[i][j];
+                }
+            }
+        }
+        return new Showdown(chi, fouled, scoops);
+    }
+}
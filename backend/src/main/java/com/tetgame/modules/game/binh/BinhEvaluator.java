@@ -0,0 +1,223 @@
+package com.tetgame.modules.game.binh;
+
+import com.tetgame.modules.game.tienlen.CardMask;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Chấm điểm chi 5 lá / 3 lá của Mậu Binh bằng bảng tra dựng sẵn, không sắp xếp lúc chấm.
+ * <p>
+ * Lá trong bitboard đã nằm theo thứ tự rank (mã lá = rank * 4 + suit), nên duyệt bit từ thấp lên
+ * cho ngay dãy rank không giảm r0 <= r1 <= ...; chỉ số của multiset đó theo hệ tổ hợp có lặp
+ * (sum C(r_i + i, i + 1)) là một perfect hash gọn: C(17,5) = 6188 ô cho 5 lá, C(15,3) = 455 ô cho
+ * 3 lá. Thùng tra riêng theo 13 bit rank (8192 ô).
+ * <p>
+ * Giá trị = loại << 20 | 5 ô rank 4 bit (rank poker + 1, theo độ quan trọng; 0 = trống), nên so
+ * sánh chi 3 lá với chi 5 lá (kiểm tra binh lủng) chỉ là so sánh int. Rank poker: 2 thấp nhất, A cao
+ * nhất, sảnh A-2-3-4-5 là sảnh thấp nhất. Chi đầu 3 lá chỉ có mậu thầu, đôi, sám.
+ * Kèm theo mỗi ô là xác suất thắng một chi ngẫu nhiên cùng số lá (dùng cho xếp bài tự động).
+ */
+public final class BinhEvaluator {
+    public static final int HIGH_CARD = 0;
+    public static final int PAIR = 1;
+    public static final int TWO_PAIR = 2;
+    public static final int TRIPS = 3;
+    public static final int STRAIGHT = 4;
+    public static final int FLUSH = 5;
+    public static final int FULL_HOUSE = 6;
+    public static final int QUADS = 7;
+    public static final int STRAIGHT_FLUSH = 8;
+
+    private static final int[][] BINOM = new int[18][6];
+    private static final int[] VALUE5 = new int[6188];
+    private static final float[] STRENGTH5 = new float[6188];
+    private static final int[] FLUSH5 = new int[1 << CardMask.RANKS];
+    private static final float[] FLUSH_STRENGTH5 = new float[1 << CardMask.RANKS];
+    private static final int[] VALUE3 = new int[455];
+    private static final float[] STRENGTH3 = new float[455];
+
+    static {
+        for (int n = 0; n < BINOM.length; n++) {
+            BINOM[n][0] = 1;
+            for (int k = 1; k < BINOM[n].length && k <= n; k++) {
+                BINOM[n][k] = BINOM[n - 1][k - 1] + (k <= n - 1 ? BINOM[n - 1][k] : 0);
+            }
+        }
+        buildFiveCardTables();
+        buildThreeCardTables();
+    }
+
+    private BinhEvaluator() {}
+
+    // ========== CHẤM ĐIỂM ==========
+
+    /** Giá trị chi 5 lá (càng lớn càng mạnh). */
+    public static int eval5(long mask) {
+        int idx = 0, i = 0, ranks = 0;
+        for (long m = mask; m != 0L; m &= m - 1, i++) {
+            int r = Long.numberOfTrailingZeros(m) >>> 2;
+            idx += BINOM[r + i][i + 1];
+            ranks |= 1 << r;
+        }
+        return isFlush(mask) ? FLUSH5[ranks] : VALUE5[idx];
+    }
+
+    /** Giá trị chi 3 lá, cùng thang với {@link #eval5}. */
+    public static int eval3(long mask) {
+        return VALUE3[index3(mask)];
+    }
+
+    /** Xác suất chi 5 lá này thắng một chi 5 lá ngẫu nhiên (hòa tính nửa). */
+    public static float strength5(long mask) {
+        int idx = 0, i = 0, ranks = 0;
+        for (long m = mask; m != 0L; m &= m - 1, i++) {
+            int r = Long.numberOfTrailingZeros(m) >>> 2;
+            idx += BINOM[r + i][i + 1];
+            ranks |= 1 << r;
+        }
+        return isFlush(mask) ? FLUSH_STRENGTH5[ranks] : STRENGTH5[idx];
+    }
+
+    public static float strength3(long mask) {
+        return STRENGTH3[index3(mask)];
+    }
+
+    public static int category(int value) { return value >>> 20; }
+
+    private static int index3(long mask) {
+        int idx = 0, i = 0;
+        for (long m = mask; m != 0L; m &= m - 1, i++) {
+            idx += BINOM[(Long.numberOfTrailingZeros(m) >>> 2) + i][i + 1];
+        }
+        return idx;
+    }
+
+    private static boolean isFlush(long mask) {
+        int suit = Long.numberOfTrailingZeros(mask) & 3;
+        return (mask & ~(CardMask.RANK_LOW_BITS << suit)) == 0L;
+    }
+
+    // ========== DỰNG BẢNG (chỉ chạy một lần) ==========
+
+    private static void buildFiveCardTables() {
+        List<long[]> weighted = new ArrayList<>();   // {giá trị, số tổ hợp lá}
+        int[] r = new int[5];
+        for (r[0] = 0; r[0] < 13; r[0]++)
+            for (r[1] = r[0]; r[1] < 13; r[1]++)
+                for (r[2] = r[1]; r[2] < 13; r[2]++)
+                    for (r[3] = r[2]; r[3] < 13; r[3]++)
+                        for (r[4] = r[3]; r[4] < 13; r[4]++) {
+                            int[] counts = new int[13];
+                            for (int x : r) counts[x]++;
+                            if (r[0] == r[4]) continue; // 5 lá cùng rank không tồn tại
+                            int idx = 0;
+                            for (int i = 0; i < 5; i++) idx += BINOM[r[i] + i][i + 1];
+                            VALUE5[idx] = slowValue(counts, false);
+                            long combos = 1;
+                            for (int c : counts) combos *= BINOM[4][c];
+                            boolean distinct = true;
+                            for (int c : counts) distinct &= c <= 1;
+                            if (distinct) {
+                                combos -= 4; // trừ 4 cách đồng chất (thùng)
+                                int ranks = 0;
+                                for (int x : r) ranks |= 1 << x;
+                                FLUSH5[ranks] = slowValue(counts, true);
+                                weighted.add(new long[]{FLUSH5[ranks], 4});
+                            }
+                            weighted.add(new long[]{VALUE5[idx], combos});
+                        }
+        Map<Integer, Float> cdf = percentiles(weighted);
+        for (int i = 0; i < VALUE5.length; i++) STRENGTH5[i] = cdf.getOrDefault(VALUE5[i], 0f);
+        for (int i = 0; i < FLUSH5.length; i++) FLUSH_STRENGTH5[i] = cdf.getOrDefault(FLUSH5[i], 0f);
+    }
+
+    private static void buildThreeCardTables() {
+        List<long[]> weighted = new ArrayList<>();
+        for (int a = 0; a < 13; a++)
+            for (int b = a; b < 13; b++)
+                for (int c = b; c < 13; c++) {
+                    int[] counts = new int[13];
+                    counts[a]++;
+                    counts[b]++;
+                    counts[c]++;
+                    int idx = BINOM[a][1] + BINOM[b + 1][2] + BINOM[c + 2][3];
+                    VALUE3[idx] = slowValue(counts, false);
+                    long combos = 1;
+                    for (int n : counts) combos *= BINOM[4][n];
+                    weighted.add(new long[]{VALUE3[idx], combos});
+                }
+        Map<Integer, Float> cdf = percentiles(weighted);
+        for (int i = 0; i < VALUE3.length; i++) STRENGTH3[i] = cdf.getOrDefault(VALUE3[i], 0f);
+    }
+
+    // xác suất thắng + nửa xác suất hòa của từng giá trị, theo số tổ hợp lá
+    private static Map<Integer, Float> percentiles(List<long[]> weighted) {
+        weighted.sort((x, y) -> Long.compare(x[0], y[0]));
+        long total = 0;
+        for (long[] w : weighted) total += w[1];
+        Map<Integer, Float> out = new HashMap<>();
+        long below = 0;
+        for (int i = 0; i < weighted.size(); ) {
+            long value = weighted.get(i)[0];
+            long equal = 0;
+            int j = i;
+            for (; j < weighted.size() && weighted.get(j)[0] == value; j++) equal += weighted.get(j)[1];
+            out.put((int) value, (float) ((below + equal / 2.0) / total));
+            below += equal;
+            i = j;
+        }
+        return out;
+    }
+
+    // Chấm chậm theo định nghĩa, counts theo rank Tiến Lên (3 = 0 ... A = 11, 2 = 12)
+    private static int slowValue(int[] counts, boolean flush) {
+        // đổi sang rank poker: 2 = 0 ... A = 12
+        int[] poker = new int[13];
+        int size = 0;
+        for (int r = 0; r < 13; r++) {
+            poker[(r + 1) % 13] = counts[r];
+            size += counts[r];
+        }
+        // ô rank: nhiều lá trước, cùng số lá thì rank cao trước
+        int[] slots = new int[5];
+        int n = 0, maxCount = 0, pairs = 0;
+        for (int c = 4; c >= 1; c--) {
+            for (int p = 12; p >= 0; p--) {
+                if (poker[p] == c) {
+                    slots[n++] = p + 1;
+                    if (c == 2) pairs++;
+                    maxCount = Math.max(maxCount, c);
+                }
+            }
+        }
+        int category;
+        int straightTop = size == 5 && maxCount == 1 ? straightTop(poker) : -1;
+        if (straightTop >= 0) {
+            category = flush ? STRAIGHT_FLUSH : STRAIGHT;
+            slots = new int[]{straightTop + 1, 0, 0, 0, 0};
+        } else if (flush) category = FLUSH;
+        else if (maxCount == 4) category = QUADS;
+        else if (maxCount == 3 && pairs == 1) category = FULL_HOUSE;
+        else if (maxCount == 3) category = TRIPS;
+        else if (pairs == 2) category = TWO_PAIR;
+        else if (pairs == 1) category = PAIR;
+        else category = HIGH_CARD;
+        int value = category;
+        for (int s : slots) value = value << 4 | s;
+        return value;
+    }
+
+    private static int straightTop(int[] poker) {
+        for (int top = 12; top >= 4; top--) {
+            boolean run = true;
+            for (int k = 0; k < 5; k++) run &= poker[top - k] == 1;
+            if (run) return top;
+        }
+        // A-2-3-4-5: đầu sảnh là 5 (rank poker 3)
+        boolean wheel = poker[12] == 1 && poker[0] == 1 && poker[1] == 1 && poker[2] == 1 && poker[3] == 1;
+        return wheel ? 3 : -1;
+    }
+}
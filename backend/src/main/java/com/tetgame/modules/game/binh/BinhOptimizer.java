@@ -0,0 +1,69 @@
+package com.tetgame.modules.game.binh;
+
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Tìm cách xếp tốt nhất cho 13 lá: duyệt hết C(13,5) * C(8,5) = 72072 cách chia, bỏ các cách
+ * binh lủng, chọn cách có tổng xác suất thắng từng chi (so với chi ngẫu nhiên) cao nhất.
+ * Mỗi chi cuối là một nhánh độc lập nên các nhánh chạy song song trên common pool.
+ */
+public final class BinhOptimizer {
+    private static final int[] COMBOS_13_5 = combos(13, 5);
+    private static final int[] COMBOS_8_5 = combos(8, 5);
+
+    private record Candidate(BinhArrangement arrangement, float score, int backValue, int middleValue) {}
+
+    private static final Comparator<Candidate> ORDER = Comparator.comparingDouble(Candidate::score)
+        .thenComparingInt(Candidate::backValue)
+        .thenComparingInt(Candidate::middleValue);
+
+    private BinhOptimizer() {}
+
+    /** Cách xếp hợp lệ tốt nhất; hand phải có đúng 13 lá. */
+    public static BinhArrangement best(long hand) {
+        if (Long.bitCount(hand) != 13) throw new IllegalArgumentException("Binh needs 13 cards");
+        long[] cards = new long[13];
+        int i = 0;
+        for (long m = hand; m != 0L; m &= m - 1) cards[i++] = Long.lowestOneBit(m);
+        return IntStream.range(0, COMBOS_13_5.length).parallel()
+            .mapToObj(b -> bestForBack(hand, cards, COMBOS_13_5[b]))
+            .filter(c -> c != null)
+            .max(ORDER)
+            .map(Candidate::arrangement)
+            .orElseThrow(); // luôn có ít nhất một cách không lủng
+    }
+
+    private static Candidate bestForBack(long hand, long[] cards, int backPositions) {
+        long back = expand(backPositions, cards);
+        int backValue = BinhEvaluator.eval5(back);
+        float backStrength = BinhEvaluator.strength5(back);
+        long[] rest = new long[8];
+        int n = 0;
+        for (int p = 0; p < 13; p++) if ((backPositions & (1 << p)) == 0) rest[n++] = cards[p];
+
+        Candidate best = null;
+        for (int m : COMBOS_8_5) {
+            long middle = expand(m, rest);
+            int middleValue = BinhEvaluator.eval5(middle);
+            if (middleValue > backValue) continue;
+            long front = hand & ~back & ~middle;
+            if (BinhEvaluator.eval3(front) > middleValue) continue;
+            float score = backStrength + BinhEvaluator.strength5(middle) + BinhEvaluator.strength3(front);
+            Candidate c = new Candidate(new BinhArrangement(back, middle, front), score, backValue, middleValue);
+            if (best == null || ORDER.compare(c, best) > 0) best = c;
+        }
+        return best;
+    }
+
+    private static long expand(int positions, long[] cards) {
+        long mask = 0L;
+        for (int p = positions; p != 0; p &= p - 1) mask |= cards[Integer.numberOfTrailingZeros(p)];
+        return mask;
+    }
+
+    // mọi tập con k phần tử của {0..n-1} dạng bitmask
+    private static int[] combos(int n, int k) {
+        return IntStream.range(0, 1 << n).filter(x -> Integer.bitCount(x) == k).toArray();
+    }
+}
@@ -0,0 +1,111 @@
+package com.tetgame.modules.game.loto;
+
+import com.tetgame.modules.game.tienlen.DeckSource;
+import com.tetgame.modules.game.tienlen.TurnManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ván Lô Tô trên cả cụm. Vé nằm trong {@link LoToTicketBook} dùng chung, mua từ node nào cũng được;
+ * node nhận lệnh bắt đầu giành quyền xổ, dựng {@link LoToGame} từ toàn bộ sổ và là node duy nhất
+ * giữ ván trong bộ nhớ cùng nhịp xổ. Nhịp xổ dùng chung timing wheel của {@link TurnManager}; đến
+ * nhịp thì gọi {@link DrawHandler} (controller chuyển vào mailbox của phòng, gọi {@link #draw} rồi
+ * phát một tin duy nhất cho cả phòng qua Redis, người chơi ở mọi node tự dò vé của mình).
+ */
+@Service
+public class LoToEngine {
+    public static final long DRAW_INTERVAL_MS = 4_000;
+
+    @FunctionalInterface
+    public interface DrawHandler {
+        void onDrawDue(UUID roomId);
+    }
+
+    private final TurnManager turnManager;
+    private final LoToTicketBook ticketBook;
+    // Chỉ các ván mà node này đang xổ
+    private final Map<UUID, LoToGame> games = new ConcurrentHashMap<>();
+    private final long drawIntervalMillis;
+    private volatile DrawHandler drawHandler = roomId -> {};
+
+    @Autowired
+    public LoToEngine(TurnManager turnManager, LoToTicketBook ticketBook) {
+        this(turnManager, ticketBook, DRAW_INTERVAL_MS);
+    }
+
+    public LoToEngine(TurnManager turnManager, LoToTicketBook ticketBook, long drawIntervalMillis) {
+        this.turnManager = turnManager;
+        this.ticketBook = ticketBook;
+        this.drawIntervalMillis = drawIntervalMillis;
+    }
+
+    public void setDrawHandler(DrawHandler handler) {
+        this.drawHandler = handler;
+    }
+
+    /** Ván node này đang xổ; null nếu phòng chưa bắt đầu hoặc node khác đang xổ. */
+    public LoToGame getGame(UUID roomId) {
+        return games.get(roomId);
+    }
+
+    /** Mua một tờ vào sổ chung; null nếu ván đã bắt đầu xổ. */
+    public LoToTicketBook.Ticket buyTicket(UUID roomId, UUID playerId) {
+        return ticketBook.add(roomId, playerId, DeckSource.nextSeed());
+    }
+
+    /**
+     * Chốt sổ, dựng ván từ mọi tờ đã bán (ở mọi node) và đặt nhịp xổ đầu tiên trên node này.
+     * False nếu chưa ai mua vé hoặc ván đã bắt đầu (kể cả ở node khác).
+     */
+    public boolean start(UUID roomId) {
+        // hạn quyền xổ đủ cho cả ván; node chết giữa ván thì phòng mở bán lại được sau hạn
+        if (!ticketBook.claimStart(roomId, Duration.ofMillis(drawIntervalMillis * (LoToGame.MAX_NUMBER + 15)))) {
+            return false;
+        }
+        LoToGame game = new LoToGame(roomId);
+        for (LoToTicketBook.Ticket ticket : ticketBook.tickets(roomId)) {
+            game.addTicket(ticket.owner(), new SplittableRandom(ticket.seed()));
+        }
+        game.start(DeckSource.nextSeed());
+        games.put(roomId, game);
+        scheduleNextDraw(roomId);
+        return true;
+    }
+
+    /**
+     * Xổ một số (gọi trong mailbox của phòng). Còn tiếp thì đặt nhịp kế, có người kinh hoặc hết số
+     * thì đóng ván. Null nếu phòng không có ván đang xổ.
+     */
+    public LoToGame.Draw draw(UUID roomId) {
+        LoToGame game = games.get(roomId);
+        if (game == null) return null;
+        LoToGame.Draw draw = game.draw();
+        if (draw == null) return null;
+        if (game.isFinished()) {
+            turnManager.cancelDraw(roomId);
+            games.remove(roomId, game);
+            ticketBook.clear(roomId);
+        } else {
+            scheduleNextDraw(roomId);
+        }
+        return draw;
+    }
+
+    public void cancel(UUID roomId) {
+        turnManager.cancelDraw(roomId);
+        games.remove(roomId);
+        ticketBook.clear(roomId);
+    }
+
+    public int activeGames() { return games.size(); }
+
+    private void scheduleNextDraw(UUID roomId) {
+        turnManager.scheduleDraw(roomId, () -> drawHandler.onDrawDue(roomId), drawIntervalMillis);
+    }
+}
@@ -0,0 +1,193 @@
+package com.tetgame.modules.game.loto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Một ván Lô Tô. Mỗi tờ có {@link #ROWS_PER_TICKET} hàng, mỗi hàng {@link #ROW_SIZE} số thuộc 5 cột
+ * (chục) khác nhau; hàng là bitset 90 bit (lo: số 1..64, hi: 65..90). Hàng có id = tờ * 9 + hàng.
+ * <p>
+ * Khi bắt đầu, dựng chỉ mục ngược số → các hàng chứa số đó dạng CSR (start/rows phẳng) và bộ đếm
+ * số còn thiếu của từng hàng. Mỗi lần xổ chỉ duyệt các hàng có số vừa ra, hàng về 0 là "kinh",
+ * nên chi phí một lượt là O(số hàng trúng), không phụ thuộc số tờ trong phòng.
+ * <p>
+ * Giai đoạn bán vé có thể nhiều thread cùng mua (synchronized); sau khi bắt đầu, xổ số chỉ chạy
+ * trong mailbox của phòng. Tờ vé hoàn toàn xác định bởi seed ({@link #ticketRows}), nên sổ vé dùng
+ * chung giữa các node ({@link LoToTicketBook}) chỉ cần lưu chủ tờ + seed.
+ */
+public class LoToGame {
+    public static final int MAX_NUMBER = 90;
+    public static final int ROWS_PER_TICKET = 9;
+    public static final int ROW_SIZE = 5;
+    private static final int COLUMNS = 9;
+
+    /** Một hàng kinh: chủ tờ, số tờ, hàng trong tờ. */
+    public record Winner(UUID playerId, int ticket, int row) {}
+
+    /** Kết quả một lượt xổ; winners rỗng nếu chưa ai kinh. */
+    public record Draw(int number, int drawIndex, List<Winner> winners) {}
+
+    private final UUID roomId;
+    private UUID[] owners = new UUID[16];
+    private long[] rowLo = new long[16 * ROWS_PER_TICKET];
+    private long[] rowHi = new long[16 * ROWS_PER_TICKET];
+    private int tickets;
+
+    // Chỉ có sau start()
+    private int[] indexStart;
+    private int[] indexRows;
+    private byte[] remaining;
+    private final byte[] order = new byte[MAX_NUMBER];
+    private long drawnLo;
+    private long drawnHi;
+    private int drawCount;
+    private volatile boolean started;
+    private volatile boolean finished;
+
+    public LoToGame(UUID roomId) {
+        this.roomId = roomId;
+    }
+
+    // ========== BÁN VÉ ==========
+
+    /** Cấp một tờ ngẫu nhiên cho người chơi; -1 nếu ván đã bắt đầu. */
+    public synchronized int addTicket(UUID owner, SplittableRandom random) {
+        if (started) return -1;
+        if (tickets == owners.length) {
+            owners = Arrays.copyOf(owners, tickets * 2);
+            rowLo = Arrays.copyOf(rowLo, tickets * 2 * ROWS_PER_TICKET);
+            rowHi = Arrays.copyOf(rowHi, tickets * 2 * ROWS_PER_TICKET);
+        }
+        int ticket = tickets++;
+        owners[ticket] = owner;
+        fillTicket(random, rowLo, rowHi, ticket * ROWS_PER_TICKET);
+        return ticket;
+    }
+
+    /** Các số của tờ sinh từ seed, theo từng hàng (giống hệt tờ addTicket cấp với cùng seed). */
+    public static int[][] ticketRows(long seed) {
+        long[] lo = new long[ROWS_PER_TICKET], hi = new long[ROWS_PER_TICKET];
+        fillTicket(new SplittableRandom(seed), lo, hi, 0);
+        int[][] rows = new int[ROWS_PER_TICKET][];
+        for (int r = 0; r < ROWS_PER_TICKET; r++) rows[r] = numbers(lo[r], hi[r]);
+        return rows;
+    }
+
+    private static void fillTicket(SplittableRandom random, long[] rowLo, long[] rowHi, int first) {
+        long usedLo = 0L, usedHi = 0L;
+        for (int r = 0; r < ROWS_PER_TICKET; r++) {
+            long lo = 0L, hi = 0L;
+            // chọn 5 cột khác nhau, mỗi cột một số chưa có trên tờ
+            int columns = 0;
+            while (Integer.bitCount(columns) < ROW_SIZE) columns |= 1 << random.nextInt(COLUMNS);
+            for (int c = 0; c < COLUMNS; c++) {
+                if ((columns & (1 << c)) == 0) continue;
+                int from = c == 0 ? 1 : c * 10;
+                int to = c == COLUMNS - 1 ? MAX_NUMBER : c * 10 + 9;
+                int n;
+                do {
+                    n = from + random.nextInt(to - from + 1);
+                } while (isSet(usedLo, usedHi, n));
+                if (n <= 64) {
+                    lo |= 1L << (n - 1);
+                    usedLo |= 1L << (n - 1);
+                } else {
+                    hi |= 1L << (n - 65);
+                    usedHi |= 1L << (n - 65);
+                }
+            }
+            rowLo[first + r] = lo;
+            rowHi[first + r] = hi;
+        }
+    }
+
+    /** Các số của một tờ theo từng hàng (tăng dần). Khóa cùng addTicket vì mảng hàng có thể bị thay khi nới. */
+    public synchronized int[][] ticketNumbers(int ticket) {
+        int[][] rows = new int[ROWS_PER_TICKET][];
+        for (int r = 0; r < ROWS_PER_TICKET; r++) {
+            int row = ticket * ROWS_PER_TICKET + r;
+            rows[r] = numbers(rowLo[row], rowHi[row]);
+        }
+        return rows;
+    }
+
+    // ========== XỔ SỐ ==========
+
+    /** Chốt vé, dựng chỉ mục ngược và thứ tự xổ từ seed. False nếu đã bắt đầu. */
+    public synchronized boolean start(long seed) {
+        if (started) return false;
+        int rows = tickets * ROWS_PER_TICKET;
+        // CSR hai lượt: đếm vào ô n + 2, cộng dồn (ô n + 1 = điểm bắt đầu của n), rồi dùng ô n + 1
+        // làm con trỏ ghi; ghi xong ô n + 1 trỏ tới cuối của n, tức là điểm bắt đầu của n + 1
+        indexStart = new int[MAX_NUMBER + 3];
+        for (int row = 0; row < rows; row++) {
+            for (long m = rowLo[row]; m != 0L; m &= m - 1) indexStart[Long.numberOfTrailingZeros(m) + 3]++;
+            for (long m = rowHi[row]; m != 0L; m &= m - 1) indexStart[Long.numberOfTrailingZeros(m) + 67]++;
+        }
+        for (int n = 1; n < indexStart.length; n++) indexStart[n] += indexStart[n - 1];
+        indexRows = new int[rows * ROW_SIZE];
+        for (int row = 0; row < rows; row++) {
+            for (long m = rowLo[row]; m != 0L; m &= m - 1) indexRows[indexStart[Long.numberOfTrailingZeros(m) + 2]++] = row;
+            for (long m = rowHi[row]; m != 0L; m &= m - 1) indexRows[indexStart[Long.numberOfTrailingZeros(m) + 66]++] = row;
+        }
+        remaining = new byte[rows];
+        Arrays.fill(remaining, (byte) ROW_SIZE);
+
+        for (int i = 0; i < MAX_NUMBER; i++) order[i] = (byte) (i + 1);
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = MAX_NUMBER - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            byte t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+        started = true;
+        return true;
+    }
+
+    /** Xổ số kế tiếp; null nếu chưa bắt đầu, đã có người kinh hoặc đã xổ hết. */
+    public Draw draw() {
+        if (!started || finished || drawCount == MAX_NUMBER) return null;
+        int number = order[drawCount++];
+        if (number <= 64) drawnLo |= 1L << (number - 1);
+        else drawnHi |= 1L << (number - 65);
+
+        List<Winner> winners = List.of();
+        for (int i = indexStart[number], end = indexStart[number + 1]; i < end; i++) {
+            int row = indexRows[i];
+            if (--remaining[row] == 0) {
+                if (winners.isEmpty()) winners = new ArrayList<>(2);
+                int ticket = row / ROWS_PER_TICKET;
+                winners.add(new Winner(owners[ticket], ticket, row % ROWS_PER_TICKET));
+            }
+        }
+        if (!winners.isEmpty() || drawCount == MAX_NUMBER) finished = true;
+        return new Draw(number, drawCount, winners);
+    }
+
+    public boolean isDrawn(int number) { return isSet(drawnLo, drawnHi, number); }
+    /** Các số đã xổ, tăng dần (gửi cho người vào giữa ván). */
+    public int[] drawnNumbers() { return numbers(drawnLo, drawnHi); }
+
+    public UUID getRoomId() { return roomId; }
+    public synchronized int getTicketCount() { return tickets; }
+    public synchronized UUID getOwner(int ticket) { return owners[ticket]; }
+    public int getDrawCount() { return drawCount; }
+    public boolean isStarted() { return started; }
+    public boolean isFinished() { return finished; }
+
+    private static boolean isSet(long lo, long hi, int n) {
+        return n <= 64 ? (lo & (1L << (n - 1))) != 0 : (hi & (1L << (n - 65))) != 0;
+    }
+
+    private static int[] numbers(long lo, long hi) {
+        int[] out = new int[Long.bitCount(lo) + Long.bitCount(hi)];
+        int i = 0;
+        for (long m = lo; m != 0L; m &= m - 1) out[i++] = Long.numberOfTrailingZeros(m) + 1;
+        for (long m = hi; m != 0L; m &= m - 1) out[i++] = Long.numberOfTrailingZeros(m) + 65;
+        return out;
+    }
+}
@@ -0,0 +1,30 @@
+package com.tetgame.modules.game.loto;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Sổ vé Lô Tô dùng chung cho cả cụm. Người chơi ở node nào cũng mua vào cùng một sổ; chủ phòng
+ * bắt đầu ở node nào thì node đó giành quyền xổ ({@link #claimStart}), đọc toàn bộ sổ và giữ nhịp xổ.
+ * Sau khi đã chốt sổ thì không nhận thêm vé.
+ */
+public interface LoToTicketBook {
+
+    /** Một tờ trong sổ: thứ tự tờ (theo thứ tự mua), chủ tờ và seed sinh ra các số. */
+    record Ticket(int index, UUID owner, long seed) {
+        public int[][] rows() { return LoToGame.ticketRows(seed); }
+    }
+
+    /** Ghi thêm một tờ; null nếu ván của phòng đã bắt đầu xổ. */
+    Ticket add(UUID roomId, UUID owner, long seed);
+
+    /** Chốt sổ; chỉ đúng một lời gọi trong cả cụm thành công. False nếu đã bắt đầu hoặc chưa có vé. */
+    boolean claimStart(UUID roomId, Duration drawLease);
+
+    /** Mọi tờ đã bán, theo thứ tự index. */
+    List<Ticket> tickets(UUID roomId);
+
+    /** Xóa sổ khi ván kết thúc hoặc bị hủy: phòng bán vé lại từ đầu được. */
+    void clear(UUID roomId);
+}
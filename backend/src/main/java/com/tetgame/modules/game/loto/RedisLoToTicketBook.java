@@ -0,0 +1,82 @@
+package com.tetgame.modules.game.loto;
+
+import com.tetgame.websocket.Envelope;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Sổ vé trong Redis: list {@code loto:{roomId}:ticket-book} mỗi phần tử "chủ tờ:seed", khóa
+ * {@code loto:{roomId}:drawer} giữ id node đang xổ. Mua vé và chốt sổ là script Lua nên nguyên tử
+ * với nhau: vé mua sau khi chốt bị từ chối, index tờ là vị trí trong list.
+ * <p>
+ * Khóa drawer có hạn (đủ cho cả ván): node xổ chết giữa chừng thì phòng mở bán lại được sau hạn đó.
+ */
+@Component
+public class RedisLoToTicketBook implements LoToTicketBook {
+
+    private static final Duration BOOK_TTL = Duration.ofHours(2);
+    private static final RedisScript<Long> ADD = new DefaultRedisScript<>("""
+        if redis.call('EXISTS', KEYS[2]) == 1 then return -1 end
+        local n = redis.call('RPUSH', KEYS[1], ARGV[1])
+        redis.call('PEXPIRE', KEYS[1], ARGV[2])
+        return n - 1
+        """, Long.class);
+    private static final RedisScript<Long> CLAIM_START = new DefaultRedisScript<>("""
+        if redis.call('EXISTS', KEYS[2]) == 1 then return 0 end
+        if redis.call('LLEN', KEYS[1]) == 0 then return 0 end
+        redis.call('SET', KEYS[2], ARGV[1], 'PX', ARGV[2])
+        return 1
+        """, Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    public RedisLoToTicketBook(RedisTemplate<String, Object> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Ticket add(UUID roomId, UUID owner, long seed) {
+        Long index = redisTemplate.execute(ADD, keys(roomId), owner + ":" + seed, Long.toString(BOOK_TTL.toMillis()));
+        return index == null || index < 0 ? null : new Ticket(index.intValue(), owner, seed);
+    }
+
+    @Override
+    public boolean claimStart(UUID roomId, Duration drawLease) {
+        Long claimed = redisTemplate.execute(CLAIM_START, keys(roomId), Envelope.LOCAL_NODE,
+            Long.toString(drawLease.toMillis()));
+        return claimed != null && claimed == 1L;
+    }
+
+    @Override
+    public List<Ticket> tickets(UUID roomId) {
+        List<Object> entries = redisTemplate.opsForList().range(bookKey(roomId), 0, -1);
+        List<Ticket> tickets = new ArrayList<>(entries == null ? 0 : entries.size());
+        if (entries == null) return tickets;
+        for (Object entry : entries) {
+            String s = entry.toString();
+            int sep = s.lastIndexOf(':');
+            tickets.add(new Ticket(tickets.size(), UUID.fromString(s.substring(0, sep)), Long.parseLong(s.substring(sep + 1))));
+        }
+        return tickets;
+    }
+
+    @Override
+    public void clear(UUID roomId) {
+        redisTemplate.delete(keys(roomId));
+    }
+
+    private static List<String> keys(UUID roomId) {
+        return List.of(bookKey(roomId), "loto:" + roomId + ":drawer");
+    }
+
+    private static String bookKey(UUID roomId) {
+        return "loto:" + roomId + ":ticket-book";
+    }
+}
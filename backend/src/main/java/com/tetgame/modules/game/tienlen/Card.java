@@ -1,8 +1,52 @@
 package com.tetgame.modules.game.tienlen;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public record Card(CardSuit suit, CardRank rank) {
+    // Thứ tự mã 0..51 theo rank trước rồi tới suit, nên bit thấp hơn = lá nhỏ hơn
+    private static final Card[] BY_CODE = new Card[CardMask.DECK_SIZE];
+    // Tên dựng sẵn cho log/payload, không nối chuỗi mỗi lần
+    private static final String[] NAMES = new String[CardMask.DECK_SIZE];
+    private static final Map<String, CardSuit> SUITS = new HashMap<>();
+    private static final Map<String, CardRank> RANKS = new HashMap<>();
+
+    static {
+        for (CardRank r : CardRank.values()) {
+            RANKS.put(r.name(), r);
+            for (CardSuit s : CardSuit.values()) {
+                Card c = new Card(s, r);
+                BY_CODE[c.code()] = c;
+                NAMES[c.code()] = r.name() + "_of_" + s.name();
+            }
+        }
+        for (CardSuit s : CardSuit.values()) SUITS.put(s.name(), s);
+    }
+
+    /** Mã 0..51 của lá bài (rank.ordinal * 4 + suit.ordinal). */
+    public int code() { return rank.ordinal() * CardMask.SUITS + suit.ordinal(); }
+
+    /** Bit tương ứng của lá bài trong bitboard 52 bit. */
+    public long mask() { return 1L << code(); }
+
+    public static Card fromCode(int code) { return BY_CODE[code]; }
+
+    public static boolean isValidCode(int code) { return code >= 0 && code < CardMask.DECK_SIZE; }
+
+    /** Lá dùng chung trong bảng 52 lá, không cấp phát. */
+    public static Card of(CardSuit suit, CardRank rank) {
+        return BY_CODE[rank.ordinal() * CardMask.SUITS + suit.ordinal()];
+    }
+
+    /** Tra theo tên enum ("SPADES", "THREE"); null nếu không hợp lệ (không ném exception như valueOf). */
+    public static Card of(String suit, String rank) {
+        CardSuit s = suit == null ? null : SUITS.get(suit);
+        CardRank r = rank == null ? null : RANKS.get(rank);
+        return s == null || r == null ? null : of(s, r);
+    }
+
     @Override
     public String toString() {
-        return rank.name() + "_of_" + suit.name();
+        return NAMES[code()];
     }
 }
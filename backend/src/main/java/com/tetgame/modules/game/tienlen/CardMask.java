@@ -0,0 +1,154 @@
+package com.tetgame.modules.game.tienlen;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Bitboard 52 bit cho bài Tiến Lên: bit {@code i} bật nghĩa là có lá có mã {@code i}
+ * (xem {@link Card#code()}). Mỗi rank chiếm 4 bit liền nhau (một nibble), nên đếm số lá
+ * của một rank chỉ là một phép dịch + bitCount.
+ */
+public final class CardMask {
+    public static final int SUITS = 4;
+    public static final int RANKS = 13;
+    public static final int DECK_SIZE = SUITS * RANKS;
+    public static final long FULL_DECK = (1L << DECK_SIZE) - 1;
+    public static final long RANK_NIBBLE = 0xFL;
+    /** Bit thấp nhất của mỗi nibble rank (bit 4*r). */
+    public static final long RANK_LOW_BITS = 0x1111111111111L;
+
+    // RUN[len] = len rank liên tiếp bắt đầu từ rank 0, dạng bit thấp của nibble
+    private static final long[] RUN = new long[RANKS + 1];
+
+    static {
+        for (int len = 1; len <= RANKS; len++) RUN[len] = RUN[len - 1] | (1L << ((len - 1) * SUITS));
+    }
+
+    private CardMask() {}
+
+    public static long of(Card card) { return card.mask(); }
+
+    public static long of(Collection<Card> cards) {
+        long mask = 0L;
+        if (cards instanceof List<Card> list && cards instanceof RandomAccess) {
+            for (int i = 0, n = list.size(); i < n; i++) mask |= list.get(i).mask();
+            return mask;
+        }
+        for (Card c : cards) mask |= c.mask();
+        return mask;
+    }
+
+    /**
+     * Histogram 13 rank đóng gói trong một long: nibble thứ r chứa số lá (0..4) của rank r.
+     * Đếm song song bằng SWAR, không cấp phát.
+     */
+    public static long histogram(long mask) {
+        long x = mask - ((mask >>> 1) & 0x5555555555555555L);
+        return (x & 0x3333333333333333L) + ((x >>> 2) & 0x3333333333333333L);
+    }
+
+    public static int count(long histogram, int rankOrdinal) {
+        return (int) ((histogram >>> (rankOrdinal * SUITS)) & RANK_NIBBLE);
+    }
+
+    /** Bit 4*r bật nếu rank r có ít nhất một lá. */
+    public static long occupied(long histogram) {
+        return (histogram | (histogram >>> 1) | (histogram >>> 2)) & RANK_LOW_BITS;
+    }
+
+    /** Bit 4*r bật nếu rank r có ít nhất hai lá. */
+    public static long atLeastPair(long histogram) {
+        return ((histogram >>> 1) | (histogram >>> 2)) & RANK_LOW_BITS;
+    }
+
+    /** Bit 4*r bật nếu rank r có ít nhất ba lá. */
+    public static long atLeastTriple(long histogram) {
+        return ((histogram & (histogram >>> 1)) | (histogram >>> 2)) & RANK_LOW_BITS;
+    }
+
+    /** Bit 4*r bật nếu rank r đủ bốn lá. */
+    public static long quads(long histogram) {
+        return (histogram >>> 2) & RANK_LOW_BITS;
+    }
+
+    /** Dải {@code length} rank liên tiếp bắt đầu từ {@code lowRank} (dạng bit thấp của nibble). */
+    public static long run(int lowRank, int length) {
+        return RUN[length] << (lowRank * SUITS);
+    }
+
+    /** true nếu các rank trong {@code ranks} (dạng bit thấp của nibble) liền nhau không đứt quãng. */
+    public static boolean isContiguous(long ranks) {
+        if (ranks == 0L) return false;
+        int low = Long.numberOfTrailingZeros(ranks) / SUITS;
+        return ranks == run(low, Long.bitCount(ranks));
+    }
+
+    public static int lowestRank(long ranks) { return Long.numberOfTrailingZeros(ranks) / SUITS; }
+
+    public static int highestRank(long ranks) { return (63 - Long.numberOfLeadingZeros(ranks)) / SUITS; }
+
+    public static int size(long mask) { return Long.bitCount(mask); }
+
+    /** true nếu {@code hand} chứa toàn bộ các lá trong {@code cards}. */
+    public static boolean containsAll(long hand, long cards) { return (hand & cards) == cards; }
+
+    /** Các lá của một rank (theo ordinal), dịch về 4 bit thấp. */
+    public static int rankBits(long mask, int rankOrdinal) {
+        return (int) ((mask >>> (rankOrdinal * SUITS)) & RANK_NIBBLE);
+    }
+
+    public static int rankCount(long mask, int rankOrdinal) {
+        return Integer.bitCount(rankBits(mask, rankOrdinal));
+    }
+
+    public static Card lowest(long mask) {
+        return mask == 0L ? null : Card.fromCode(Long.numberOfTrailingZeros(mask));
+    }
+
+    public static Card highest(long mask) {
+        return mask == 0L ? null : Card.fromCode(63 - Long.numberOfLeadingZeros(mask));
+    }
+
+    /** Danh sách lá theo thứ tự tăng dần (mới, có thể sửa). */
+    public static List<Card> toList(long mask) {
+        List<Card> cards = new ArrayList<>(Long.bitCount(mask));
+        for (long m = mask; m != 0L; m &= m - 1) {
+            cards.add(Card.fromCode(Long.numberOfTrailingZeros(m)));
+        }
+        return cards;
+    }
+
+    /**
+     * Đọc danh sách lá từ payload: mỗi phần tử là mã 0..51 (dạng gọn) hoặc map {suit, rank}.
+     * Trả về -1 nếu có phần tử không hợp lệ hoặc lá bị trùng.
+     */
+    public static long parse(List<?> items) {
+        if (items == null) return -1L;
+        long mask = 0L;
+        for (int i = 0, n = items.size(); i < n; i++) {
+            Object item = items.get(i);
+            long bit;
+            if (item instanceof Number num) {
+                int code = num.intValue();
+                if (!Card.isValidCode(code) || code != num.doubleValue()) return -1L;
+                bit = 1L << code;
+            } else if (item instanceof Map<?, ?> map) {
+                Card card = Card.of(asString(map.get("suit")), asString(map.get("rank")));
+                if (card == null) return -1L;
+                bit = card.mask();
+            } else {
+                return -1L;
+            }
+            if ((mask & bit) != 0L) return -1L;
+            mask |= bit;
+        }
+        return mask;
+    }
+
+    private static String asString(Object o) {
+        return o instanceof String s ? s : null;
+    }
+}
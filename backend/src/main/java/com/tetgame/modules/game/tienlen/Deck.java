@@ -3,7 +3,7 @@ package com.tetgame.modules.game.tienlen;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class Deck {
     private final List<Card> cards = new ArrayList<>();
@@ -11,13 +11,14 @@ public class Deck {
     public Deck() {
         for (CardSuit s : CardSuit.values()) {
             for (CardRank r : CardRank.values()) {
-                cards.add(new Card(s, r));
+                cards.add(Card.fromCode(r.ordinal() * CardMask.SUITS + s.ordinal()));
             }
         }
     }
 
     public void shuffle() {
-        Collections.shuffle(cards);
+        // ThreadLocalRandom: tránh tranh chấp trên Random dùng chung giữa các bàn
+        Collections.shuffle(cards, ThreadLocalRandom.current());
     }
 
     public List<List<Card>> deal(int players, int cardsPerPlayer) {
@@ -32,5 +33,15 @@ public class Deck {
         return hands;
     }
 
+    /** Giống {@link #deal(int, int)} nhưng trả về bitboard cho từng người chơi. */
+    public long[] dealMasks(int players, int cardsPerPlayer) {
+        if (players * cardsPerPlayer > cards.size()) throw new IllegalArgumentException("Not enough cards");
+        long[] hands = new long[players];
+        for (int i = 0; i < players * cardsPerPlayer; i++) {
+            hands[i % players] |= cards.get(i).mask();
+        }
+        return hands;
+    }
+
     public List<Card> getCards() { return Collections.unmodifiableList(cards); }
 }
@@ -0,0 +1,111 @@
+package com.tetgame.modules.game.tienlen;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Nguồn bộ bài đã xáo cho {@link GameEngine#startTienLenGame}.
+ * Mỗi ván có một seed riêng lấy thẳng từ SecureRandom, rồi xáo bằng SplitMix64 nên cùng seed luôn
+ * cho cùng thứ tự bài. Seed được lưu và công bố khi có khiếu nại, mà hàm ra của SplitMix đảo ngược
+ * được, nên không sinh seed bằng PRNG nhanh: lộ một seed sẽ đoán được các ván sau.
+ * Một thread nền giữ sẵn một pool các bộ bài đã xáo để lúc cả sảnh bấm "sẵn sàng" cùng lúc
+ * không phải xáo ngay trên đường bắt đầu ván.
+ */
+@Component
+public class DeckSource {
+    public static final int DEFAULT_POOL_SIZE = 1024;
+
+    private static final SecureRandom SEEDER = new SecureRandom();
+
+    private final BlockingQueue<ShuffledDeck> pool;
+    private final Thread refiller;
+
+    public DeckSource() {
+        this(DEFAULT_POOL_SIZE);
+    }
+
+    /** poolSize = 0: không giữ pool, xáo trực tiếp trên thread gọi. */
+    public DeckSource(int poolSize) {
+        if (poolSize <= 0) {
+            this.pool = null;
+            this.refiller = null;
+            return;
+        }
+        this.pool = new ArrayBlockingQueue<>(poolSize);
+        this.refiller = new Thread(this::refill, "deck-pool-refill");
+        this.refiller.setDaemon(true);
+        this.refiller.start();
+    }
+
+    public static DeckSource unpooled() {
+        return new DeckSource(0);
+    }
+
+    /** Lấy một bộ bài đã xáo từ pool; nếu pool đang rỗng thì xáo ngay. */
+    public ShuffledDeck next() {
+        if (pool != null) {
+            ShuffledDeck deck = pool.poll();
+            if (deck != null) return deck;
+        }
+        return shuffle(nextSeed());
+    }
+
+    /** Seed mới cho một ván (bộ bài, vé/thứ tự quay Lô Tô...), mỗi lần một lời gọi SecureRandom. */
+    public static long nextSeed() {
+        return SEEDER.nextLong();
+    }
+
+    public int available() {
+        return pool == null ? 0 : pool.size();
+    }
+
+    /** Dựng lại bộ bài của một ván từ seed đã ghi. */
+    public static ShuffledDeck shuffle(long seed) {
+        byte[] order = new byte[CardMask.DECK_SIZE];
+        shuffleInto(seed, order);
+        return new ShuffledDeck(seed, order);
+    }
+
+    /** Xáo vào mảng có sẵn (không cấp phát); cùng seed cho cùng thứ tự như {@link #shuffle}. */
+    public static void shuffleInto(long seed, byte[] order) {
+        for (int i = 0; i < order.length; i++) order[i] = (byte) i;
+        long state = seed;
+        // Fisher-Yates với SplitMix64 + phép chặn không lệch của Lemire
+        for (int i = order.length - 1; i > 0; i--) {
+            int bound = i + 1;
+            int threshold = Integer.remainderUnsigned(-bound, bound);
+            long m;
+            do {
+                state += 0x9E3779B97F4A7C15L;
+                long z = state;
+                z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+                z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+                z = z ^ (z >>> 31);
+                m = (z >>> 32) * bound;
+            } while (Integer.compareUnsigned((int) m, threshold) < 0);
+            int j = (int) (m >>> 32);
+            byte t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+    }
+
+    private void refill() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                pool.put(shuffle(nextSeed()));
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (refiller != null) refiller.interrupt();
+    }
+}
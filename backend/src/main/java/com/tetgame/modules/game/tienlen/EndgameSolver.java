@@ -0,0 +1,261 @@
+package com.tetgame.modules.game.tienlen;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Giải chính xác cuối ván khi mọi tay bài đều nhỏ (<= {@link #MAX_HAND} lá). Tìm kiếm alpha-beta
+ * trên bitboard, giá trị ±1 theo góc nhìn ghế mục tiêu (về nhất hay không), các ghế khác coi như
+ * liên minh chống lại (paranoid). Nước đi sinh bởi {@link MoveGenerator} (một nước đại diện cho mỗi
+ * loại/số lá/rank); luật theo đúng những gì {@link GameEngine} kiểm tra: chỉ ghế tới lượt được đi,
+ * cầm cái thì phải đánh, người đã bỏ lượt bị khóa tới khi mọi người khác bỏ và bàn được xóa.
+ * <p>
+ * Mỗi lần gọi có hạn thời gian (mặc định {@link #DEFAULT_BUDGET_NANOS} cho {@link #forcedWinner}) ngoài trần
+ * số nút, vì nó chạy ngay trong mailbox của phòng; hết hạn thì coi như chưa giải được.
+ * <p>
+ * Bảng transposition dùng chung cho cả node: mảng cố định, khóa Zobrist 64 bit, ghi đè khi trùng ô
+ * (luôn thay thế), đọc/ghi một long nguyên tử nên không cần khóa.
+ */
+@Component
+public class EndgameSolver {
+    public static final int MAX_HAND = 6;
+    public static final int DEFAULT_TABLE_BITS = 20; // 1M ô = 8MB
+    // Giới hạn số nút mỗi lần giải để cuối ván khó không chiếm mailbox của phòng quá lâu
+    static final int NODE_LIMIT = 200_000;
+    // Tổng thời gian cho mọi ghế trong một lần forcedWinner
+    public static final long DEFAULT_BUDGET_NANOS = 2_000_000L;
+
+    private static final int UNKNOWN = 0;
+    private static final int WIN = 1;
+    private static final int LOSS = 2;
+    private static final int MAX_SEATS = 4;
+
+    // Zobrist: lá theo ghế, lá trên pile, lượt, tập ghế đã bỏ, ghế mục tiêu
+    private static final long[][] Z_CARD = new long[MAX_SEATS][CardMask.DECK_SIZE];
+    private static final long[] Z_PILE = new long[CardMask.DECK_SIZE];
+    private static final long[] Z_TURN = new long[MAX_SEATS];
+    private static final long[] Z_PASSED = new long[1 << MAX_SEATS];
+    private static final long[] Z_TARGET = new long[MAX_SEATS];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x7E7L);
+        for (long[] row : Z_CARD) for (int i = 0; i < row.length; i++) row[i] = random.nextLong();
+        for (int i = 0; i < Z_PILE.length; i++) Z_PILE[i] = random.nextLong();
+        for (int i = 0; i < MAX_SEATS; i++) Z_TURN[i] = random.nextLong();
+        for (int i = 0; i < Z_PASSED.length; i++) Z_PASSED[i] = random.nextLong();
+        for (int i = 0; i < MAX_SEATS; i++) Z_TARGET[i] = random.nextLong();
+    }
+
+    /** Kết quả cho một ghế: forced = chắc chắn về nhất; move = nước thắng (null = bỏ lượt). */
+    public record Result(boolean forced, Play move) {
+        static final Result NONE = new Result(false, null);
+    }
+
+    private final AtomicLongArray table;
+    private final int shift;
+    private final long budgetNanos;
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+
+    public EndgameSolver() {
+        this(DEFAULT_TABLE_BITS);
+    }
+
+    public EndgameSolver(int tableBits) {
+        this(tableBits, DEFAULT_BUDGET_NANOS);
+    }
+
+    public EndgameSolver(int tableBits, long budgetNanos) {
+        this.table = new AtomicLongArray(1 << tableBits);
+        this.shift = 64 - tableBits;
+        this.budgetNanos = budgetNanos;
+    }
+
+    /** Mọi tay bài còn lại đều đủ nhỏ để giải chính xác. */
+    public static boolean isEndgame(GameState state) {
+        if (state.getSeatCount() > MAX_SEATS) return false;
+        for (int seat = 0; seat < state.getSeatCount(); seat++) {
+            HandAnalysis hand = state.getAnalysis(seat);
+            if (hand == null || hand.isEmpty() || hand.getCardCount() > MAX_HAND) return false;
+        }
+        return true;
+    }
+
+    /** Ghế chắc chắn về nhất dù các ghế khác đánh thế nào, -1 nếu không có hoặc chưa giải được. */
+    public int forcedWinner(GameState state) {
+        if (!isEndgame(state)) return -1;
+        long deadline = System.nanoTime() + budgetNanos;
+        for (int seat = 0; seat < state.getSeatCount(); seat++) {
+            if (solve(state, seat, deadline).forced()) return seat;
+        }
+        return -1;
+    }
+
+    /** Giải cho ghế target từ vị trí hiện tại. */
+    public Result solve(GameState state, int target) {
+        return solve(state, target, System.nanoTime() + budgetNanos);
+    }
+
+    private Result solve(GameState state, int target, long deadline) {
+        if (!isEndgame(state)) return Result.NONE;
+        int n = state.getSeatCount();
+        long[] hands = new long[n];
+        for (int s = 0; s < n; s++) hands[s] = state.getHand(s).getMask();
+        return solve(hands, state.getCurrentSeat(), state.getCurrentPile(), state.getPassedSeats(), target, deadline);
+    }
+
+    public Result solve(long[] hands, int turn, Play pile, int passed, int target) {
+        return solve(hands, turn, pile, passed, target, Long.MAX_VALUE);
+    }
+
+    /** Như trên nhưng bỏ dở (trả về NONE) khi quá hạn deadline theo System.nanoTime(). */
+    public Result solve(long[] hands, int turn, Play pile, int passed, int target, long deadline) {
+        Search search = new Search(hands.clone(), target, deadline);
+        int v = search.root(turn, pile, passed);
+        return v == WIN ? new Result(true, search.bestMove) : Result.NONE;
+    }
+
+    /**
+     * Nếu có ghế chắc chắn về nhất thì tuyên bố ván kết thúc ngay: ghế đó được đánh dấu đã về, không
+     * nước nào được đánh hộ ghế khác, nên hạng 2..4 xếp theo số lá mà người chơi thực sự còn cầm.
+     * Chưa có người thắng chắc (hoặc giải chưa xong) thì không đụng tới state. Trả về true nếu đã tuyên bố.
+     */
+    public boolean autoFinish(GameState state) {
+        int winner = forcedWinner(state);
+        if (winner < 0) return false;
+        state.markFinished(winner);
+        return true;
+    }
+
+    public long probeCount() { return probes.sum(); }
+    public long hitCount() { return hits.sum(); }
+
+    // ========== BẢNG TRANSPOSITION ==========
+
+    private int probe(long key) {
+        probes.increment();
+        long slot = table.get((int) (key >>> shift));
+        if ((slot & ~3L) != (key & ~3L)) return UNKNOWN;
+        hits.increment();
+        return (int) (slot & 3L);
+    }
+
+    private void store(long key, int value) {
+        table.set((int) (key >>> shift), (key & ~3L) | value);
+    }
+
+    private static long pileHash(Play pile) {
+        long h = 0L;
+        if (pile != null) {
+            for (long m = pile.getMask(); m != 0L; m &= m - 1) h ^= Z_PILE[Long.numberOfTrailingZeros(m)];
+        }
+        return h;
+    }
+
+    // ========== TÌM KIẾM ==========
+
+    private final class Search {
+        private final long[] hands;
+        private final int n;
+        private final int all;
+        private final int target;
+        private final long deadline;
+        private int nodes;
+        private boolean aborted;
+        private Play bestMove;
+
+        Search(long[] hands, int target, long deadline) {
+            this.hands = hands;
+            this.n = hands.length;
+            this.all = (1 << n) - 1;
+            this.target = target;
+            this.deadline = deadline;
+        }
+
+        int root(int turn, Play pile, int passed) {
+            long handsHash = Z_TARGET[target];
+            for (int s = 0; s < n; s++) {
+                for (long m = hands[s]; m != 0L; m &= m - 1) handsHash ^= Z_CARD[s][Long.numberOfTrailingZeros(m)];
+            }
+            int v = search(handsHash, turn, pile, passed, true);
+            return aborted ? UNKNOWN : v;
+        }
+
+        // handsHash chỉ gồm lá trên tay + target; lượt/pile/passed được trộn vào khi tra bảng
+        private int search(long handsHash, int turn, Play pile, int passed, boolean root) {
+            long key = handsHash ^ Z_TURN[turn] ^ Z_PASSED[passed] ^ pileHash(pile);
+            if (!root) {
+                int cached = probe(key);
+                if (cached != UNKNOWN) return cached;
+            }
+            if (++nodes > NODE_LIMIT || (nodes & 0x3FF) == 0 && System.nanoTime() > deadline) {
+                aborted = true;
+                return UNKNOWN;
+            }
+            boolean maximizing = turn == target;
+            boolean sawUnknown = false;
+
+            if ((passed & (1 << turn)) == 0) {
+                List<Play> plays = MoveGenerator.legalPlays(hands[turn], pile);
+                // thử trước các nước đánh hết bài, rồi tới bộ nhiều lá
+                plays.sort((a, b) -> Integer.compare(Long.bitCount(b.getMask()), Long.bitCount(a.getMask())));
+                for (Play play : plays) {
+                    int v = afterPlay(handsHash, turn, play, passed);
+                    if (v == UNKNOWN) {
+                        if (aborted) return UNKNOWN;
+                        sawUnknown = true;
+                        continue;
+                    }
+                    if (maximizing ? v == WIN : v == LOSS) {
+                        if (root) bestMove = play;
+                        store(key, v);
+                        return v;
+                    }
+                }
+            }
+            if (pile != null) {
+                int v = afterPass(handsHash, turn, pile, passed);
+                if (v == UNKNOWN) {
+                    if (aborted) return UNKNOWN;
+                    sawUnknown = true;
+                } else if (maximizing ? v == WIN : v == LOSS) {
+                    if (root) bestMove = null;
+                    store(key, v);
+                    return v;
+                }
+            }
+            if (sawUnknown) return UNKNOWN;
+            int v = maximizing ? LOSS : WIN;
+            store(key, v);
+            return v;
+        }
+
+        private int afterPlay(long handsHash, int turn, Play play, int passed) {
+            long mask = play.getMask();
+            long h = handsHash;
+            for (long m = mask; m != 0L; m &= m - 1) h ^= Z_CARD[turn][Long.numberOfTrailingZeros(m)];
+            hands[turn] ^= mask;
+            try {
+                if (hands[turn] == 0L) return turn == target ? WIN : LOSS;
+                int next = turn + 1 == n ? 0 : turn + 1;
+                return search(h, next, play, passed, false);
+            } finally {
+                hands[turn] ^= mask;
+            }
+        }
+
+        private int afterPass(long handsHash, int turn, Play pile, int passed) {
+            int nowPassed = passed | (1 << turn);
+            int active = all & ~nowPassed;
+            if (Integer.bitCount(active) == 1) {
+                // mọi người khác đã bỏ: người đánh cuối được đi tự do
+                return search(handsHash, Integer.numberOfTrailingZeros(active), null, 0, false);
+            }
+            return search(handsHash, turn + 1 == n ? 0 : turn + 1, pile, nowPassed, false);
+        }
+    }
+}
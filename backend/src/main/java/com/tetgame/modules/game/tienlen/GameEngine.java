@@ -1,6 +1,6 @@
 package com.tetgame.modules.game.tienlen;
 
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -8,123 +8,178 @@ import java.util.List;
 import java.util.UUID;
 
 @Service
-@RequiredArgsConstructor
 public class GameEngine {
 
     private final com.tetgame.modules.room.service.RoomService roomService;
+    private final DeckSource deckSource;
+
+    @Autowired
+    public GameEngine(com.tetgame.modules.room.service.RoomService roomService, DeckSource deckSource) {
+        this.roomService = roomService;
+        this.deckSource = deckSource;
+    }
+
+    // Không có pool: xáo trực tiếp trên thread gọi (test, giả lập)
+    public GameEngine(com.tetgame.modules.room.service.RoomService roomService) {
+        this(roomService, DeckSource.unpooled());
+    }
 
     // Start a Tiến Lên game in a room: deal and create GameState
     public GameState startTienLenGame(UUID roomId, List<UUID> players) {
-        Deck deck = new Deck();
-        deck.shuffle();
-        int cardsPerPlayer = deck.getCards().size() / players.size();
-        List<List<Card>> hands = deck.deal(players.size(), cardsPerPlayer);
+        ShuffledDeck deck = deckSource.next();
+        int cardsPerPlayer = CardMask.DECK_SIZE / players.size();
+        long[] hands = deck.dealMasks(players.size(), cardsPerPlayer);
         GameState state = new GameState(roomId, players);
+        // ghi lại seed để dựng lại ván khi có khiếu nại
+        state.setDeckSeed(deck.seed());
         for (int i = 0; i < players.size(); i++) {
-            state.setHand(players.get(i), hands.get(i));
+            state.setHand(players.get(i), hands[i]);
         }
         return state;
     }
 
     public boolean validatePlay(GameState state, UUID playerId, List<Card> cards, Play currentTop) {
-        Play play = Play.fromCards(cards);
+        return validatePlay(state, playerId, Play.fromCards(cards), currentTop);
+    }
+
+    private boolean validatePlay(GameState state, UUID playerId, Play play, Play currentTop) {
+        return validatePlay(state, state.seatOf(playerId), play, currentTop);
+    }
+
+    private boolean validatePlay(GameState state, int seat, Play play, Play currentTop) {
         if (play.getType() == PlayType.INVALID) return false;
-        // check player has cards
-        List<Card> hand = state.getHand(playerId);
-        if (hand == null || !hand.containsAll(cards)) return false;
+        // chỉ người đang tới lượt được đánh; đã bỏ lượt thì chờ tới khi bàn được xóa
+        if (seat < 0 || seat != state.getCurrentSeat() || state.hasPassed(seat)) return false;
+        // check player has cards (một phép AND trên bitboard)
+        Hand hand = state.getHand(seat);
+        if (hand == null || !hand.containsMask(play.getMask())) return false;
         // if no current top, any valid play allowed
         if (currentTop == null) return true;
         return play.beats(currentTop);
     }
 
+    /**
+     * Liệt kê các nước đi hợp lệ của người chơi so với bài đang trên bàn (dùng cho gợi ý, auto-pass).
+     */
+    public List<Play> getLegalPlays(GameState state, UUID playerId) {
+        return MoveGenerator.legalPlays(state, playerId);
+    }
+
     /**
      * Xử lý đánh bài: validate + remove từ hand + set pile + next turn
      * Trả về true nếu thành công, false nếu validate failed
      */
     public boolean playMove(GameState state, UUID playerId, List<Card> cards) {
-        Play play = Play.fromCards(cards);
-        if (!validatePlay(state, playerId, cards, state.getCurrentPile())) {
+        return playMove(state, playerId, Play.fromCards(cards));
+    }
+
+    /** Như trên nhưng nhận bitboard (payload dạng mã lá); bộ cùng rank dùng Play chung, không cấp phát. */
+    public boolean playMove(GameState state, UUID playerId, long cards) {
+        return playMove(state, playerId, Play.fromMask(cards));
+    }
+
+    private boolean playMove(GameState state, UUID playerId, Play play) {
+        int seat = state.seatOf(playerId);
+        if (!validatePlay(state, seat, play, state.getCurrentPile())) {
             return false;
         }
 
         // Remove cards từ hand
-        List<Card> hand = state.getHand(playerId);
-        hand.removeAll(cards);
+        Hand hand = state.getHand(seat);
+        hand.removeMask(play.getMask());
 
-        // Update pile
+        // Update pile (người đã bỏ lượt vẫn bị khóa tới khi bàn được xóa)
         state.setCurrentPile(play);
         
-        // Reset passed players (vì có lượt đánh mới)
-        state.resetPassedThisTurn();
-        
         // Log move
-        state.logMove(playerId, cards);
+        state.logMove(seat, play.getMask());
 
         // Check if player won (0 cards left)
         if (hand.isEmpty()) {
+            state.markFinished(seat);
             return true; // Game sẽ end, xử lý ở ngoài
         }
 
         // Next turn
-        state.nextTurn();
+        nextActiveTurn(state);
         return true;
     }
 
+    /** Được bỏ lượt khi đang tới lượt và trên bàn có bài (cầm cái thì phải đánh). */
+    public boolean validatePass(GameState state, UUID playerId) {
+        int seat = state.seatOf(playerId);
+        return seat >= 0 && seat == state.getCurrentSeat() && state.getCurrentPile() != null;
+    }
+
     /**
-     * Xử lý pass: mark người chơi đã pass
-     * Nếu tất cả người khác pass → clear pile, reset turn
+     * Xử lý pass: mark người chơi đã pass (không hợp lệ theo {@link #validatePass} thì bỏ qua, trả về false)
+     * Nếu tất cả người khác pass → clear pile, người đánh cuối cùng được đi tiếp
      */
     public boolean pass(GameState state, UUID playerId) {
-        state.markPass(playerId);
-        state.logMove(playerId, new ArrayList<>()); // log pass action
+        if (!validatePass(state, playerId)) return false;
+        int seat = state.getCurrentSeat();
+        state.markPass(seat);
+        state.logMove(seat, 0L); // log pass action
         
-        // Nếu tất cả người khác pass
-        if (state.areAllOthersPass(playerId)) {
+        // Nếu tất cả người khác pass (chỉ còn người vừa đánh pile chưa pass)
+        int active = ((1 << state.getSeatCount()) - 1) & ~state.getPassedSeats();
+        if (Integer.bitCount(active) == 1) {
+            int lastSeat = Integer.numberOfTrailingZeros(active);
             // Clear pile, reset passed set
             state.clearCurrentPile();
             state.resetPassedThisTurn();
-            state.setCurrentTurnIndex(state.getTurnOrder().indexOf(playerId));
-            // Current player (playerId) tiếp tục lượt
+            state.setCurrentTurnIndex(lastSeat);
+            // Người đánh cuối (lastSeat) tiếp tục lượt
             return true;
         }
 
         // Next turn
-        state.nextTurn();
+        nextActiveTurn(state);
         return false; // Game continues
     }
 
+    // Chuyển lượt, bỏ qua những ghế đã bỏ lượt trong vòng này (luôn còn ít nhất một ghế chưa bỏ)
+    private static void nextActiveTurn(GameState state) {
+        do {
+            state.nextTurn();
+        } while (state.hasPassed(state.getCurrentSeat()));
+    }
+
     /**
      * Kiểm tra kết thúc ván: ai hết bài trước
      * Trả về List<UUID> theo thứ tự xếp hạng (1st, 2nd, 3rd, 4th)
      * null nếu game chưa kết thúc
      */
     public List<UUID> checkGameEnd(GameState state) {
-        List<UUID> rankings = new ArrayList<>();
-        
-        // Tìm những người có 0 cards
-        for (UUID playerId : state.getTurnOrder()) {
-            List<Card> hand = state.getHand(playerId);
-            if (hand != null && hand.isEmpty()) {
-                rankings.add(playerId);
-            }
+        int n = state.getSeatCount();
+        // Tìm những ghế có 0 cards, hoặc đã được tuyên bố về nhất khi cuối ván ngã ngũ (EndgameSolver)
+        int emptySeats = state.getFinishedSeats();
+        for (int seat = 0; seat < n; seat++) {
+            HandAnalysis hand = state.getAnalysis(seat);
+            if (hand != null && hand.isEmpty()) emptySeats |= 1 << seat;
         }
+        if (emptySeats == 0) return null; // Game continues
 
         // Nếu có ít nhất 1 người thắng (hết bài) → game end
         // Rankings sẽ chứa những người hết bài theo thứ tự thắng
-        if (rankings.size() > 0) {
-            // Thêm những người còn lại vào rankings (theo số bài còn lại)
-            var remaining = new ArrayList<>(state.getTurnOrder());
-            remaining.removeAll(rankings);
-            
-            // Sort remaining by number of cards (ít cards = cao hơn)
-            remaining.sort((a, b) -> Integer.compare(
-                state.getHand(a).size(),
-                state.getHand(b).size()
-            ));
-            rankings.addAll(remaining);
-            
-            return rankings;
+        List<UUID> rankings = new ArrayList<>(n);
+        int[] remaining = new int[n];
+        int r = 0;
+        for (int seat = 0; seat < n; seat++) {
+            if ((emptySeats & (1 << seat)) != 0) rankings.add(state.getPlayer(seat));
+            else remaining[r++] = seat;
+        }
+        // Sort remaining by number of cards (ít cards = cao hơn), giữ thứ tự ghế khi bằng nhau
+        for (int i = 1; i < r; i++) {
+            int seat = remaining[i];
+            int j = i - 1;
+            while (j >= 0 && state.getCardCount(remaining[j]) > state.getCardCount(seat)) {
+                remaining[j + 1] = remaining[j];
+                j--;
+            }
+            remaining[j + 1] = seat;
         }
-        return null; // Game continues
+        for (int i = 0; i < r; i++) rankings.add(state.getPlayer(remaining[i]));
+        return rankings;
     }
 }
@@ -4,50 +4,163 @@ import java.util.*;
 
 public class GameState {
     private final UUID roomId;
-    private final Map<UUID, List<Card>> hands = new HashMap<>();
-    private final Map<UUID, Boolean> finished = new HashMap<>();
+    // Ghế được xác định một lần khi bắt đầu ván: seat i = turnOrder.get(i)
+    private final UUID[] seats;
+    private final Hand[] hands;
+    // bit i bật = ghế i đã về (hết bài)
+    private int finishedSeats;
     private final List<UUID> turnOrder;
     private int currentTurnIndex = 0;
+    // seed của bộ bài đã chia (xem DeckSource.shuffle)
+    private long deckSeed;
+    // Số lần snapshot đã được ghi vào Redis; 0 = ván mới chưa ghi lần nào (xem RoomStateService#saveGameState)
+    private int revision;
     
     // Hiện tại lượt đánh: bài nào được đánh lên bàn (pile)
     private Play currentPile = null;
-    // Người nào đã pass trong lượt hiện tại
-    private Set<UUID> passedThisTurn = new HashSet<>();
-    // Log từng lượt đánh: (player, cards, timestamp)
-    private List<java.util.Map<String, Object>> gameLog = new ArrayList<>();
+    // Ghế nào đã pass trong lượt hiện tại (bit i = ghế i)
+    private int passedSeats;
+    private final Set<UUID> passedView = new PassedSet();
+    // Log từng lượt đánh: (ghế, bitboard lá, thời gian) dạng nhị phân
+    private final MoveJournal journal;
 
     public GameState(UUID roomId, List<UUID> turnOrder) {
+        this(roomId, turnOrder, new MoveJournal(System.currentTimeMillis()));
+    }
+
+    // Dùng khi khôi phục từ snapshot (GameStateCodec)
+    GameState(UUID roomId, List<UUID> turnOrder, MoveJournal journal) {
         this.roomId = roomId;
         this.turnOrder = turnOrder;
+        this.seats = turnOrder.toArray(new UUID[0]);
+        this.hands = new Hand[seats.length];
+        this.journal = journal;
+    }
+
+    // ========== SEAT API (không hash, dùng trong engine) ==========
+
+    public int getSeatCount() { return seats.length; }
+    public UUID getPlayer(int seat) { return seats[seat]; }
+
+    /** Ghế của người chơi, -1 nếu không có trong ván. Tối đa 4 ghế nên quét tuyến tính. */
+    public int seatOf(UUID playerId) {
+        for (int i = 0; i < seats.length; i++) {
+            if (seats[i].equals(playerId)) return i;
+        }
+        return -1;
+    }
+
+    public Hand getHand(int seat) { return hands[seat]; }
+    public void setHand(int seat, long mask) { hands[seat] = new Hand(mask); }
+    public int getCardCount(int seat) { return hands[seat] == null ? 0 : hands[seat].analysis().getCardCount(); }
+    /** Thông tin đã tính sẵn của tay bài (null nếu ghế chưa được chia). */
+    public HandAnalysis getAnalysis(int seat) { return hands[seat] == null ? null : hands[seat].analysis(); }
+    public int getCurrentSeat() { return currentTurnIndex; }
+
+    public void markPass(int seat) { passedSeats |= 1 << seat; }
+    public boolean hasPassed(int seat) { return (passedSeats & (1 << seat)) != 0; }
+    public int getPassedSeats() { return passedSeats; }
+    void setPassedSeats(int passedSeats) { this.passedSeats = passedSeats; }
+    public boolean areAllOthersPass(int seat) {
+        return passedSeats == (allSeats() & ~(1 << seat));
+    }
+
+    public void markFinished(int seat) { finishedSeats |= 1 << seat; }
+    public boolean isFinished(int seat) { return (finishedSeats & (1 << seat)) != 0; }
+    public int getFinishedSeats() { return finishedSeats; }
+    void setFinishedSeats(int finishedSeats) { this.finishedSeats = finishedSeats; }
+
+    private int allSeats() { return (1 << seats.length) - 1; }
+
+    // ========== UUID API (giữ tương thích) ==========
+
+    public void setHand(UUID playerId, List<Card> hand) {
+        hands[requireSeat(playerId)] = hand instanceof Hand h ? h : new Hand(hand);
+    }
+    public void setHand(UUID playerId, long mask) { setHand(requireSeat(playerId), mask); }
+    public Hand getHand(UUID playerId) {
+        int seat = seatOf(playerId);
+        return seat < 0 ? null : hands[seat];
+    }
+    public long getHandMask(UUID playerId) {
+        Hand hand = getHand(playerId);
+        return hand == null ? 0L : hand.getMask();
+    }
+    public UUID getCurrentPlayer() { return seats[currentTurnIndex]; }
+    public void nextTurn() {
+        int next = currentTurnIndex + 1;
+        currentTurnIndex = next == seats.length ? 0 : next;
     }
 
-    public void setHand(UUID playerId, List<Card> hand) { hands.put(playerId, hand); }
-    public List<Card> getHand(UUID playerId) { return hands.get(playerId); }
-    public UUID getCurrentPlayer() { return turnOrder.get(currentTurnIndex); }
-    public void nextTurn() { currentTurnIndex = (currentTurnIndex + 1) % turnOrder.size(); }
-    public Map<UUID, List<Card>> getHands() { return hands; }
+    /** Ảnh chụp tay bài theo thứ tự ghế (chỉ các ghế đã được chia bài). */
+    public Map<UUID, List<Card>> getHands() {
+        Map<UUID, List<Card>> result = new LinkedHashMap<>();
+        for (int i = 0; i < seats.length; i++) {
+            if (hands[i] != null) result.put(seats[i], hands[i]);
+        }
+        return Collections.unmodifiableMap(result);
+    }
     
     public Play getCurrentPile() { return currentPile; }
     public void setCurrentPile(Play pile) { this.currentPile = pile; }
     public void clearCurrentPile() { this.currentPile = null; }
     
-    public void markPass(UUID playerId) { passedThisTurn.add(playerId); }
-    public Set<UUID> getPassedThisTurn() { return passedThisTurn; }
-    public void resetPassedThisTurn() { passedThisTurn.clear(); }
+    public void markPass(UUID playerId) { markPass(requireSeat(playerId)); }
+    public Set<UUID> getPassedThisTurn() { return passedView; }
+    public void resetPassedThisTurn() { passedSeats = 0; }
     public boolean areAllOthersPass(UUID currentPlayer) {
-        return passedThisTurn.size() == turnOrder.size() - 1 && !passedThisTurn.contains(currentPlayer);
+        int seat = seatOf(currentPlayer);
+        return seat >= 0 && areAllOthersPass(seat);
+    }
+
+    private int requireSeat(UUID playerId) {
+        int seat = seatOf(playerId);
+        if (seat < 0) throw new IllegalArgumentException("Player not in game: " + playerId);
+        return seat;
+    }
+
+    // View chỉ đọc của passedSeats dưới dạng Set<UUID>
+    private class PassedSet extends AbstractSet<UUID> {
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof UUID id && seatOf(id) >= 0 && hasPassed(seatOf(id));
+        }
+
+        @Override
+        public int size() { return Integer.bitCount(passedSeats); }
+
+        @Override
+        public Iterator<UUID> iterator() {
+            return new Iterator<>() {
+                private int remaining = passedSeats;
+
+                @Override
+                public boolean hasNext() { return remaining != 0; }
+
+                @Override
+                public UUID next() {
+                    if (remaining == 0) throw new NoSuchElementException();
+                    int seat = Integer.numberOfTrailingZeros(remaining);
+                    remaining &= remaining - 1;
+                    return seats[seat];
+                }
+            };
+        }
     }
     
     public void logMove(UUID playerId, List<Card> cards) {
-        var entry = new HashMap<String, Object>();
-        entry.put("playerId", playerId.toString());
-        entry.put("cards", cards.stream().map(Card::toString).toList());
-        entry.put("timestamp", System.currentTimeMillis());
-        gameLog.add(entry);
+        logMove(requireSeat(playerId), CardMask.of(cards));
     }
-    public List<java.util.Map<String, Object>> getGameLog() { return gameLog; }
+    public void logMove(int seat, long mask) { journal.append(seat, mask, System.currentTimeMillis()); }
+    public MoveJournal getJournal() { return journal; }
+    /** Log dạng JSON cũ, giải mã từ journal mỗi lần gọi. */
+    public List<java.util.Map<String, Object>> getGameLog() { return journal.toLog(turnOrder); }
     
     public UUID getRoomId() { return roomId; }
+    public long getDeckSeed() { return deckSeed; }
+    public void setDeckSeed(long deckSeed) { this.deckSeed = deckSeed; }
+    public int getRevision() { return revision; }
+    public void setRevision(int revision) { this.revision = revision; }
     public List<UUID> getTurnOrder() { return turnOrder; }
     public int getCurrentTurnIndex() { return currentTurnIndex; }
     public void setCurrentTurnIndex(int idx) { this.currentTurnIndex = idx; }
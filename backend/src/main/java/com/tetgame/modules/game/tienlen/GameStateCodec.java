@@ -0,0 +1,125 @@
+package com.tetgame.modules.game.tienlen;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Mã hóa nhị phân GameState cho snapshot Redis (game:{roomId}:state). Định dạng v2, big-endian:
+ * <pre>
+ *   byte     version
+ *   int      revision (v2; script so sánh-và-ghi trong Redis đọc ở offset cố định 1..4)
+ *   16 byte  roomId
+ *   byte     số ghế n, sau đó n x 16 byte UUID theo thứ tự ghế
+ *   byte     ghế đã chia bài (bit i = ghế i), mỗi ghế đó 7 byte bitboard 52 lá
+ *   byte     currentTurnIndex, byte passedSeats, byte finishedSeats
+ *   long     deckSeed
+ *   7 byte   bitboard pile (0 = bàn trống, loại bộ được tính lại khi đọc)
+ *   long     journal startMillis, int độ dài, journal bytes
+ * </pre>
+ * Ván 4 người với ~50 nước đi khoảng 300 byte, đọc/ghi trong một lệnh GET/SET.
+ * Snapshot v1 (không có revision) vẫn đọc được, revision = 0.
+ */
+public final class GameStateCodec {
+    public static final byte VERSION = 2;
+    private static final byte VERSION_1 = 1;
+    private static final int MASK_BYTES = 7;
+
+    private GameStateCodec() {}
+
+    public static byte[] encode(GameState state) {
+        int n = state.getSeatCount();
+        byte[] journal = state.getJournal().toBytes();
+        ByteBuffer buf = ByteBuffer.allocate(1 + 4 + 16 + 1 + 16 * n + 1 + MASK_BYTES * n + 3 + 8 + MASK_BYTES + 8 + 4 + journal.length);
+        buf.put(VERSION);
+        buf.putInt(state.getRevision());
+        putUuid(buf, state.getRoomId());
+        buf.put((byte) n);
+        for (int i = 0; i < n; i++) putUuid(buf, state.getPlayer(i));
+
+        int dealt = 0;
+        for (int i = 0; i < n; i++) {
+            if (state.getHand(i) != null) dealt |= 1 << i;
+        }
+        buf.put((byte) dealt);
+        for (int i = 0; i < n; i++) {
+            if (state.getHand(i) != null) putMask(buf, state.getHand(i).getMask());
+        }
+
+        buf.put((byte) state.getCurrentTurnIndex());
+        buf.put((byte) state.getPassedSeats());
+        buf.put((byte) state.getFinishedSeats());
+        buf.putLong(state.getDeckSeed());
+        Play pile = state.getCurrentPile();
+        putMask(buf, pile == null ? 0L : pile.getMask());
+        buf.putLong(state.getJournal().getStartMillis());
+        buf.putInt(journal.length);
+        buf.put(journal);
+        return Arrays.copyOf(buf.array(), buf.position());
+    }
+
+    public static GameState decode(byte[] data) {
+        try {
+            ByteBuffer buf = ByteBuffer.wrap(data);
+            byte version = buf.get();
+            if (version != VERSION && version != VERSION_1) {
+                throw new IllegalArgumentException("Unsupported GameState version: " + version);
+            }
+            int revision = version == VERSION_1 ? 0 : buf.getInt();
+            UUID roomId = getUuid(buf);
+            int n = buf.get();
+            List<UUID> turnOrder = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) turnOrder.add(getUuid(buf));
+
+            int dealt = buf.get();
+            long[] hands = new long[n];
+            for (int i = 0; i < n; i++) {
+                if ((dealt & (1 << i)) != 0) hands[i] = getMask(buf);
+            }
+            int turn = buf.get();
+            int passed = buf.get();
+            int finished = buf.get();
+            long deckSeed = buf.getLong();
+            long pile = getMask(buf);
+            long startMillis = buf.getLong();
+            byte[] journal = new byte[buf.getInt()];
+            buf.get(journal);
+
+            GameState state = new GameState(roomId, turnOrder, MoveJournal.fromBytes(startMillis, journal));
+            for (int i = 0; i < n; i++) {
+                if ((dealt & (1 << i)) != 0) state.setHand(i, hands[i]);
+            }
+            state.setCurrentTurnIndex(turn);
+            state.setPassedSeats(passed);
+            state.setFinishedSeats(finished);
+            state.setDeckSeed(deckSeed);
+            state.setRevision(revision);
+            if (pile != 0L) state.setCurrentPile(Play.fromMask(pile));
+            return state;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException ex) {
+            throw new IllegalArgumentException("Truncated GameState snapshot", ex);
+        }
+    }
+
+    private static void putUuid(ByteBuffer buf, UUID id) {
+        buf.putLong(id.getMostSignificantBits());
+        buf.putLong(id.getLeastSignificantBits());
+    }
+
+    private static UUID getUuid(ByteBuffer buf) {
+        return new UUID(buf.getLong(), buf.getLong());
+    }
+
+    private static void putMask(ByteBuffer buf, long mask) {
+        for (int i = 0; i < MASK_BYTES; i++) buf.put((byte) (mask >>> (8 * i)));
+    }
+
+    private static long getMask(ByteBuffer buf) {
+        long mask = 0L;
+        for (int i = 0; i < MASK_BYTES; i++) mask |= (buf.get() & 0xFFL) << (8 * i);
+        return mask;
+    }
+}
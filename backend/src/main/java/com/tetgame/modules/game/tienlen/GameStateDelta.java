@@ -0,0 +1,76 @@
+package com.tetgame.modules.game.tienlen;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tin trạng thái ván gửi cho client: delta sau mỗi lệnh, snapshot đầy đủ khi client yêu cầu.
+ * <p>
+ * {@code seq} là số nước trong {@link MoveJournal} (tăng đúng 1 mỗi nước, kể cả bỏ lượt), nên delta
+ * mang {@code fromSeq..seq}: client đang ở {@code fromSeq} thì áp thẳng, lệch thì xin snapshot.
+ * Đây là số thứ tự duy nhất để client phát hiện mất tin; khung pub/sub giữa các node không mang seq riêng.
+ * Delta chỉ có các nước mới (ghế, mã lá 0..51; rỗng = bỏ lượt), bài trên bàn, số lá của ghế vừa
+ * đánh và người đi tiếp; kích thước không phụ thuộc độ dài ván như log đầy đủ.
+ */
+public final class GameStateDelta {
+
+    private GameStateDelta() {}
+
+    /** Delta các nước từ {@code fromSeq} (số nước đã phát lần trước) tới hiện tại. */
+    public static Map<String, Object> delta(GameState state, int fromSeq) {
+        List<Map<String, Object>> moves = new ArrayList<>();
+        int[] touched = {0};
+        state.getJournal().forEachSince(fromSeq, (seat, mask, timestamp) -> {
+            var move = new HashMap<String, Object>();
+            move.put("playerId", state.getPlayer(seat).toString());
+            move.put("cards", codes(mask));
+            moves.add(move);
+            if (mask != 0L) touched[0] |= 1 << seat;
+        });
+        Map<String, Object> msg = header(state, "game.delta");
+        msg.put("fromSeq", fromSeq);
+        msg.put("moves", moves);
+        msg.put("hands", handCounts(state, touched[0]));
+        return msg;
+    }
+
+    /** Trạng thái công khai đầy đủ (kèm log) để client đồng bộ lại. */
+    public static Map<String, Object> snapshot(GameState state) {
+        Map<String, Object> msg = header(state, "game.snapshot");
+        msg.put("hands", handCounts(state, (1 << state.getSeatCount()) - 1));
+        msg.put("log", state.getGameLog());
+        return msg;
+    }
+
+    private static Map<String, Object> header(GameState state, String type) {
+        Map<String, Object> msg = new HashMap<>();
+        msg.put("type", type);
+        msg.put("seq", state.getJournal().size());
+        msg.put("currentPlayer", state.getCurrentPlayer().toString());
+        msg.put("currentPile", state.getCurrentPile() != null ? codes(state.getCurrentPile().getMask()) : null);
+        List<String> passed = new ArrayList<>(state.getSeatCount());
+        for (int seat = 0; seat < state.getSeatCount(); seat++) {
+            if (state.hasPassed(seat)) passed.add(state.getPlayer(seat).toString());
+        }
+        msg.put("passedThisTurn", passed);
+        return msg;
+    }
+
+    private static Map<String, Integer> handCounts(GameState state, int seats) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (int s = seats; s != 0; s &= s - 1) {
+            int seat = Integer.numberOfTrailingZeros(s);
+            counts.put(state.getPlayer(seat).toString(), state.getCardCount(seat));
+        }
+        return counts;
+    }
+
+    private static int[] codes(long mask) {
+        int[] codes = new int[Long.bitCount(mask)];
+        int i = 0;
+        for (long m = mask; m != 0L; m &= m - 1) codes[i++] = Long.numberOfTrailingZeros(m);
+        return codes;
+    }
+}
@@ -0,0 +1,153 @@
+package com.tetgame.modules.game.tienlen;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Bài trên tay một người chơi, lưu dưới dạng bitboard {@code long} (xem {@link CardMask}).
+ * Vẫn là một {@code List<Card>} để giữ API cũ, nhưng contains/remove/containsAll là phép bit O(1).
+ * Thứ tự duyệt luôn tăng dần theo mã lá; một lá chỉ có mặt tối đa một lần.
+ */
+public class Hand extends AbstractList<Card> {
+    // mọi thay đổi đi qua analysis để histogram/số lá luôn khớp với bitboard
+    private final HandAnalysis analysis;
+
+    public Hand() { this(0L); }
+
+    public Hand(long mask) { this.analysis = new HandAnalysis(mask & CardMask.FULL_DECK); }
+
+    public Hand(Collection<Card> cards) { this(CardMask.of(cards)); }
+
+    public long getMask() { return analysis.getMask(); }
+    public HandAnalysis analysis() { return analysis; }
+
+    public void setMask(long mask) {
+        analysis.reset(mask & CardMask.FULL_DECK);
+        modCount++;
+    }
+
+    public boolean containsMask(long cards) { return CardMask.containsAll(getMask(), cards); }
+
+    public void removeMask(long cards) {
+        analysis.remove(cards);
+        modCount++;
+    }
+
+    @Override
+    public Card get(int index) {
+        if (index < 0) throw new IndexOutOfBoundsException(index);
+        long m = getMask();
+        for (int i = 0; i < index && m != 0L; i++) m &= m - 1;
+        if (m == 0L) throw new IndexOutOfBoundsException(index);
+        return Card.fromCode(Long.numberOfTrailingZeros(m));
+    }
+
+    @Override
+    public int size() { return analysis.getCardCount(); }
+
+    @Override
+    public boolean isEmpty() { return analysis.isEmpty(); }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Card c && (getMask() & c.mask()) != 0L;
+    }
+
+    @Override
+    public boolean add(Card card) {
+        long bit = card.mask();
+        if ((getMask() & bit) != 0L) return false;
+        analysis.add(bit);
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void add(int index, Card card) {
+        // vị trí do mã lá quyết định, index chỉ để tương thích List
+        add(card);
+    }
+
+    @Override
+    public Card remove(int index) {
+        Card c = get(index);
+        removeMask(c.mask());
+        return c;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!contains(o)) return false;
+        removeMask(((Card) o).mask());
+        return true;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        for (Object o : c) {
+            if (!contains(o)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        long before = getMask();
+        removeMask(toMask(c));
+        return getMask() != before;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        // tính mask trước khi sửa, vì c có thể là subList của chính hand này
+        long keep = toMask(c);
+        long before = getMask();
+        removeMask(before & ~keep);
+        return getMask() != before;
+    }
+
+    @Override
+    public void clear() {
+        removeMask(getMask());
+    }
+
+    @Override
+    public Iterator<Card> iterator() {
+        return new Iterator<>() {
+            private long remaining = getMask();
+            private Card last;
+            private int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() { return remaining != 0L; }
+
+            @Override
+            public Card next() {
+                if (modCount != expectedModCount) throw new ConcurrentModificationException();
+                if (remaining == 0L) throw new NoSuchElementException();
+                last = Card.fromCode(Long.numberOfTrailingZeros(remaining));
+                remaining &= remaining - 1;
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) throw new IllegalStateException();
+                removeMask(last.mask());
+                expectedModCount = modCount;
+                last = null;
+            }
+        };
+    }
+
+    private static long toMask(Collection<?> c) {
+        long m = 0L;
+        for (Object o : c) {
+            if (o instanceof Card card) m |= card.mask();
+        }
+        return m;
+    }
+}
@@ -0,0 +1,67 @@
+package com.tetgame.modules.game.tienlen;
+
+/**
+ * Các thông tin về một tay bài, tính một lần lúc chia rồi cập nhật tăng dần khi lá rời tay:
+ * histogram rank (SWAR), số lá, khả năng có bom, cờ tới trắng. Đọc mọi thông tin đều O(1).
+ * Do {@link Hand} sở hữu và cập nhật nên luôn khớp với bitboard của tay bài.
+ */
+public final class HandAnalysis {
+    private long mask;
+    private long histogram;
+    private int cardCount;
+    private boolean toiTrang;
+
+    HandAnalysis(long mask) {
+        reset(mask);
+    }
+
+    void reset(long mask) {
+        this.mask = mask;
+        this.histogram = CardMask.histogram(mask);
+        this.cardCount = Long.bitCount(mask);
+        this.toiTrang = HandValidator.laToiTrang(mask);
+    }
+
+    void remove(long cards) {
+        cards &= mask;
+        if (cards == 0L) return;
+        mask &= ~cards;
+        // các nibble không mượn nhau vì cards là tập con của mask
+        histogram -= CardMask.histogram(cards);
+        cardCount -= Long.bitCount(cards);
+        // tới trắng chỉ tính trên bài vừa chia, đã ra lá thì không còn
+        toiTrang = false;
+    }
+
+    void add(long cards) {
+        cards &= ~mask;
+        if (cards == 0L) return;
+        mask |= cards;
+        histogram += CardMask.histogram(cards);
+        cardCount += Long.bitCount(cards);
+        toiTrang = HandValidator.laToiTrang(mask);
+    }
+
+    public long getMask() { return mask; }
+    public long getHistogram() { return histogram; }
+    public int getCardCount() { return cardCount; }
+    public boolean isEmpty() { return cardCount == 0; }
+    public int count(int rankOrdinal) { return CardMask.count(histogram, rankOrdinal); }
+    public boolean isToiTrang() { return toiTrang; }
+
+    public boolean hasQuads() { return CardMask.quads(histogram) != 0L; }
+
+    /** Có ít nhất {@code pairs} đôi liền nhau (đôi thông). */
+    public boolean hasConsecutivePairs(int pairs) {
+        long run = CardMask.atLeastPair(histogram);
+        for (int i = 1; i < pairs && run != 0L; i++) {
+            run &= CardMask.atLeastPair(histogram) >>> (i * CardMask.SUITS);
+        }
+        return run != 0L;
+    }
+
+    /** Có bộ chặt được heo: tứ quý hoặc 3 đôi thông trở lên. */
+    public boolean hasBomb() {
+        return hasQuads() || hasConsecutivePairs(3);
+    }
+}
@@ -1,49 +1,51 @@
 package com.tetgame.modules.game.tienlen;
 
-import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 public class HandValidator {
 
+    // các rank THREE .. ACE, dùng cho sảnh rồng
+    private static final long SANH_RONG = CardMask.run(0, CardRank.TWO.ordinal());
+
     public static HandType classify(List<Card> cards) {
         if (cards == null || cards.isEmpty()) return HandType.OTHER;
-        if (cards.size() == 1) return HandType.SINGLE;
-        Map<CardRank, Long> counts = cards.stream().collect(Collectors.groupingBy(Card::rank, Collectors.counting()));
-        if (counts.size() == 1 && counts.values().contains((long)3)) return HandType.TRIPLE;
-        if (counts.size() == 1 && counts.values().contains((long)4)) return HandType.FOUR_OF_KIND;
-        if (cards.size() == 2 && counts.size() == 1) return HandType.PAIR;
-        if (isConsecutivePairs(cards)) return HandType.CONSECUTIVE_PAIRS;
-        if (isStraight(cards)) return HandType.STRAIGHT;
-        return HandType.OTHER;
+        long mask = CardMask.of(cards);
+        // lá trùng nhau không bao giờ là bộ hợp lệ
+        if (Long.bitCount(mask) != cards.size()) return HandType.OTHER;
+        return classify(mask);
     }
 
-    private static boolean isStraight(List<Card> cards) {
-        if (cards.size() < 3) return false;
-        List<Integer> vals = cards.stream().map(c -> c.rank().getValue()).sorted().collect(Collectors.toList());
-        for (int i = 1; i < vals.size(); i++) {
-            if (vals.get(i) != vals.get(i-1) + 1) return false;
+    /**
+     * Phân loại bộ bài từ histogram rank đóng gói (xem {@link CardMask#histogram(long)}).
+     * Không cấp phát: chỉ vài phép bit trên hai giá trị long.
+     */
+    public static HandType classify(long mask) {
+        int size = Long.bitCount(mask);
+        if (size == 0) return HandType.OTHER;
+        if (size == 1) return HandType.SINGLE;
+        long hist = CardMask.histogram(mask);
+        long ranks = CardMask.occupied(hist);
+        int distinct = Long.bitCount(ranks);
+        if (distinct == 1) {
+            if (size == 2) return HandType.PAIR;
+            if (size == 3) return HandType.TRIPLE;
+            return HandType.FOUR_OF_KIND;
         }
-        return true;
+        if (isConsecutivePairs(hist, ranks, size)) return HandType.CONSECUTIVE_PAIRS;
+        if (isStraight(hist, ranks, size)) return HandType.STRAIGHT;
+        return HandType.OTHER;
     }
 
-    private static boolean isConsecutivePairs(List<Card> cards) {
-        if (cards.size() < 6 || cards.size() % 2 != 0) return false; // at least 3 pairs
-        Map<CardRank, Long> counts = cards.stream().collect(Collectors.groupingBy(Card::rank, Collectors.counting()));
-        // each rank must appear exactly twice
-        if (counts.values().stream().anyMatch(c -> c != 2L)) return false;
-        List<Integer> ranks = counts.keySet().stream().map(CardRank::getValue).sorted().collect(Collectors.toList());
-        for (int i = 1; i < ranks.size(); i++) {
-            if (ranks.get(i) != ranks.get(i-1) + 1) return false;
-        }
-        return true;
+    private static boolean isStraight(long hist, long ranks, int size) {
+        if (size < 3) return false;
+        // mỗi rank đúng 1 lá và các rank liền nhau
+        return hist == ranks && CardMask.isContiguous(ranks);
     }
 
-    private static boolean isFourOfKind(List<Card> cards) {
-        if (cards.size() != 4) return false;
-        Map<CardRank, Long> counts = cards.stream().collect(Collectors.groupingBy(Card::rank, Collectors.counting()));
-        return counts.size() == 1 && counts.values().contains(4L);
+    private static boolean isConsecutivePairs(long hist, long ranks, int size) {
+        if (size < 6 || size % 2 != 0) return false; // at least 3 pairs
+        // each rank must appear exactly twice
+        return hist == (ranks << 1) && CardMask.isContiguous(ranks);
     }
 
     /**
@@ -54,33 +56,31 @@ public class HandValidator {
      */
     public static boolean laToiTrang(List<Card> cards) {
         if (cards == null || cards.isEmpty()) return false;
+        return laToiTrang(CardMask.of(cards));
+    }
+
+    public static boolean laToiTrang(long mask) {
+        if (mask == 0L) return false;
         // thường chỉ kiểm tra trên bài chia ban đầu (13 lá)
-        if (la6DoiBatKy(cards)) return true;
-        if (laTuQuyHeo(cards)) return true;
-        if (laSanhRong(cards)) return true;
+        long hist = CardMask.histogram(mask);
+        if (la6DoiBatKy(hist)) return true;
+        if (laTuQuyHeo(mask)) return true;
+        if (laSanhRong(hist)) return true;
         return false;
     }
 
     // 6 đôi bất kỳ: có ít nhất 6 rank có count >= 2
-    private static boolean la6DoiBatKy(List<Card> cards) {
-        Map<CardRank, Long> counts = cards.stream().collect(Collectors.groupingBy(Card::rank, Collectors.counting()));
-        long pairCount = counts.values().stream().filter(c -> c >= 2).count();
-        return pairCount >= 6;
+    private static boolean la6DoiBatKy(long hist) {
+        return Long.bitCount(CardMask.atLeastPair(hist)) >= 6;
     }
 
     // Tứ quý heo: có 4 lá rank TWO
-    private static boolean laTuQuyHeo(List<Card> cards) {
-        Map<CardRank, Long> counts = cards.stream().collect(Collectors.groupingBy(Card::rank, Collectors.counting()));
-        return counts.getOrDefault(CardRank.TWO, 0L) == 4L;
+    private static boolean laTuQuyHeo(long mask) {
+        return CardMask.rankBits(mask, CardRank.TWO.ordinal()) == CardMask.RANK_NIBBLE;
     }
 
     // Sảnh rồng: có ít nhất 1 lá cho mỗi rank từ THREE .. ACE (3->A)
-    private static boolean laSanhRong(List<Card> cards) {
-        Map<CardRank, Long> counts = cards.stream().collect(Collectors.groupingBy(Card::rank, Collectors.counting()));
-        for (CardRank r : CardRank.values()) {
-            if (r == CardRank.TWO) break; // dừng trước TWO
-            if (counts.getOrDefault(r, 0L) < 1) return false;
-        }
-        return true;
+    private static boolean laSanhRong(long hist) {
+        return (CardMask.occupied(hist) & SANH_RONG) == SANH_RONG;
     }
 }
@@ -0,0 +1,136 @@
+package com.tetgame.modules.game.tienlen;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Sinh mọi nước đi hợp lệ của một tay bài so với bài đang trên bàn, dựa trên histogram rank.
+ * {@link Play#beats(Play)} chỉ so rank chứ không so chất, nên mỗi bộ (loại, số lá, rank cao nhất)
+ * chỉ sinh một nước đại diện, dùng các lá chất thấp nhất của mỗi rank.
+ */
+public final class MoveGenerator {
+    private static final int MIN_STRAIGHT = 3;
+    private static final int MIN_PAIR_RUN = 3;
+
+    // LOWEST[bits][n] = n bit thấp nhất trong nibble bits (0 nếu không đủ n lá)
+    private static final int[][] LOWEST = new int[1 << CardMask.SUITS][CardMask.SUITS + 1];
+
+    static {
+        for (int bits = 0; bits < LOWEST.length; bits++) {
+            int picked = 0;
+            int rest = bits;
+            for (int n = 1; n <= CardMask.SUITS && rest != 0; n++) {
+                picked |= rest & -rest;
+                rest &= rest - 1;
+                LOWEST[bits][n] = picked;
+            }
+        }
+    }
+
+    private MoveGenerator() {}
+
+    public static List<Play> legalPlays(GameState state, UUID playerId) {
+        Hand hand = state.getHand(playerId);
+        return hand == null ? new ArrayList<>() : legalPlays(hand.analysis(), state.getCurrentPile());
+    }
+
+    /** Các nước đi hợp lệ; pile = null nghĩa là đang được đánh tự do. */
+    public static List<Play> legalPlays(long hand, Play pile) {
+        List<Play> out = new ArrayList<>();
+        generate(hand, CardMask.histogram(hand), true, pile, out);
+        return out;
+    }
+
+    /** Như trên nhưng dùng histogram và cờ bom đã tính sẵn của tay bài. */
+    public static List<Play> legalPlays(HandAnalysis hand, Play pile) {
+        List<Play> out = new ArrayList<>();
+        generate(hand.getMask(), hand.getHistogram(), hand.hasBomb(), pile, out);
+        return out;
+    }
+
+    /** true nếu có ít nhất một nước chặt được pile. Không cấp phát. */
+    public static boolean hasLegalPlay(long hand, Play pile) {
+        return generate(hand, CardMask.histogram(hand), true, pile, null);
+    }
+
+    public static boolean hasLegalPlay(HandAnalysis hand, Play pile) {
+        return generate(hand.getMask(), hand.getHistogram(), hand.hasBomb(), pile, null);
+    }
+
+    // out == null: dừng ngay khi tìm thấy nước đầu tiên; bombs = false thì bỏ qua đôi thông/tứ quý
+    private static boolean generate(long hand, long hist, boolean bombs, Play pile, List<Play> out) {
+        if (hand == 0L) return false;
+        boolean found = false;
+        if (wants(pile, PlayType.SINGLE)) {
+            found |= sets(hand, CardMask.occupied(hist), 1, PlayType.SINGLE, pile, out);
+        }
+        if (found && out == null) return true;
+        if (wants(pile, PlayType.PAIR)) {
+            found |= sets(hand, CardMask.atLeastPair(hist), 2, PlayType.PAIR, pile, out);
+        }
+        if (found && out == null) return true;
+        if (wants(pile, PlayType.TRIPLE)) {
+            found |= sets(hand, CardMask.atLeastTriple(hist), 3, PlayType.TRIPLE, pile, out);
+        }
+        if (found && out == null) return true;
+        if (wants(pile, PlayType.STRAIGHT)) {
+            found |= runs(hand, CardMask.occupied(hist), 1, MIN_STRAIGHT, PlayType.STRAIGHT, pile, out);
+        }
+        if ((found && out == null) || !bombs) return found;
+        // bom luôn được xét vì có thể chặt bài thường
+        found |= runs(hand, CardMask.atLeastPair(hist), 2, MIN_PAIR_RUN, PlayType.CONSECUTIVE_PAIRS, pile, out);
+        if (found && out == null) return true;
+        found |= sets(hand, CardMask.quads(hist), 4, PlayType.FOUR_OF_KIND, pile, out);
+        return found;
+    }
+
+    private static boolean wants(Play pile, PlayType type) {
+        return pile == null || pile.getType() == type;
+    }
+
+    // Đôi/sám/tứ quý: mỗi rank đủ lá sinh một bộ
+    private static boolean sets(long hand, long ranks, int perRank, PlayType type, Play pile, List<Play> out) {
+        boolean found = false;
+        for (long rs = ranks; rs != 0L; rs &= rs - 1) {
+            int r = CardMask.lowestRank(rs);
+            long mask = pick(hand, r, perRank);
+            if (emit(type, mask, pile, out)) {
+                found = true;
+                if (out == null) return true;
+            }
+        }
+        return found;
+    }
+
+    // Sảnh / đôi thông: mọi dải rank liên tiếp có độ dài >= minLength
+    private static boolean runs(long hand, long ranks, int perRank, int minLength, PlayType type, Play pile, List<Play> out) {
+        int wantedLength = pile != null && pile.getType() == type ? pile.getCards().size() / perRank : -1;
+        boolean found = false;
+        for (int lo = 0; lo + minLength <= CardMask.RANKS; lo++) {
+            long mask = 0L;
+            for (int len = 1; lo + len <= CardMask.RANKS; len++) {
+                int r = lo + len - 1;
+                if ((ranks & (1L << (r * CardMask.SUITS))) == 0L) break;
+                mask |= pick(hand, r, perRank);
+                if (len < minLength || (wantedLength > 0 && len != wantedLength)) continue;
+                if (emit(type, mask, pile, out)) {
+                    found = true;
+                    if (out == null) return true;
+                }
+            }
+        }
+        return found;
+    }
+
+    private static long pick(long hand, int rank, int count) {
+        return (long) LOWEST[CardMask.rankBits(hand, rank)][count] << (rank * CardMask.SUITS);
+    }
+
+    private static boolean emit(PlayType type, long mask, Play pile, List<Play> out) {
+        int primary = Play.computePrimary(mask, type);
+        if (!Play.beats(type, Long.bitCount(mask), primary, pile)) return false;
+        if (out != null) out.add(Play.of(type, mask));
+        return true;
+    }
+}
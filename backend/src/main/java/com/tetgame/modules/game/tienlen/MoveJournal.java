@@ -0,0 +1,158 @@
+package com.tetgame.modules.game.tienlen;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Nhật ký nước đi dạng nhị phân, chỉ ghi thêm. Mỗi nước đi:
+ * <pre>
+ *   1 byte   header: bit 0..2 = ghế, bit 3..6 = số lá (0 = bỏ lượt), bit 7 = nước dài
+ *  [1 byte   số lá, chỉ khi bit 7 bật: bộ từ 16 lá trở lên, vd. 8 đôi thông ván 2 người]
+ *   n byte   mã lá (0..51) theo thứ tự tăng dần, tương đương bitboard 52 bit
+ *   varint   số ms kể từ nước trước (nước đầu tính từ startMillis)
+ * </pre>
+ * Một lá đơn tốn khoảng 4 byte, thay cho một HashMap với chuỗi UUID và danh sách chuỗi.
+ * <p>
+ * Trong bộ nhớ giữ thêm vị trí byte và thời điểm của từng nước (không ghi vào {@link #toBytes()}),
+ * nên {@link #forEachSince} bắt đầu thẳng từ nước cần đọc thay vì giải mã lại từ byte 0.
+ */
+public class MoveJournal {
+    private static final int SEAT_BITS = 0x7;
+    private static final int COUNT_SHIFT = 3;
+    private static final int COUNT_BITS = 0xF;
+    private static final int LONG_PLAY = 0x80;
+
+    private final long startMillis;
+    private byte[] buf;
+    private int length;
+    private int moves;
+    private long lastMillis;
+    // offsets[i] = byte đầu của nước i, times[i] = thời điểm của nước i
+    private int[] offsets = new int[16];
+    private long[] times = new long[16];
+
+    public MoveJournal(long startMillis) {
+        this(startMillis, new byte[64], 0);
+    }
+
+    private MoveJournal(long startMillis, byte[] buf, int length) {
+        this.startMillis = startMillis;
+        this.buf = buf;
+        this.length = length;
+        this.lastMillis = startMillis;
+    }
+
+    @FunctionalInterface
+    public interface Visitor {
+        void move(int seat, long mask, long timestampMillis);
+    }
+
+    public void append(int seat, long mask, long timestampMillis) {
+        int count = Long.bitCount(mask);
+        ensureCapacity(2 + count + 10);
+        int offset = length;
+        if (count > COUNT_BITS) {
+            buf[length++] = (byte) ((seat & SEAT_BITS) | LONG_PLAY);
+            buf[length++] = (byte) count;
+        } else {
+            buf[length++] = (byte) ((seat & SEAT_BITS) | (count << COUNT_SHIFT));
+        }
+        for (long m = mask; m != 0L; m &= m - 1) {
+            buf[length++] = (byte) Long.numberOfTrailingZeros(m);
+        }
+        long delta = Math.max(0L, timestampMillis - lastMillis);
+        while ((delta & ~0x7FL) != 0L) {
+            buf[length++] = (byte) ((delta & 0x7F) | 0x80);
+            delta >>>= 7;
+        }
+        buf[length++] = (byte) delta;
+        lastMillis = Math.max(lastMillis, timestampMillis);
+        index(offset, lastMillis);
+    }
+
+    public void forEach(Visitor visitor) {
+        forEachSince(0, visitor);
+    }
+
+    /** Chỉ duyệt các nước từ thứ tự {@code fromMove} (0-based), bắt đầu thẳng từ vị trí byte đã ghi nhớ. */
+    public void forEachSince(int fromMove, Visitor visitor) {
+        int from = Math.max(fromMove, 0);
+        if (from >= moves) return;
+        scan(offsets[from], from == 0 ? startMillis : times[from - 1], visitor, false);
+    }
+
+    // Giải mã từ byte pos tới cuối, time = thời điểm của nước ngay trước; indexing = dựng lại offsets/times
+    private void scan(int pos, long time, Visitor visitor, boolean indexing) {
+        while (pos < length) {
+            int start = pos;
+            int header = buf[pos++] & 0xFF;
+            int seat = header & SEAT_BITS;
+            int count = (header & LONG_PLAY) != 0 ? buf[pos++] & 0xFF : (header >>> COUNT_SHIFT) & COUNT_BITS;
+            long mask = 0L;
+            if (visitor != null) {
+                for (int i = 0; i < count; i++) mask |= 1L << buf[pos++];
+            } else {
+                pos += count;
+            }
+            long delta = 0L;
+            int shift = 0;
+            byte b;
+            do {
+                b = buf[pos++];
+                delta |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            time += delta;
+            if (indexing) index(start, time);
+            if (visitor != null) visitor.move(seat, mask, time);
+        }
+    }
+
+    /** Giải mã ra dạng JSON cũ: [{playerId, cards: ["RANK_of_SUIT", ...], timestamp}, ...]. */
+    public List<Map<String, Object>> toLog(List<UUID> seats) {
+        List<Map<String, Object>> log = new ArrayList<>(moves);
+        forEach((seat, mask, timestamp) -> {
+            var entry = new HashMap<String, Object>();
+            entry.put("playerId", seats.get(seat).toString());
+            entry.put("cards", CardMask.toList(mask).stream().map(Card::toString).toList());
+            entry.put("timestamp", timestamp);
+            log.add(entry);
+        });
+        return log;
+    }
+
+    public int size() { return moves; }
+    public int byteSize() { return length; }
+    public long getStartMillis() { return startMillis; }
+
+    /** Bản sao phần dữ liệu đã ghi (dùng cho replay / lưu trữ). */
+    public byte[] toBytes() { return Arrays.copyOf(buf, length); }
+
+    public static MoveJournal fromBytes(long startMillis, byte[] data) {
+        MoveJournal journal = new MoveJournal(startMillis, Arrays.copyOf(data, Math.max(data.length, 16)), data.length);
+        // dựng lại vị trí từng nước, số nước và thời điểm cuối để duyệt/append tiếp được
+        journal.scan(0, startMillis, null, true);
+        if (journal.moves > 0) journal.lastMillis = journal.times[journal.moves - 1];
+        return journal;
+    }
+
+    private void index(int offset, long timestampMillis) {
+        if (moves == offsets.length) {
+            offsets = Arrays.copyOf(offsets, moves * 2);
+            times = Arrays.copyOf(times, moves * 2);
+        }
+        offsets[moves] = offset;
+        times[moves] = timestampMillis;
+        moves++;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, length + extra));
+        }
+    }
+}
@@ -1,31 +1,78 @@
 package com.tetgame.modules.game.tienlen;
 
-import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 public class Play {
     private final PlayType type;
     private final List<Card> cards;
     private final int primaryRankValue; // for comparison
+    private final long mask; // bitboard của các lá (xem CardMask)
+
+    // Bộ cùng rank (đơn/đôi/sám/tứ quý) dùng chung: SAME_RANK[rank << 4 | bits chất]
+    private static final Play[] SAME_RANK = new Play[CardMask.RANKS << CardMask.SUITS];
+
+    static {
+        PlayType[] bySize = {PlayType.INVALID, PlayType.SINGLE, PlayType.PAIR, PlayType.TRIPLE, PlayType.FOUR_OF_KIND};
+        for (int r = 0; r < CardMask.RANKS; r++) {
+            for (int bits = 1; bits < (1 << CardMask.SUITS); bits++) {
+                long mask = (long) bits << (r * CardMask.SUITS);
+                PlayType t = bySize[Integer.bitCount(bits)];
+                SAME_RANK[(r << CardMask.SUITS) | bits] =
+                    new Play(t, List.copyOf(CardMask.toList(mask)), computePrimary(mask, t), mask);
+            }
+        }
+    }
 
     public Play(PlayType type, List<Card> cards, int primaryRankValue) {
+        this(type, cards, primaryRankValue, cards == null ? 0L : CardMask.of(cards));
+    }
+
+    private Play(PlayType type, List<Card> cards, int primaryRankValue, long mask) {
         this.type = type;
         this.cards = cards;
         this.primaryRankValue = primaryRankValue;
+        this.mask = mask;
     }
 
     public PlayType getType() { return type; }
     public List<Card> getCards() { return cards; }
     public int getPrimaryRankValue() { return primaryRankValue; }
+    public long getMask() { return mask; }
 
     public static Play fromCards(List<Card> cards) {
+        long mask = cards == null ? 0L : CardMask.of(cards);
+        // lá trùng nhau không bao giờ là bộ hợp lệ
+        boolean distinct = cards != null && Long.bitCount(mask) == cards.size();
+        Play shared = distinct ? interned(mask) : null;
+        if (shared != null) return shared;
         // Map HandType (validator) to PlayType
-        HandType ht = HandValidator.classify(cards);
+        HandType ht = distinct ? HandValidator.classify(mask) : HandType.OTHER;
         PlayType t = mapHandTypeToPlayType(ht);
-        int primary = computePrimary(cards, t);
-        return new Play(t, cards, primary);
+        int primary = computePrimary(mask, t);
+        return new Play(t, cards, primary, mask);
+    }
+
+    /** Tạo Play từ bitboard; các lá được liệt kê tăng dần. */
+    public static Play fromMask(long mask) {
+        Play shared = interned(mask);
+        if (shared != null) return shared;
+        PlayType t = mapHandTypeToPlayType(HandValidator.classify(mask));
+        return new Play(t, CardMask.toList(mask), computePrimary(mask, t), mask);
+    }
+
+    static Play of(PlayType type, long mask) {
+        Play shared = interned(mask);
+        if (shared != null) return shared;
+        return new Play(type, CardMask.toList(mask), computePrimary(mask, type), mask);
+    }
+
+    /** Play dùng chung nếu mọi lá cùng một rank, ngược lại null. Danh sách lá của nó không sửa được. */
+    static Play interned(long mask) {
+        if (mask == 0L) return null;
+        int shift = (Long.numberOfTrailingZeros(mask) / CardMask.SUITS) * CardMask.SUITS;
+        long bits = mask >>> shift;
+        if (bits > CardMask.RANK_NIBBLE) return null;
+        return SAME_RANK[(shift / CardMask.SUITS << CardMask.SUITS) | (int) bits];
     }
 
     private static PlayType mapHandTypeToPlayType(HandType ht) {
@@ -40,38 +87,45 @@ public class Play {
         };
     }
 
-    private static int computePrimary(List<Card> cards, PlayType t) {
-        if (cards == null || cards.isEmpty()) return -1;
+    static int computePrimary(long mask, PlayType t) {
+        if (mask == 0L) return -1;
         switch (t) {
-            case SINGLE: return cards.get(0).rank().getValue();
+            case SINGLE:
             case PAIR:
             case TRIPLE:
             case FOUR_OF_KIND:
-                return cards.get(0).rank().getValue();
             case STRAIGHT:
             case CONSECUTIVE_PAIRS:
-                return cards.stream().map(c -> c.rank().getValue()).max(Integer::compareTo).orElse(-1);
+                // lá cao nhất quyết định rank so sánh
+                return CardMask.highest(mask).rank().getValue();
             default: return -1;
         }
     }
 
     public boolean beats(Play other) {
         if (other == null) return true;
-        if (this.type == PlayType.INVALID) return false;
-        if (this.type == other.type && this.cards.size() == other.cards.size()) {
-            return this.primaryRankValue > other.primaryRankValue;
+        return beats(this.type, this.cards.size(), this.primaryRankValue, other);
+    }
+
+    /** Như {@link #beats(Play)} nhưng cho một bộ chưa tạo thành Play (dùng khi sinh nước đi). */
+    static boolean beats(PlayType type, int size, int primaryRankValue, Play other) {
+        if (other == null) return true;
+        if (type == PlayType.INVALID) return false;
+        int otherSize = other.cards.size();
+        if (type == other.type && size == otherSize) {
+            return primaryRankValue > other.primaryRankValue;
         }
         // bombs beat non-bombs
-        if (isBomb(this.type) && !isBomb(other.type)) return true;
-        if (!isBomb(this.type) && isBomb(other.type)) return false;
+        if (isBomb(type) && !isBomb(other.type)) return true;
+        if (!isBomb(type) && isBomb(other.type)) return false;
         // two bombs: compare by primary
-        if (isBomb(this.type) && isBomb(other.type) && this.cards.size() == other.cards.size()) {
-            return this.primaryRankValue > other.primaryRankValue;
+        if (isBomb(type) && isBomb(other.type) && size == otherSize) {
+            return primaryRankValue > other.primaryRankValue;
         }
         return false;
     }
 
-    private boolean isBomb(PlayType t) {
+    static boolean isBomb(PlayType t) {
         return t == PlayType.FOUR_OF_KIND || t == PlayType.CONSECUTIVE_PAIRS || t == PlayType.BOMB;
     }
 }
@@ -10,8 +10,9 @@ public class SettlementEngine {
      * - Returns map userId -> delta (positive = credit, negative = debit)
      */
     public static java.util.Map<UUID, Integer> settle(GameState state, com.tetgame.modules.room.entity.BetLevel betLevel) {
-        var players = state.getHands().keySet().stream().toList();
-        if (players.isEmpty()) return java.util.Collections.emptyMap();
+        boolean dealt = false;
+        for (int seat = 0; seat < state.getSeatCount() && !dealt; seat++) dealt = state.getAnalysis(seat) != null;
+        if (!dealt) return java.util.Collections.emptyMap();
 
         // Determine payout mapping by bet level
         long first, second, third, fourth;
@@ -33,10 +34,14 @@ public class SettlementEngine {
             }
         }
 
-        // Rank players by remaining cards (fewer cards = higher rank)
-        var ranking = state.getHands().entrySet().stream()
-            .sorted(java.util.Map.Entry.comparingByValue((a, b) -> Integer.compare(a.size(), b.size())))
-            .map(java.util.Map.Entry::getKey)
+        // Rank players by remaining cards (fewer cards = higher rank), số lá đọc từ HandAnalysis;
+        // ghế đã về (kể cả được tuyên bố về nhất khi cuối ván ngã ngũ) luôn đứng trước
+        var ranking = java.util.stream.IntStream.range(0, state.getSeatCount())
+            .filter(seat -> state.getAnalysis(seat) != null)
+            .boxed()
+            .sorted(java.util.Comparator.<Integer, Boolean>comparing(seat -> !state.isFinished(seat))
+                .thenComparingInt(state::getCardCount))
+            .map(state::getPlayer)
             .toList();
 
         java.util.Map<UUID, Integer> deltas = new java.util.HashMap<>();
@@ -0,0 +1,17 @@
+package com.tetgame.modules.game.tienlen;
+
+/**
+ * Một bộ bài đã xáo: thứ tự 52 mã lá (xem {@link Card#code()}) cùng seed đã sinh ra nó,
+ * để có thể dựng lại đúng ván bài khi cần đối soát.
+ */
+public record ShuffledDeck(long seed, byte[] order) {
+
+    public long[] dealMasks(int players, int cardsPerPlayer) {
+        if (players * cardsPerPlayer > order.length) throw new IllegalArgumentException("Not enough cards");
+        long[] hands = new long[players];
+        for (int i = 0; i < players * cardsPerPlayer; i++) {
+            hands[i % players] |= 1L << order[i];
+        }
+        return hands;
+    }
+}
@@ -1,13 +1,153 @@
 package com.tetgame.modules.game.tienlen;
 
+import com.tetgame.modules.game.TimingWheel;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Hạn giờ cho lượt đánh, kiểm tra sẵn sàng và thời gian chờ kết nối lại, chạy trên một
+ * {@link TimingWheel} dùng chung cho mọi bàn. Mỗi nước đi hủy hạn cũ và đặt hạn mới, cả hai O(1).
+ * Callback hết hạn chạy trên thread của wheel: chỉ nên chuyển việc sang mailbox của phòng.
+ */
+@Component
 public class TurnManager {
-    private final List<UUID> players;
-    private int idx = 0;
+    public static final long TURN_TIMEOUT_MS = 30_000;
+    public static final long READY_CHECK_MS = 20_000;
+    public static final long RECONNECT_GRACE_MS = 60_000;
+
+    /** Lượt đã hết giờ: ghế và số nước đi tại thời điểm đặt hạn (để bỏ qua hạn đã cũ). */
+    public record TurnExpiry(UUID roomId, int seat, int moveCount) {}
+
+    @FunctionalInterface
+    public interface TurnTimeoutHandler {
+        void onTurnTimeout(TurnExpiry expiry);
+    }
+
+    private final TimingWheel wheel;
+    private final boolean ownsWheel;
+    private final Map<UUID, TimingWheel.Timeout> turnTimers = new ConcurrentHashMap<>();
+    private final Map<UUID, TimingWheel.Timeout> readyTimers = new ConcurrentHashMap<>();
+    // Mỗi người chơi chỉ ở một bàn tại một thời điểm nên key theo playerId
+    private final Map<UUID, TimingWheel.Timeout> reconnectTimers = new ConcurrentHashMap<>();
+    // Nhịp xổ số của các phòng Lô Tô, cùng một timing wheel với lượt Tiến Lên
+    private final Map<UUID, TimingWheel.Timeout> drawTimers = new ConcurrentHashMap<>();
+    private volatile TurnTimeoutHandler turnTimeoutHandler = expiry -> {};
+
+    public TurnManager() {
+        // tick 100ms, 512 ô: một vòng ~51s, đủ cho mọi hạn giờ thường dùng mà không phải đếm vòng
+        this(new TimingWheel(100, 512).start(), true);
+    }
+
+    public TurnManager(TimingWheel wheel) {
+        this(wheel, false);
+    }
+
+    private TurnManager(TimingWheel wheel, boolean ownsWheel) {
+        this.wheel = wheel;
+        this.ownsWheel = ownsWheel;
+    }
+
+    public void setTurnTimeoutHandler(TurnTimeoutHandler handler) {
+        this.turnTimeoutHandler = handler;
+    }
+
+    // ========== TURN ==========
+
+    /** Đặt (lại) hạn cho lượt hiện tại của ván; gọi sau mỗi nước đi. */
+    public void scheduleTurn(GameState state) {
+        scheduleTurn(state, TURN_TIMEOUT_MS);
+    }
+
+    public void scheduleTurn(GameState state, long timeoutMillis) {
+        TurnExpiry expiry = new TurnExpiry(state.getRoomId(), state.getCurrentSeat(), state.getJournal().size());
+        replace(turnTimers, expiry.roomId(), () -> turnTimeoutHandler.onTurnTimeout(expiry), timeoutMillis);
+    }
+
+    public void cancelTurn(UUID roomId) {
+        cancel(turnTimers.remove(roomId));
+    }
+
+    /** Hạn giờ còn hiệu lực cho ván không (hạn cũ bị bỏ qua nếu đã có nước đi sau đó). */
+    public static boolean isCurrent(GameState state, TurnExpiry expiry) {
+        return state.getCurrentSeat() == expiry.seat() && state.getJournal().size() == expiry.moveCount();
+    }
+
+    /**
+     * Nước đi tự động khi hết giờ: đang cầm cái (bàn trống) thì đánh lá nhỏ nhất, ngược lại bỏ lượt.
+     * Trả về true nếu pile bị xóa (giống {@link GameEngine#pass}).
+     */
+    public static boolean applyTimeout(GameEngine engine, GameState state) {
+        int seat = state.getCurrentSeat();
+        UUID player = state.getPlayer(seat);
+        Hand hand = state.getHand(seat);
+        if (state.getCurrentPile() == null && hand != null && !hand.isEmpty()) {
+            engine.playMove(state, player, List.of(CardMask.lowest(hand.getMask())));
+            return false;
+        }
+        return engine.pass(state, player);
+    }
+
+    // ========== READY CHECK / RECONNECT ==========
+
+    public void scheduleReadyCheck(UUID roomId, Runnable onExpire) {
+        replace(readyTimers, roomId, onExpire, READY_CHECK_MS);
+    }
+
+    public void cancelReadyCheck(UUID roomId) {
+        cancel(readyTimers.remove(roomId));
+    }
+
+    public void scheduleReconnectGrace(UUID playerId, Runnable onExpire) {
+        replace(reconnectTimers, playerId, onExpire, RECONNECT_GRACE_MS);
+    }
+
+    /** Người chơi đã kết nối lại kịp: true nếu còn hạn chờ và đã hủy được. */
+    public boolean cancelReconnectGrace(UUID playerId) {
+        return cancel(reconnectTimers.remove(playerId));
+    }
+
+    // ========== NHỊP XỔ SỐ (LÔ TÔ) ==========
+
+    public void scheduleDraw(UUID roomId, Runnable onExpire, long delayMillis) {
+        replace(drawTimers, roomId, onExpire, delayMillis);
+    }
+
+    public void cancelDraw(UUID roomId) {
+        cancel(drawTimers.remove(roomId));
+    }
+
+    /** Hủy mọi hạn giờ của phòng (ván kết thúc / phòng đóng). */
+    public void cancelRoom(UUID roomId) {
+        cancelTurn(roomId);
+        cancelReadyCheck(roomId);
+        cancelDraw(roomId);
+    }
+
+    public int pendingTimers() { return wheel.pendingTimeouts(); }
+
+    @PreDestroy
+    public void close() {
+        if (ownsWheel) wheel.close();
+    }
+
+    // Đặt hạn mới cho key và hủy hạn cũ; khi hết hạn chỉ gỡ đúng timeout của mình khỏi map
+    private <K> void replace(Map<K, TimingWheel.Timeout> timers, K key, Runnable onExpire, long delayMillis) {
+        AtomicReference<TimingWheel.Timeout> self = new AtomicReference<>();
+        self.set(wheel.schedule(() -> {
+            TimingWheel.Timeout timeout = self.get();
+            if (timeout != null) timers.remove(key, timeout);
+            onExpire.run();
+        }, delayMillis));
+        cancel(timers.put(key, self.get()));
+    }
 
-    public TurnManager(List<UUID> players) { this.players = players; }
-    public UUID current() { return players.get(idx); }
-    public void advance() { idx = (idx + 1) % players.size(); }
+    private static boolean cancel(TimingWheel.Timeout timeout) {
+        return timeout != null && timeout.cancel();
+    }
 }
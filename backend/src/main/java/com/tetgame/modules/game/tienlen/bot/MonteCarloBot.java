@@ -0,0 +1,376 @@
+package com.tetgame.modules.game.tienlen.bot;
+
+import com.tetgame.modules.game.tienlen.CardMask;
+import com.tetgame.modules.game.tienlen.EndgameSolver;
+import com.tetgame.modules.game.tienlen.GameEngine;
+import com.tetgame.modules.game.tienlen.GameState;
+import com.tetgame.modules.game.tienlen.MoveGenerator;
+import com.tetgame.modules.game.tienlen.Play;
+import com.tetgame.modules.game.tienlen.simulation.PolicyPlayer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bot đánh thay ghế mất kết nối. Mỗi nước có ngân sách thời gian cố định: với mỗi nước hợp lệ
+ * (kể cả bỏ lượt), chia ngẫu nhiên các lá chưa thấy cho đối thủ theo đúng số lá họ đang cầm
+ * (determinization) rồi chơi nhanh đến khi có người về, chọn nước có điểm trung bình cao nhất.
+ * <p>
+ * Rollout chạy trên một pool riêng, ít luồng, ưu tiên thấp và hàng đợi có giới hạn để bot không
+ * chiếm CPU của các bàn người thật. Luồng gọi (mailbox của phòng) chỉ chờ đến hết ngân sách; worker
+ * nào chưa xong thì bị hủy và phần kết quả của nó bị bỏ. Thời gian CPU được cộng dồn theo từng bot và cả node; khi node
+ * vượt trần CPU trong cửa sổ hiện tại, bot đánh theo heuristic (lá/bộ thấp nhất) thay vì rollout.
+ * Số liệu theo từng bot chỉ giữ khi ghế còn do bot điều khiển: mỗi lượt lấy bộ đếm của ghế một lần,
+ * {@link #release} bỏ bộ đếm khỏi map nên worker xong muộn chỉ cộng vào bộ đếm đã bị bỏ.
+ * <p>
+ * Cuối ván (mọi tay <= {@link EndgameSolver#MAX_HAND} lá) bot giải chính xác từng cách chia lá chưa
+ * thấy; nước nào thắng chắc trong mọi cách chia đã thử thì đánh luôn, không cần rollout.
+ */
+@Component
+public class MonteCarloBot {
+    public static final long DEFAULT_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+    // Giới hạn số bước của một rollout (phòng vòng lặp do toàn bộ người chơi bỏ lượt)
+    private static final int MAX_ROLLOUT_STEPS = 400;
+    // Xác suất đối thủ giả lập đánh theo LOWEST thay vì RANDOM
+    private static final double GREEDY_RATE = 0.75;
+    // Số cách chia tối đa được giải chính xác cho một nước cuối ván
+    private static final int ENDGAME_SAMPLES = 16;
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final ThreadPoolExecutor pool;
+    private final int parallelism;
+    private final long budgetNanos;
+    private final long cpuCapPerWindow;
+    private final EndgameSolver solver;
+
+    private final Set<UUID> controlled = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, LongAdder> cpuByPlayer = new ConcurrentHashMap<>();
+    private final LongAdder totalCpu = new LongAdder();
+    private final LongAdder windowCpu = new LongAdder();
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final LongAdder rollouts = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    @Autowired
+    public MonteCarloBot(EndgameSolver solver) {
+        // mặc định: 1/4 số core cho rollout, trần CPU bot bằng đúng số luồng đó
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() / 4), DEFAULT_BUDGET_NANOS,
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 4), solver);
+    }
+
+    public MonteCarloBot(int threads, long budgetNanos, double maxCores) {
+        this(threads, budgetNanos, maxCores, null);
+    }
+
+    public MonteCarloBot(int threads, long budgetNanos, double maxCores, EndgameSolver solver) {
+        this.solver = solver;
+        this.parallelism = threads;
+        this.budgetNanos = budgetNanos;
+        this.cpuCapPerWindow = (long) (maxCores * WINDOW_NANOS);
+        AtomicInteger ids = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(threads * 4), r -> {
+                Thread t = new Thread(r, "bot-rollout-" + ids.incrementAndGet());
+                t.setDaemon(true);
+                t.setPriority(Thread.MIN_PRIORITY);
+                return t;
+            });
+        if (THREADS.isCurrentThreadCpuTimeSupported() && !THREADS.isThreadCpuTimeEnabled()) {
+            THREADS.setThreadCpuTimeEnabled(true);
+        }
+    }
+
+    // ========== GHẾ DO BOT ĐIỀU KHIỂN ==========
+
+    public void takeOver(UUID playerId) {
+        controlled.add(playerId);
+        cpuByPlayer.putIfAbsent(playerId, new LongAdder());
+    }
+    public void release(UUID playerId) {
+        controlled.remove(playerId);
+        cpuByPlayer.remove(playerId);
+    }
+    public boolean isControlling(UUID playerId) { return controlled.contains(playerId); }
+
+    /**
+     * Chọn và đánh nước cho người chơi hiện tại qua {@link GameEngine}.
+     * Trả về true nếu pile bị xóa (giống {@link GameEngine#pass}).
+     */
+    public boolean playTurn(GameEngine engine, GameState state) {
+        UUID player = state.getCurrentPlayer();
+        Play choice = chooseMove(state, state.getCurrentSeat());
+        if (choice != null && engine.playMove(state, player, choice.getCards())) return false;
+        return engine.pass(state, player);
+    }
+
+    /** Nước đi cho ghế seat; null = bỏ lượt. */
+    public Play chooseMove(GameState state, int seat) {
+        long hand = state.getHand(seat).getMask();
+        Play pile = state.getCurrentPile();
+        List<Play> candidates = new ArrayList<>(MoveGenerator.legalPlays(hand, pile));
+        boolean leading = pile == null;
+        if (!leading) candidates.add(null); // bỏ lượt cũng là một lựa chọn
+        if (candidates.size() == 1) return candidates.get(0);
+        if (candidates.isEmpty()) return null;
+        // đánh hết bài được thì về luôn, không cần tìm kiếm
+        for (Play c : candidates) {
+            if (c != null && c.getMask() == hand) return c;
+        }
+        if (overBudget()) {
+            fallbacks.increment();
+            return PolicyPlayer.LOWEST.choose(MoveGenerator.legalPlays(hand, pile), leading, ThreadLocalRandom.current());
+        }
+
+        Position root = Position.of(state, seat);
+        long deadline = System.nanoTime() + budgetNanos;
+        // worker dừng sớm hơn hạn một chút để kết quả kịp gộp trước hạn
+        long searchDeadline = deadline - budgetNanos / 8;
+        // null = ghế không do bot giữ, chỉ tính vào tổng của node
+        LongAdder seatCpu = cpuByPlayer.get(state.getPlayer(seat));
+        if (solver != null && root.isEndgame()) {
+            int exact = accounted(seatCpu, () -> solveEndgame(root, candidates, searchDeadline));
+            if (exact >= 0) return candidates.get(exact);
+        }
+        List<Future<double[]>> futures = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            try {
+                int first = i * candidates.size() / parallelism;
+                futures.add(pool.submit(() -> accounted(seatCpu, () -> search(root, candidates, first, searchDeadline))));
+            } catch (RejectedExecutionException ex) {
+                break; // pool đang bận: dùng ít worker hơn
+            }
+        }
+        double[] total = new double[candidates.size() * 2];
+        for (Future<double[]> f : futures) {
+            try {
+                double[] part = f.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                for (int i = 0; i < total.length; i++) total[i] += part[i];
+            } catch (Exception ex) {
+                f.cancel(true);
+            }
+        }
+        int best = 0;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < candidates.size(); i++) {
+            double visits = total[2 * i + 1];
+            double score = visits == 0 ? Double.NEGATIVE_INFINITY : total[2 * i] / visits;
+            if (score > bestScore) {
+                bestScore = score;
+                best = i;
+            }
+        }
+        if (bestScore == Double.NEGATIVE_INFINITY) {
+            fallbacks.increment();
+            return PolicyPlayer.LOWEST.choose(MoveGenerator.legalPlays(hand, pile), leading, ThreadLocalRandom.current());
+        }
+        return candidates.get(best);
+    }
+
+    // ========== CPU ACCOUNTING ==========
+
+    public long cpuNanos(UUID playerId) {
+        LongAdder adder = cpuByPlayer.get(playerId);
+        return adder == null ? 0L : adder.sum();
+    }
+
+    public long totalCpuNanos() { return totalCpu.sum(); }
+    public long rolloutCount() { return rollouts.sum(); }
+    public long fallbackCount() { return fallbacks.sum(); }
+
+    @PreDestroy
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    private <T> T accounted(LongAdder seatCpu, Supplier<T> work) {
+        long start = cpuTime();
+        try {
+            return work.get();
+        } finally {
+            long used = Math.max(0L, cpuTime() - start);
+            if (seatCpu != null) seatCpu.add(used);
+            totalCpu.add(used);
+            windowCpu.add(used);
+        }
+    }
+
+    private boolean overBudget() {
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) windowCpu.reset();
+        return windowCpu.sum() >= cpuCapPerWindow;
+    }
+
+    private static long cpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    // ========== CUỐI VÁN ==========
+
+    // Chỉ số nước thắng chắc trong mọi cách chia đã giải, -1 nếu không có (để rollout quyết định)
+    private int solveEndgame(Position root, List<Play> candidates, long deadline) {
+        int[] wins = new int[candidates.size()];
+        long[] hands = new long[root.hands().length];
+        Random rnd = ThreadLocalRandom.current();
+        int samples = 0;
+        while (samples < ENDGAME_SAMPLES && System.nanoTime() < deadline) {
+            root.determinize(hands, rnd);
+            EndgameSolver.Result r = solver.solve(hands, root.me(), root.pile(), root.passed(), root.me(), deadline);
+            samples++;
+            if (!r.forced()) return -1;
+            long mask = r.move() == null ? 0L : r.move().getMask();
+            for (int i = 0; i < candidates.size(); i++) {
+                Play c = candidates.get(i);
+                if ((c == null ? 0L : c.getMask()) == mask) {
+                    wins[i]++;
+                    break;
+                }
+            }
+        }
+        for (int i = 0; i < wins.length; i++) {
+            if (samples > 0 && wins[i] == samples) return i;
+        }
+        return -1;
+    }
+
+    // ========== ROLLOUT ==========
+
+    // Luân phiên các nước ứng viên từ first đến hết hạn; kết quả [tổng điểm, số lần] cho từng nước.
+    // Vòng đầu đi đủ mọi nước rồi mới xét hạn, nên không nước nào bị bỏ sót khi ngân sách ngắn
+    private double[] search(Position root, List<Play> candidates, int first, long deadline) {
+        double[] result = new double[candidates.size() * 2];
+        Random rnd = ThreadLocalRandom.current();
+        long[] hands = new long[root.hands.length];
+        int done = 0;
+        int i = first;
+        do {
+            root.determinize(hands, rnd);
+            result[2 * i] += rollout(hands, root.me, root.me, candidates.get(i), root.pile, root.passed, rnd);
+            result[2 * i + 1]++;
+            done++;
+            if (++i == candidates.size()) i = 0;
+        } while ((done < candidates.size() || System.nanoTime() < deadline) && !Thread.currentThread().isInterrupted());
+        rollouts.add(done);
+        return result;
+    }
+
+    /**
+     * Đánh first ở ghế turn rồi chơi nhanh đến khi có người hết bài. Điểm của ghế me:
+     * 1 nếu về nhất, ngược lại tỉ lệ đối thủ còn nhiều lá hơn (hòa tính nửa).
+     */
+    static double rollout(long[] hands, int me, int turn, Play first, Play pile, int passed, Random rnd) {
+        int n = hands.length;
+        int all = (1 << n) - 1;
+        Play choice = first;
+        for (int step = 0; step < MAX_ROLLOUT_STEPS; step++) {
+            if (choice != null) {
+                hands[turn] &= ~choice.getMask();
+                if (hands[turn] == 0L) return score(hands, me);
+                pile = choice; // người đã bỏ lượt vẫn bị khóa tới khi bàn được xóa, như GameEngine
+                turn = turn + 1 == n ? 0 : turn + 1;
+            } else {
+                passed |= 1 << turn;
+                int active = all & ~passed;
+                if (pile != null && Integer.bitCount(active) == 1) {
+                    pile = null;
+                    passed = 0;
+                    turn = Integer.numberOfTrailingZeros(active);
+                } else {
+                    turn = turn + 1 == n ? 0 : turn + 1;
+                }
+            }
+            // người đã bỏ lượt thì bỏ tiếp cho đến khi pile được xóa
+            if ((passed & (1 << turn)) != 0) {
+                choice = null;
+            } else {
+                List<Play> legal = MoveGenerator.legalPlays(hands[turn], pile);
+                PolicyPlayer policy = rnd.nextDouble() < GREEDY_RATE ? PolicyPlayer.LOWEST : PolicyPlayer.RANDOM;
+                choice = policy.choose(legal, pile == null, rnd);
+            }
+        }
+        return score(hands, me);
+    }
+
+    private static double score(long[] hands, int me) {
+        int mine = Long.bitCount(hands[me]);
+        if (mine == 0) return 1.0;
+        double beaten = 0;
+        for (int s = 0; s < hands.length; s++) {
+            if (s == me) continue;
+            int theirs = Long.bitCount(hands[s]);
+            if (theirs > mine) beaten += 1;
+            else if (theirs == mine) beaten += 0.5;
+        }
+        return beaten / (hands.length - 1);
+    }
+
+    /** Thông tin công khai của ván từ góc nhìn ghế me. */
+    private record Position(int me, long[] hands, int[] counts, byte[] unseen, Play pile, int passed) {
+
+        boolean isEndgame() {
+            for (int s = 0; s < counts.length; s++) {
+                if (counts[s] == 0 || counts[s] > EndgameSolver.MAX_HAND) return false;
+            }
+            return true;
+        }
+
+        static Position of(GameState state, int me) {
+            int n = state.getSeatCount();
+            long[] hands = new long[n];
+            int[] counts = new int[n];
+            // mọi lá đã ra bàn đều nằm trong journal
+            long[] played = {0L};
+            state.getJournal().forEach((seat, mask, ts) -> played[0] |= mask);
+            for (int s = 0; s < n; s++) counts[s] = state.getCardCount(s);
+            hands[me] = state.getHand(me).getMask();
+            long unseenMask = CardMask.FULL_DECK & ~hands[me] & ~played[0];
+            byte[] unseen = new byte[Long.bitCount(unseenMask)];
+            int i = 0;
+            for (long m = unseenMask; m != 0L; m &= m - 1) unseen[i++] = (byte) Long.numberOfTrailingZeros(m);
+            return new Position(me, hands, counts, unseen, state.getCurrentPile(), state.getPassedSeats());
+        }
+
+        // Chia ngẫu nhiên các lá chưa thấy cho đối thủ theo số lá họ đang cầm
+        void determinize(long[] out, Random rnd) {
+            byte[] deck = unseen.clone();
+            int next = 0;
+            for (int s = 0; s < out.length; s++) {
+                if (s == me) {
+                    out[s] = hands[me];
+                    continue;
+                }
+                long mask = 0L;
+                for (int k = 0; k < counts[s] && next < deck.length; k++, next++) {
+                    int j = next + rnd.nextInt(deck.length - next);
+                    byte tmp = deck[j];
+                    deck[j] = deck[next];
+                    deck[next] = tmp;
+                    mask |= 1L << deck[next];
+                }
+                out[s] = mask;
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.tetgame.modules.game.tienlen.simulation;
+
+import com.tetgame.modules.game.tienlen.Play;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Chiến thuật đơn giản cho người chơi giả lập. Trả về null nghĩa là bỏ lượt.
+ */
+public enum PolicyPlayer {
+    /** Luôn đánh bộ có rank thấp nhất (ưu tiên bộ nhiều lá hơn khi bằng rank). */
+    LOWEST {
+        @Override
+        public Play choose(List<Play> legal, boolean leading, Random random) {
+            Play best = null;
+            for (Play p : legal) {
+                if (best == null
+                        || p.getPrimaryRankValue() < best.getPrimaryRankValue()
+                        || (p.getPrimaryRankValue() == best.getPrimaryRankValue()
+                            && p.getCards().size() > best.getCards().size())) {
+                    best = p;
+                }
+            }
+            return best;
+        }
+    },
+    /** Chọn ngẫu nhiên giữa các nước hợp lệ, hoặc bỏ lượt khi không phải người đi đầu. */
+    RANDOM {
+        @Override
+        public Play choose(List<Play> legal, boolean leading, Random random) {
+            if (legal.isEmpty()) return null;
+            int options = leading ? legal.size() : legal.size() + 1;
+            int pick = random.nextInt(options);
+            return pick < legal.size() ? legal.get(pick) : null;
+        }
+    };
+
+    public abstract Play choose(List<Play> legal, boolean leading, Random random);
+}
@@ -0,0 +1,152 @@
+package com.tetgame.modules.game.tienlen.simulation;
+
+import com.tetgame.modules.game.tienlen.GameEngine;
+import com.tetgame.modules.game.tienlen.GameState;
+import com.tetgame.modules.game.tienlen.MoveGenerator;
+import com.tetgame.modules.game.tienlen.Play;
+import com.tetgame.modules.game.tienlen.SettlementEngine;
+import com.tetgame.modules.room.entity.BetLevel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Giả lập tự chơi Tiến Lên không cần Redis/Postgres: chạy song song bằng fork-join qua
+ * GameEngine.startTienLenGame / playMove / pass / checkGameEnd với các {@link PolicyPlayer} đơn giản.
+ * Dùng để đo số ván/giây mỗi node và kiểm tra phân bố tiền thắng/thua theo từng BetLevel.
+ *
+ * Chạy: mvn -q compile exec:java -Dexec.mainClass=com.tetgame.modules.game.tienlen.simulation.SelfPlaySimulator
+ *       -Dexec.args="--games=1000000 --players=4 --policy=LOWEST"
+ */
+public class SelfPlaySimulator {
+    // chặn ván không kết thúc được (không nên xảy ra)
+    private static final int MAX_MOVES_PER_GAME = 2_000;
+    // số ván tối đa một task lá tự chơi trước khi chia nhỏ
+    private static final int LEAF_GAMES = 2_000;
+
+    // RoomService không được dùng khi chỉ chạy engine
+    private final GameEngine engine = new GameEngine(null);
+    private final int players;
+    private final PolicyPlayer policy;
+    private final long seed;
+
+    public SelfPlaySimulator(int players, PolicyPlayer policy, long seed) {
+        if (players < 2 || players > 4) throw new IllegalArgumentException("Players must be between 2 and 4");
+        this.players = players;
+        this.policy = policy;
+        this.seed = seed;
+    }
+
+    public SimulationStats run(long games, ForkJoinPool pool) {
+        return pool.invoke(new Batch(0, games));
+    }
+
+    private class Batch extends RecursiveTask<SimulationStats> {
+        private final long from;
+        private final long to;
+
+        Batch(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SimulationStats compute() {
+            if (to - from <= LEAF_GAMES) {
+                Random random = new Random(seed ^ (from * 0x9E3779B97F4A7C15L));
+                List<UUID> seats = new ArrayList<>(players);
+                for (int i = 0; i < players; i++) seats.add(UUID.randomUUID());
+                SimulationStats stats = new SimulationStats();
+                for (long g = from; g < to; g++) playOne(seats, random, stats);
+                return stats;
+            }
+            long mid = (from + to) >>> 1;
+            Batch left = new Batch(from, mid);
+            left.fork();
+            SimulationStats right = new Batch(mid, to).compute();
+            return right.merge(left.join());
+        }
+    }
+
+    void playOne(List<UUID> seats, Random random, SimulationStats stats) {
+        GameState state = engine.startTienLenGame(UUID.randomUUID(), seats);
+
+        // Tới trắng: ván kết thúc ngay khi chia bài (giống RoomStateServiceImpl.startRoom)
+        boolean toiTrang = false;
+        for (int seat = 0; seat < seats.size(); seat++) {
+            if (state.getAnalysis(seat).isToiTrang()) {
+                toiTrang = true;
+                break;
+            }
+        }
+
+        int moves = 0;
+        while (!toiTrang && engine.checkGameEnd(state) == null) {
+            if (++moves > MAX_MOVES_PER_GAME) {
+                stats.recordAborted();
+                return;
+            }
+            int seat = state.getCurrentSeat();
+            UUID current = state.getPlayer(seat);
+            Play pile = state.getCurrentPile();
+            // người đã bỏ lượt thì không được đánh lại cho tới khi hết vòng
+            Play choice = null;
+            if (!state.hasPassed(seat)) {
+                List<Play> legal = MoveGenerator.legalPlays(state.getAnalysis(seat), pile);
+                choice = policy.choose(legal, pile == null, random);
+            }
+            if (choice != null) {
+                engine.playMove(state, current, choice.getCards());
+            } else {
+                engine.pass(state, current);
+            }
+        }
+
+        stats.recordGame(moves, toiTrang);
+        for (BetLevel level : BetLevel.values()) {
+            stats.recordPayouts(level, SettlementEngine.settle(state, level));
+        }
+    }
+
+    public static void main(String[] args) {
+        long games = 100_000;
+        int players = 4;
+        PolicyPlayer policy = PolicyPlayer.LOWEST;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        long seed = System.nanoTime();
+        for (String arg : args) {
+            String[] kv = arg.replaceFirst("^--", "").split("=", 2);
+            if (kv.length != 2) continue;
+            switch (kv[0]) {
+                case "games" -> games = Long.parseLong(kv[1]);
+                case "players" -> players = Integer.parseInt(kv[1]);
+                case "policy" -> policy = PolicyPlayer.valueOf(kv[1].toUpperCase());
+                case "threads" -> parallelism = Integer.parseInt(kv[1]);
+                case "seed" -> seed = Long.parseLong(kv[1]);
+                default -> System.err.println("Unknown option: " + kv[0]);
+            }
+        }
+
+        SelfPlaySimulator simulator = new SelfPlaySimulator(players, policy, seed);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long start = System.nanoTime();
+        SimulationStats stats = simulator.run(games, pool);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+
+        System.out.printf("games=%d players=%d policy=%s threads=%d seed=%d%n",
+            stats.getGames(), players, policy, parallelism, seed);
+        System.out.printf("time=%.2fs games/sec=%.0f games/sec/thread=%.0f%n",
+            seconds, stats.getGames() / seconds, stats.getGames() / seconds / parallelism);
+        System.out.printf("moves/game=%.2f toiTrang=%d (%.4f%%) aborted=%d%n",
+            stats.getMovesPerGame(), stats.getToiTrangGames(), stats.getToiTrangRate() * 100, stats.getAbortedGames());
+        for (Map.Entry<BetLevel, Map<Long, Long>> e : stats.getPayouts().entrySet()) {
+            System.out.printf("%s houseNet=%d payouts=%s%n", e.getKey(), stats.getHouseNet().get(e.getKey()), e.getValue());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.tetgame.modules.game.tienlen.simulation;
+
+import com.tetgame.modules.room.entity.BetLevel;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Kết quả cộng dồn của một lô ván giả lập; các lô được gộp lại bằng {@link #merge(SimulationStats)}.
+ */
+public class SimulationStats {
+    private long games;
+    private long moves;
+    private long toiTrangGames;
+    private long abortedGames;
+    // betLevel -> (delta -> số lần xuất hiện)
+    private final Map<BetLevel, Map<Long, Long>> payouts = new EnumMap<>(BetLevel.class);
+    private final Map<BetLevel, Long> houseNet = new EnumMap<>(BetLevel.class);
+
+    void recordGame(int movesInGame, boolean toiTrang) {
+        games++;
+        moves += movesInGame;
+        if (toiTrang) toiTrangGames++;
+    }
+
+    void recordAborted() { abortedGames++; }
+
+    void recordPayouts(BetLevel level, Map<?, Integer> settlement) {
+        Map<Long, Long> dist = payouts.computeIfAbsent(level, k -> new TreeMap<>());
+        long net = 0;
+        for (Integer delta : settlement.values()) {
+            dist.merge(delta.longValue(), 1L, Long::sum);
+            net += delta;
+        }
+        // tổng delta dương = tiền phát ra nhiều hơn tiền thu về
+        houseNet.merge(level, -net, Long::sum);
+    }
+
+    public SimulationStats merge(SimulationStats other) {
+        games += other.games;
+        moves += other.moves;
+        toiTrangGames += other.toiTrangGames;
+        abortedGames += other.abortedGames;
+        other.payouts.forEach((level, dist) -> {
+            Map<Long, Long> mine = payouts.computeIfAbsent(level, k -> new TreeMap<>());
+            dist.forEach((delta, count) -> mine.merge(delta, count, Long::sum));
+        });
+        other.houseNet.forEach((level, net) -> houseNet.merge(level, net, Long::sum));
+        return this;
+    }
+
+    public long getGames() { return games; }
+    public long getMoves() { return moves; }
+    public long getToiTrangGames() { return toiTrangGames; }
+    public long getAbortedGames() { return abortedGames; }
+    public Map<BetLevel, Map<Long, Long>> getPayouts() { return payouts; }
+    public Map<BetLevel, Long> getHouseNet() { return houseNet; }
+
+    public double getMovesPerGame() { return games == 0 ? 0 : (double) moves / games; }
+    public double getToiTrangRate() { return games == 0 ? 0 : (double) toiTrangGames / games; }
+}
@@ -0,0 +1,105 @@
+package com.tetgame.modules.game.xidach;
+
+import com.tetgame.modules.game.tienlen.DeckSource;
+import org.springframework.stereotype.Service;
+
+/**
+ * Luật chơi Xì Dách trên {@link XiDachTable}. Mỗi ván: chia 2 lá (nhà con trước, nhà cái sau),
+ * nhà con rút/dằn, nhà cái rút đến khi đủ tuổi rồi tính tiền cả bàn trong một vòng lặp duy nhất.
+ * Không cấp phát sau khi đã mở bàn.
+ */
+@Service
+public class XiDachEngine {
+
+    /** Bắt đầu ván mới với seed từ PRNG. Trả về true nếu nhà cái có Xì Bàng/Xì Dách (tính tiền luôn). */
+    public boolean startRound(XiDachTable table) {
+        return startRound(table, DeckSource.nextSeed());
+    }
+
+    /** Như trên với seed cho trước (dựng lại ván khi đối soát). */
+    public boolean startRound(XiDachTable table, long seed) {
+        DeckSource.shuffleInto(seed, table.deck);
+        table.seed = seed;
+        table.deckPos = 0;
+        table.round++;
+        table.settled = false;
+        table.standing = 0;
+        table.dealerHand = XiDachHand.EMPTY;
+        table.dealerMask = 0L;
+        table.dealerDelta = 0L;
+        int n = table.getSeatCount();
+        for (int i = 0; i < n; i++) {
+            table.hands[i] = XiDachHand.EMPTY;
+            table.masks[i] = 0L;
+            table.deltas[i] = 0L;
+        }
+        for (int k = 0; k < 2; k++) {
+            for (int i = 0; i < n; i++) draw(table, i);
+            drawDealer(table);
+        }
+        if (XiDachHand.isNatural(table.dealerHand)) {
+            settle(table);
+            return true;
+        }
+        // Xì Bàng/Xì Dách thì không rút nữa
+        for (int i = 0; i < n; i++) {
+            if (XiDachHand.isNatural(table.hands[i])) table.standing |= 1 << i;
+        }
+        return false;
+    }
+
+    /** Nhà con rút thêm một lá. Trả về false nếu ghế đã dằn. Quắc hoặc đủ 5 lá thì tự dằn. */
+    public boolean hit(XiDachTable table, int seat) {
+        if (table.settled || table.isStanding(seat)) return false;
+        draw(table, seat);
+        int hand = table.hands[seat];
+        if (XiDachHand.cards(hand) == XiDachHand.MAX_CARDS
+            || XiDachHand.category(XiDachHand.playerScore(hand)) == XiDachHand.BUST) {
+            table.standing |= 1 << seat;
+        }
+        return true;
+    }
+
+    public void stand(XiDachTable table, int seat) {
+        table.standing |= 1 << seat;
+    }
+
+    /** Khi mọi nhà con đã dằn: nhà cái rút đến khi đủ tuổi rồi tính tiền. */
+    public void finishRound(XiDachTable table) {
+        if (table.settled) return;
+        while (XiDachHand.dealerMustHit(table.dealerHand)) drawDealer(table);
+        settle(table);
+    }
+
+    /**
+     * Tính tiền cả bàn: một lượt qua các mảng song song, mỗi ghế là một lần tra bảng
+     * {@link XiDachHand#payoff}, không rẽ nhánh theo luật. Nhà cái nhận phần ngược lại.
+     */
+    void settle(XiDachTable table) {
+        int dealer = XiDachHand.dealerScore(table.dealerHand);
+        int[] hands = table.hands;
+        long[] bets = table.bets;
+        long[] deltas = table.deltas;
+        long dealerDelta = 0L;
+        for (int i = 0; i < hands.length; i++) {
+            long delta = bets[i] * XiDachHand.payoff(dealer, XiDachHand.playerScore(hands[i]));
+            deltas[i] = delta;
+            dealerDelta -= delta;
+        }
+        table.dealerDelta = dealerDelta;
+        table.standing = (1 << hands.length) - 1;
+        table.settled = true;
+    }
+
+    private static void draw(XiDachTable table, int seat) {
+        int code = table.deck[table.deckPos++];
+        table.hands[seat] = XiDachHand.add(table.hands[seat], code);
+        table.masks[seat] |= 1L << code;
+    }
+
+    private static void drawDealer(XiDachTable table) {
+        int code = table.deck[table.deckPos++];
+        table.dealerHand = XiDachHand.add(table.dealerHand, code);
+        table.dealerMask |= 1L << code;
+    }
+}
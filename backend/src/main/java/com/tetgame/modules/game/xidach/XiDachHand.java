@@ -0,0 +1,138 @@
+package com.tetgame.modules.game.xidach;
+
+import com.tetgame.modules.game.tienlen.CardMask;
+import com.tetgame.modules.game.tienlen.CardRank;
+
+/**
+ * Tay bài Xì Dách nén trong một int (mã lá giống Tiến Lên, xem {@code Card#code()}):
+ * <pre>
+ *   bit 0-2  số lá (0..5)
+ *   bit 3-5  số lá Xì (A)
+ *   bit 6-10 tổng điểm các lá không phải Xì, chặn ở 31 (đã quắc)
+ * </pre>
+ * Mọi giá trị (điểm, loại tay, điểm so sánh của nhà cái và nhà con) tra từ bảng 2048 ô dựng sẵn,
+ * nên cộng lá chỉ là vài phép bit, tính điểm là một lần tra bảng, không cấp phát.
+ * <p>
+ * Luật: 2 lá thì Xì tính 1 hoặc 11, 3 lá tính 1 hoặc 10, từ 4 lá chỉ tính 1. Nhà con cần 16 điểm,
+ * nhà cái cần 15 ("đủ tuổi"). Xì Bàng (2 Xì) > Xì Dách (Xì + 10/J/Q/K) > Ngũ Linh (5 lá <= 21)
+ * > điểm thường; quắc (> 21) hoặc non thì thua người đủ tuổi, hai bên cùng hỏng thì hòa.
+ */
+public final class XiDachHand {
+    public static final int EMPTY = 0;
+    public static final int MAX_CARDS = 5;
+    public static final int PLAYER_MIN = 16;
+    public static final int DEALER_MIN = 15;
+
+    // Loại tay, tăng dần theo độ mạnh
+    public static final int BUST = 0;       // quắc
+    public static final int NON = 1;        // chưa đủ tuổi
+    public static final int NORMAL = 2;
+    public static final int NGU_LINH = 3;
+    public static final int XI_DACH = 4;
+    public static final int XI_BANG = 5;
+
+    static final int STATES = 1 << 11;
+    // Điểm so sánh = loại * 32 + tổng điểm (quắc/non quy về 0 để hòa nhau)
+    static final int SCORES = 6 * 32;
+
+    private static final int HARD_CAP = 31;
+    private static final byte[] POINTS = new byte[CardMask.DECK_SIZE];   // 0 = Xì
+    private static final byte[] TOTAL = new byte[STATES];
+    private static final short[] PLAYER_SCORE = new short[STATES];
+    private static final short[] DEALER_SCORE = new short[STATES];
+    // Tiền nhà con ăn (dương) / thua (âm) theo hệ số, chỉ số = điểm cái * SCORES + điểm con
+    private static final byte[] PAYOFF = new byte[SCORES * SCORES];
+
+    static {
+        for (int code = 0; code < CardMask.DECK_SIZE; code++) {
+            CardRank rank = CardRank.values()[code / CardMask.SUITS];
+            POINTS[code] = (byte) (rank == CardRank.ACE ? 0 : rank == CardRank.TWO ? 2 : Math.min(10, rank.getValue()));
+        }
+        for (int state = 0; state < STATES; state++) {
+            int total = computeTotal(cards(state), aces(state), hard(state));
+            TOTAL[state] = (byte) Math.min(total, 127);
+            PLAYER_SCORE[state] = (short) computeScore(state, total, PLAYER_MIN);
+            DEALER_SCORE[state] = (short) computeScore(state, total, DEALER_MIN);
+        }
+        for (int dealer = 0; dealer < SCORES; dealer++) {
+            for (int player = 0; player < SCORES; player++) {
+                PAYOFF[dealer * SCORES + player] = (byte) computePayoff(dealer, player);
+            }
+        }
+    }
+
+    private XiDachHand() {}
+
+    /** Thêm một lá (mã 0..51) vào tay. Gọi khi tay chưa đủ {@link #MAX_CARDS} lá. */
+    public static int add(int hand, int code) {
+        int p = POINTS[code];
+        int aces = p == 0 ? 1 : 0;
+        int hard = Math.min(HARD_CAP, hard(hand) + p);
+        return (hand & 0x3F) + 1 + (aces << 3) | hard << 6;
+    }
+
+    public static int cards(int hand) { return hand & 7; }
+    public static int aces(int hand) { return (hand >>> 3) & 7; }
+    static int hard(int hand) { return hand >>> 6; }
+
+    public static int total(int hand) { return TOTAL[hand]; }
+    public static int playerScore(int hand) { return PLAYER_SCORE[hand]; }
+    public static int dealerScore(int hand) { return DEALER_SCORE[hand]; }
+    public static int category(int score) { return score >>> 5; }
+
+    /** Xì Bàng / Xì Dách ngay từ 2 lá đầu: lật bài luôn, không rút thêm. */
+    public static boolean isNatural(int hand) {
+        return category(PLAYER_SCORE[hand]) >= XI_DACH;
+    }
+
+    /** Nhà cái bắt buộc rút khi chưa đủ tuổi và chưa đủ 5 lá. */
+    public static boolean dealerMustHit(int hand) {
+        return cards(hand) < MAX_CARDS && category(DEALER_SCORE[hand]) == NON;
+    }
+
+    /** Hệ số nhà con ăn (dương) hoặc thua (âm) khi so với nhà cái; 0 = hòa. */
+    public static int payoff(int dealerScore, int playerScore) {
+        return PAYOFF[dealerScore * SCORES + playerScore];
+    }
+
+    /** Hệ số ăn/thua của loại tay thắng. */
+    static int multiplier(int category) {
+        return switch (category) {
+            case XI_BANG -> 3;
+            case XI_DACH, NGU_LINH -> 2;
+            default -> 1;
+        };
+    }
+
+    private static int computePayoff(int dealer, int player) {
+        // quắc và non cùng là "hỏng": hỏng gặp hỏng thì hòa
+        int d = category(dealer) >= NORMAL ? dealer : 0;
+        int p = category(player) >= NORMAL ? player : 0;
+        if (p > d) return multiplier(category(p));
+        if (p < d) return -multiplier(category(d));
+        return 0;
+    }
+
+    private static int computeTotal(int cards, int aces, int hard) {
+        int total = hard + aces;
+        if (cards <= 2) {
+            if (aces > 0 && total + 10 <= 21) total += 10;
+        } else if (cards == 3) {
+            for (int a = 0; a < aces && total + 9 <= 21; a++) total += 9;
+        }
+        return total;
+    }
+
+    private static int computeScore(int state, int total, int min) {
+        int cards = cards(state);
+        int aces = aces(state);
+        int category;
+        if (cards == 2 && aces == 2) category = XI_BANG;
+        else if (cards == 2 && aces == 1 && hard(state) == 10) category = XI_DACH;
+        else if (total > 21) category = BUST;
+        else if (cards == MAX_CARDS) category = NGU_LINH;
+        else if (total < min) category = NON;
+        else category = NORMAL;
+        return category << 5 | (category >= NORMAL ? total : 0);
+    }
+}
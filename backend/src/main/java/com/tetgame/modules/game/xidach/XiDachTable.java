@@ -0,0 +1,73 @@
+package com.tetgame.modules.game.xidach;
+
+import com.tetgame.modules.game.tienlen.CardMask;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Trạng thái một bàn Xì Dách. Mảng được cấp một lần khi mở bàn và dùng lại cho mọi ván,
+ * nên chia/rút/tính tiền trong {@link XiDachEngine} không cấp phát.
+ * Ghế i là nhà con thứ i; nhà cái giữ riêng.
+ */
+public class XiDachTable {
+    // 1 nhà cái + 9 nhà con, mỗi người tối đa 5 lá: 50 <= 52 lá nên không bao giờ hết bài
+    public static final int MAX_PLAYERS = 9;
+
+    private final UUID roomId;
+    private final UUID[] seats;
+    final int[] hands;           // XiDachHand đã nén
+    final long[] masks;          // bitboard lá trên tay, để hiển thị
+    final long[] bets;
+    final long[] deltas;         // tiền thắng/thua của ván vừa tính
+    int standing;                // bit i bật = ghế i đã dằn (không rút nữa)
+    int dealerHand;
+    long dealerMask;
+    long dealerDelta;
+
+    final byte[] deck = new byte[CardMask.DECK_SIZE];
+    int deckPos;
+    long seed;
+    int round;
+    boolean settled;
+
+    public XiDachTable(UUID roomId, List<UUID> players) {
+        if (players.isEmpty() || players.size() > MAX_PLAYERS) {
+            throw new IllegalArgumentException("Xi Dach needs 1-" + MAX_PLAYERS + " players");
+        }
+        this.roomId = roomId;
+        this.seats = players.toArray(new UUID[0]);
+        this.hands = new int[seats.length];
+        this.masks = new long[seats.length];
+        this.bets = new long[seats.length];
+        this.deltas = new long[seats.length];
+    }
+
+    public UUID getRoomId() { return roomId; }
+    public int getSeatCount() { return seats.length; }
+    public UUID getPlayer(int seat) { return seats[seat]; }
+
+    /** Ghế của người chơi, -1 nếu không có trong bàn. */
+    public int seatOf(UUID playerId) {
+        for (int i = 0; i < seats.length; i++) {
+            if (seats[i].equals(playerId)) return i;
+        }
+        return -1;
+    }
+
+    public int getHand(int seat) { return hands[seat]; }
+    public long getHandMask(int seat) { return masks[seat]; }
+    public long getBet(int seat) { return bets[seat]; }
+    public void setBet(int seat, long amount) { bets[seat] = amount; }
+    public long getDelta(int seat) { return deltas[seat]; }
+    public boolean isStanding(int seat) { return (standing & (1 << seat)) != 0; }
+    public boolean allStanding() { return standing == (1 << seats.length) - 1; }
+
+    public int getDealerHand() { return dealerHand; }
+    public long getDealerMask() { return dealerMask; }
+    public long getDealerDelta() { return dealerDelta; }
+
+    public long getSeed() { return seed; }
+    public int getRound() { return round; }
+    public boolean isSettled() { return settled; }
+}
@@ -11,4 +11,10 @@ public interface RoomStateService {
     boolean areAllPlayersReady(UUID roomId);
     RoomResponse startRoom(UUID roomId);
     GameState getGameState(UUID roomId);
+    /**
+     * Ghi snapshot nếu trong Redis vẫn là đúng revision đã đọc (so sánh-và-ghi, an toàn giữa các node).
+     * False nếu node khác đã ghi trước: state trong tay đã cũ, không được phát đi.
+     * State revision 0 (ván mới) ghi đè vô điều kiện.
+     */
+    boolean saveGameState(GameState state);
 }
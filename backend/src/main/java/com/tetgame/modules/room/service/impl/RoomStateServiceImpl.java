@@ -6,21 +6,27 @@ import com.tetgame.modules.room.entity.Room;
 import com.tetgame.modules.room.entity.RoomSeat;
 import com.tetgame.modules.room.entity.RoomStatus;
 import com.tetgame.modules.game.tienlen.Card;
-import com.tetgame.modules.game.tienlen.HandValidator;
 import com.tetgame.modules.game.tienlen.SettlementEngine;
 import com.tetgame.modules.game.tienlen.GameState;
+import com.tetgame.modules.game.tienlen.GameStateCodec;
 import com.tetgame.modules.room.repository.RoomRepository;
 import com.tetgame.modules.room.exception.RoomStateException;
 import com.tetgame.modules.room.repository.RoomSeatRepository;
 import com.tetgame.modules.room.service.RoomStateService;
 import com.tetgame.websocket.RedisPublisher;
 import com.tetgame.modules.game.tienlen.GameEngine;
+import com.tetgame.modules.game.tienlen.TurnManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
@@ -32,29 +38,55 @@ import java.util.HashMap;
 @Transactional
 public class RoomStateServiceImpl implements RoomStateService {
 
+    private static final Duration GAME_STATE_TTL = Duration.ofHours(2);
+    /*
+     * So sánh-và-ghi snapshot: revision nằm ở byte 2..5 (int big-endian, GameStateCodec v2; v1 coi là 0).
+     * ARGV: snapshot mới, revision đã đọc, TTL ms. Revision đã đọc = 0 là ván mới: ghi đè vô điều kiện.
+     */
+    private static final RedisScript<Long> SAVE_GAME_STATE = new DefaultRedisScript<>("""
+        local expected = tonumber(ARGV[2])
+        if expected > 0 then
+          local cur = redis.call('GET', KEYS[1])
+          if not cur then return 0 end
+          local rev = 0
+          if string.byte(cur, 1) >= 2 then
+            for i = 2, 5 do rev = rev * 256 + string.byte(cur, i) end
+          end
+          if rev ~= expected then return 0 end
+        end
+        redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[3])
+        return 1
+        """, Long.class);
+
     private final RoomRepository roomRepository;
     private final RoomSeatRepository roomSeatRepository;
     private final RedisPublisher redisPublisher;
     private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisTemplate<String, GameState> gameStateRedisTemplate;
     private final ObjectMapper objectMapper;
     private final GameEngine gameEngine;
     private final com.tetgame.modules.user.service.WalletService walletService;
+    private final TurnManager turnManager;
 
     @Autowired
     public RoomStateServiceImpl(RoomRepository roomRepository,
                                 RoomSeatRepository roomSeatRepository,
                                 RedisPublisher redisPublisher,
                                 RedisTemplate<String, Object> redisTemplate,
+                                @Qualifier("gameStateRedisTemplate") RedisTemplate<String, GameState> gameStateRedisTemplate,
                                 ObjectMapper objectMapper,
                                 @Lazy GameEngine gameEngine,
-                                com.tetgame.modules.user.service.WalletService walletService) {
+                                com.tetgame.modules.user.service.WalletService walletService,
+                                TurnManager turnManager) {
         this.roomRepository = roomRepository;
         this.roomSeatRepository = roomSeatRepository;
         this.redisPublisher = redisPublisher;
         this.redisTemplate = redisTemplate;
+        this.gameStateRedisTemplate = gameStateRedisTemplate;
         this.objectMapper = objectMapper;
         this.gameEngine = gameEngine;
         this.walletService = walletService;
+        this.turnManager = turnManager;
     }
 
     @Override
@@ -157,9 +189,7 @@ public class RoomStateServiceImpl implements RoomStateService {
             var gameState = gameEngine.startTienLenGame(room.getId(), players);
             
             // Save GameState to Redis for retrieval during game
-            String gameStateKey = "game:" + room.getId() + ":state";
-            redisTemplate.opsForValue().set(gameStateKey, gameState);
-            redisTemplate.expire(gameStateKey, Duration.ofHours(2));
+            saveGameState(gameState);
 
             // Chuẩn bị payload: ánh xạ playerId -> danh sách lá (string)
             var handsMap = new HashMap<String, List<String>>();
@@ -179,9 +209,9 @@ public class RoomStateServiceImpl implements RoomStateService {
             redisTemplate.expire(key, Duration.ofHours(24));
 
             // Nếu có người tới trắng (instant win), publish game.ended thay vì normal started
-            var winners = gameState.getHands().entrySet().stream()
-                .filter(e -> HandValidator.laToiTrang(e.getValue()))
-                .map(e -> e.getKey())
+            var winners = java.util.stream.IntStream.range(0, gameState.getSeatCount())
+                .filter(seat -> gameState.getAnalysis(seat) != null && gameState.getAnalysis(seat).isToiTrang())
+                .mapToObj(gameState::getPlayer)
                 .toList();
 
             if (!winners.isEmpty()) {
@@ -211,6 +241,7 @@ public class RoomStateServiceImpl implements RoomStateService {
             }
 
             // Normal start
+            turnManager.scheduleTurn(gameState);
             redisPublisher.publishGameStarted(room.getId().toString(), json);
             redisPublisher.publishRoomUpdate(room.getId().toString(), json);
             return objectMapper.readValue(json, RoomResponse.class);
@@ -221,11 +252,27 @@ public class RoomStateServiceImpl implements RoomStateService {
 
     @Override
     public GameState getGameState(UUID roomId) {
-        String gameStateKey = "game:" + roomId + ":state";
-        Object obj = redisTemplate.opsForValue().get(gameStateKey);
-        if (obj instanceof GameState) {
-            return (GameState) obj;
-        }
-        return null;
+        // GameStateRedisSerializer giải mã snapshot nhị phân, null nếu ván không tồn tại
+        return gameStateRedisTemplate.opsForValue().get(gameStateKey(roomId));
+    }
+
+    @Override
+    public boolean saveGameState(GameState state) {
+        int expected = state.getRevision();
+        state.setRevision(expected + 1);
+        Long written = gameStateRedisTemplate.execute(SAVE_GAME_STATE, RedisSerializer.byteArray(), null,
+            List.of(gameStateKey(state.getRoomId())), GameStateCodec.encode(state), ascii(expected),
+            ascii(GAME_STATE_TTL.toMillis()));
+        if (written != null && written == 1L) return true;
+        state.setRevision(expected);
+        return false;
+    }
+
+    private static byte[] ascii(long value) {
+        return Long.toString(value).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static String gameStateKey(UUID roomId) {
+        return "game:" + roomId + ":state";
     }
 }
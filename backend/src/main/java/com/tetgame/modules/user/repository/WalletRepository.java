@@ -2,12 +2,28 @@ package com.tetgame.modules.user.repository;
 
 import com.tetgame.modules.user.entity.Wallet;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface WalletRepository extends JpaRepository<Wallet, UUID> {
     Optional<Wallet> findByUserId(UUID userId);
+
+    /** Trừ tiền có điều kiện trong một câu UPDATE: 0 dòng nếu thiếu ví hoặc không đủ số dư. */
+    @Modifying
+    @Query("update Wallet w set w.balance = w.balance - :amount, w.updatedAt = :now "
+        + "where w.user.id = :userId and w.balance >= :amount")
+    int debit(@Param("userId") UUID userId, @Param("amount") long amount, @Param("now") OffsetDateTime now);
+
+    /** Cộng/trừ tương đối trong một câu UPDATE (không đọc-sửa-ghi): 0 dòng nếu thiếu ví hoặc số dư sẽ âm. */
+    @Modifying
+    @Query("update Wallet w set w.balance = w.balance + :delta, w.updatedAt = :now "
+        + "where w.user.id = :userId and w.balance + :delta >= 0")
+    int adjust(@Param("userId") UUID userId, @Param("delta") long delta, @Param("now") OffsetDateTime now);
 }
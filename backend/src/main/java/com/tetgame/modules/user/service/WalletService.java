@@ -1,9 +1,13 @@
 package com.tetgame.modules.user.service;
 
+import java.util.Map;
 import java.util.UUID;
 
 public interface WalletService {
     long getBalance(UUID userId);
     void add(UUID userId, long amount);
+    /** Trừ tiền nguyên tử: thiếu ví hoặc không đủ số dư thì ném lỗi và ví không đổi. */
     void subtract(UUID userId, long amount) throws IllegalArgumentException;
+    /** Cộng/trừ nhiều ví trong một giao dịch: thiếu ví hoặc không đủ số dư thì không ví nào bị đổi. */
+    void applyDeltas(Map<UUID, Long> deltas) throws IllegalArgumentException;
 }
@@ -7,6 +7,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.TreeSet;
 import java.util.UUID;
 
 @Service
@@ -26,19 +28,32 @@ public class WalletServiceImpl implements WalletService {
     @Override
     @Transactional
     public void add(UUID userId, long amount) {
-        Wallet w = walletRepository.findByUserId(userId).orElseThrow(() -> new IllegalArgumentException("Wallet not found"));
-        w.setBalance(w.getBalance() + amount);
-        w.setUpdatedAt(OffsetDateTime.now());
-        walletRepository.save(w);
+        // cộng tương đối trong câu UPDATE: không ghi đè lệnh trừ chen vào giữa lúc đọc và lúc ghi
+        if (walletRepository.adjust(userId, amount, OffsetDateTime.now()) == 1) return;
+        if (walletRepository.findByUserId(userId).isEmpty()) throw new IllegalArgumentException("Wallet not found");
+        throw new IllegalArgumentException("Insufficient balance");
     }
 
     @Override
     @Transactional
     public void subtract(UUID userId, long amount) throws IllegalArgumentException {
-        Wallet w = walletRepository.findByUserId(userId).orElseThrow(() -> new IllegalArgumentException("Wallet not found"));
-        if (w.getBalance() - amount < 0) throw new IllegalArgumentException("Insufficient balance");
-        w.setBalance(w.getBalance() - amount);
-        w.setUpdatedAt(OffsetDateTime.now());
-        walletRepository.save(w);
+        // kiểm tra số dư và trừ trong cùng một câu UPDATE: hai lệnh trừ đồng thời không thể cùng lọt
+        if (walletRepository.debit(userId, amount, OffsetDateTime.now()) == 1) return;
+        if (walletRepository.findByUserId(userId).isEmpty()) throw new IllegalArgumentException("Wallet not found");
+        throw new IllegalArgumentException("Insufficient balance");
+    }
+
+    @Override
+    @Transactional
+    public void applyDeltas(Map<UUID, Long> deltas) throws IllegalArgumentException {
+        if (deltas.isEmpty()) return;
+        // Mỗi ví một câu UPDATE tương đối; lỗi ở ví nào thì ném ra và cả giao dịch rollback.
+        // Đi theo thứ tự userId để hai lô chồng nhau khóa dòng cùng thứ tự, không deadlock
+        OffsetDateTime now = OffsetDateTime.now();
+        for (UUID userId : new TreeSet<>(deltas.keySet())) {
+            if (walletRepository.adjust(userId, deltas.get(userId), now) == 1) continue;
+            if (walletRepository.findByUserId(userId).isEmpty()) throw new IllegalArgumentException("Wallet not found");
+            throw new IllegalArgumentException("Insufficient balance");
+        }
     }
 }
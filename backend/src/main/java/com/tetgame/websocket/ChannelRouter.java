@@ -0,0 +1,148 @@
+package com.tetgame.websocket;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bảng định tuyến kênh Redis → destination STOMP, dựng một lần từ {@link #SCHEMA}.
+ * <p>
+ * Kênh có dạng {@code ns:event} hoặc {@code ns:{id}:event}. Router đọc thẳng trên byte của tên
+ * kênh: tìm dấu ':' đầu và cuối, băm (ns, event) vào bảng địa chỉ mở rồi so byte để xác nhận,
+ * roomId là đoạn byte ở giữa. Không giải mã tên kênh thành String, không chuỗi startsWith/endsWith;
+ * chỉ cấp phát đúng chuỗi destination (kênh toàn cục thì dùng chuỗi dựng sẵn).
+ */
+public final class ChannelRouter {
+
+    /** Lược đồ kênh: tên kênh Redis (có {id} nếu theo phòng) → destination STOMP. */
+    public static final List<String[]> SCHEMA = List.of(
+        new String[]{"lobby:updates", "/topic/lobby/updates"},
+        new String[]{"presence:updates", "/topic/presence/updates"},
+        new String[]{"room:{id}:updates", "/topic/room/{id}/updates"},
+        new String[]{"room:{id}:seats", "/topic/room/{id}/seats"},
+        new String[]{"room:{id}:player-list", "/topic/room/{id}/player-list"},
+        new String[]{"game:{id}:updates", "/topic/game/{id}/updates"},
+        new String[]{"game:{id}:state", "/topic/game/{id}/state"},
+        new String[]{"game:{id}:chat", "/topic/game/{id}/chat"},
+        new String[]{"game:{id}:next-turn", "/topic/game/{id}/next-turn"},
+        new String[]{"game:{id}:pile-cleared", "/topic/game/{id}/pile-cleared"},
+        new String[]{"game:{id}:auto-finish", "/topic/game/{id}/auto-finish"},
+        new String[]{"game:{id}:started", "/topic/game/{id}/started"},
+        new String[]{"game:{id}:ended", "/topic/game/{id}/ended"},
+        new String[]{"chat:{id}:messages", "/topic/chat/{id}/messages"},
+        new String[]{"loto:{id}:started", "/topic/loto/{id}/started"},
+        new String[]{"loto:{id}:draw", "/topic/loto/{id}/draw"}
+    );
+
+    private static final String ID = "{id}";
+    private static final ChannelRouter DEFAULT = compile(SCHEMA);
+
+    private record Route(byte[] namespace, byte[] event, boolean perRoom,
+                         byte[] destPrefix, byte[] destSuffix, String fixedDestination) {}
+
+    private final Route[] table;
+    private final int mask;
+
+    private ChannelRouter(Route[] table) {
+        this.table = table;
+        this.mask = table.length - 1;
+    }
+
+    public static ChannelRouter standard() {
+        return DEFAULT;
+    }
+
+    public static ChannelRouter compile(List<String[]> schema) {
+        int size = Integer.highestOneBit(Math.max(schema.size(), 1) * 4 - 1) << 1;
+        Route[] table = new Route[size];
+        for (String[] entry : schema) {
+            String channel = entry[0], destination = entry[1];
+            int first = channel.indexOf(':'), last = channel.lastIndexOf(':');
+            if (first <= 0 || last == channel.length() - 1) {
+                throw new IllegalArgumentException("Bad channel pattern: " + channel);
+            }
+            boolean perRoom = first != last;
+            if (perRoom && !channel.substring(first + 1, last).equals(ID)) {
+                throw new IllegalArgumentException("Bad channel pattern: " + channel);
+            }
+            byte[] ns = ascii(channel.substring(0, first));
+            byte[] event = ascii(channel.substring(last + 1));
+            int at = destination.indexOf(ID);
+            if (perRoom != (at >= 0)) throw new IllegalArgumentException("Bad destination: " + destination);
+            Route route = perRoom
+                ? new Route(ns, event, true, ascii(destination.substring(0, at)),
+                            ascii(destination.substring(at + ID.length())), null)
+                : new Route(ns, event, false, null, null, destination);
+            int slot = hash(ns, 0, ns.length, event, 0, event.length) & (size - 1);
+            while (table[slot] != null) {
+                Route other = table[slot];
+                if (other.perRoom == perRoom && Arrays.equals(other.namespace, ns)
+                    && Arrays.equals(other.event, event)) {
+                    throw new IllegalArgumentException("Duplicate channel pattern: " + channel);
+                }
+                slot = (slot + 1) & (size - 1);
+            }
+            table[slot] = route;
+        }
+        return new ChannelRouter(table);
+    }
+
+    /** Destination STOMP của kênh; null nếu kênh không thuộc lược đồ. */
+    public String destination(byte[] channel) {
+        int n = channel.length, first = -1, last = -1;
+        for (int i = 0; i < n; i++) {
+            if (channel[i] == ':') {
+                if (first < 0) first = i;
+                last = i;
+            }
+        }
+        if (first <= 0 || last == n - 1) return null;
+        boolean perRoom = first != last;
+        int evStart = last + 1;
+        int slot = hash(channel, 0, first, channel, evStart, n) & mask;
+        for (Route r; (r = table[slot]) != null; slot = (slot + 1) & mask) {
+            if (r.perRoom != perRoom || !matches(r.namespace, channel, 0, first) || !matches(r.event, channel, evStart, n)) {
+                continue;
+            }
+            if (!perRoom) return r.fixedDestination;
+            int idStart = first + 1, idLen = last - idStart;
+            if (idLen == 0) return null;
+            byte[] out = new byte[r.destPrefix.length + idLen + r.destSuffix.length];
+            System.arraycopy(r.destPrefix, 0, out, 0, r.destPrefix.length);
+            System.arraycopy(channel, idStart, out, r.destPrefix.length, idLen);
+            System.arraycopy(r.destSuffix, 0, out, r.destPrefix.length + idLen, r.destSuffix.length);
+            return new String(out, StandardCharsets.UTF_8);
+        }
+        return null;
+    }
+
+    /** Tên kênh Redis theo phòng trong lược đồ, cho SUBSCRIBE/UNSUBSCRIBE theo nhu cầu. */
+    public static List<String> roomChannels(String roomId) {
+        List<String> channels = new ArrayList<>();
+        for (String[] entry : SCHEMA) {
+            if (entry[0].contains(ID)) channels.add(entry[0].replace(ID, roomId));
+        }
+        return channels;
+    }
+
+    private static boolean matches(byte[] expected, byte[] b, int from, int to) {
+        if (to - from != expected.length) return false;
+        for (int i = 0; i < expected.length; i++) {
+            if (expected[i] != b[from + i]) return false;
+        }
+        return true;
+    }
+
+    private static int hash(byte[] a, int aFrom, int aTo, byte[] b, int bFrom, int bTo) {
+        int h = 0;
+        for (int i = aFrom; i < aTo; i++) h = 31 * h + a[i];
+        h = 31 * h + ':';
+        for (int i = bFrom; i < bTo; i++) h = 31 * h + b[i];
+        return h ^ (h >>> 16);
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,59 @@
+package com.tetgame.websocket;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * Phong bì của tin pub/sub giữa các node: header cố định {@value #HEADER_LENGTH} byte rồi tới payload.
+ * <pre>
+ *   0x01 | node id (8 ký tự hex) | '\n' | payload
+ * </pre>
+ * Node id cho phép node nhận bỏ tiếng vọng của chính mình (node gửi đã giao tin cho session cục bộ).
+ * Phong bì không mang số thứ tự: thứ tự / phát hiện mất tin của trạng thái ván nằm trong body
+ * ({@code seq}/{@code fromSeq} của delta, xem GameStateDelta).
+ * Tin không có phong bì (node bản cũ khi đang rolling deploy) được coi là của node khác.
+ */
+public final class Envelope {
+    public static final int HEADER_LENGTH = 10;
+    private static final byte MARK = 0x01;
+    private static final int NODE_LENGTH = 8;
+
+    /** Id của node này, sinh một lần khi khởi động. */
+    public static final String LOCAL_NODE = "%08x".formatted(new SecureRandom().nextInt());
+
+    private Envelope() {}
+
+    public static byte[] wrap(String nodeId, byte[] payload) {
+        byte[] out = new byte[HEADER_LENGTH + payload.length];
+        out[0] = MARK;
+        byte[] node = nodeBytes(nodeId);
+        System.arraycopy(node, 0, out, 1, NODE_LENGTH);
+        out[HEADER_LENGTH - 1] = '\n';
+        System.arraycopy(payload, 0, out, HEADER_LENGTH, payload.length);
+        return out;
+    }
+
+    public static boolean isWrapped(byte[] body) {
+        return body.length >= HEADER_LENGTH && body[0] == MARK && body[HEADER_LENGTH - 1] == '\n';
+    }
+
+    /** Tin do node có id này gửi (so byte, không giải mã). */
+    public static boolean isFrom(byte[] body, byte[] nodeId) {
+        if (!isWrapped(body)) return false;
+        for (int i = 0; i < NODE_LENGTH; i++) {
+            if (body[1 + i] != nodeId[i]) return false;
+        }
+        return true;
+    }
+
+    public static byte[] payload(byte[] body) {
+        return isWrapped(body) ? Arrays.copyOfRange(body, HEADER_LENGTH, body.length) : body;
+    }
+
+    public static byte[] nodeBytes(String nodeId) {
+        byte[] node = nodeId.getBytes(StandardCharsets.US_ASCII);
+        if (node.length != NODE_LENGTH) throw new IllegalArgumentException("Node id must be 8 characters");
+        return node;
+    }
+}
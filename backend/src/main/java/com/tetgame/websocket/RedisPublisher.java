@@ -1,50 +1,103 @@
 package com.tetgame.websocket;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Service;
+import org.springframework.util.MimeType;
 
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Điểm phát tin duy nhất cho cả cụm: mỗi tin được mã hóa một lần, giao thẳng cho session cục bộ
+ * rồi publish lên Redis trong {@link Envelope} mang node id. {@link RedisSubscriber} bỏ tiếng
+ * vọng của chính node này, nên mỗi client nhận mỗi sự kiện đúng một lần; nơi gọi không gửi local nữa.
+ */
 @Service
 public class RedisPublisher {
 
+    static final MimeType PAYLOAD_TYPE = new MimeType("text", "plain", StandardCharsets.UTF_8);
+
     private final RedisTemplate<String, Object> redisTemplate;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final String nodeId;
+    private final ChannelRouter router = ChannelRouter.standard();
+
+    @Autowired
+    public RedisPublisher(RedisTemplate<String, Object> redisTemplate, SimpMessagingTemplate messagingTemplate) {
+        this(redisTemplate, messagingTemplate, Envelope.LOCAL_NODE);
+    }
 
-    public RedisPublisher(RedisTemplate<String, Object> redisTemplate) {
+    RedisPublisher(RedisTemplate<String, Object> redisTemplate, SimpMessagingTemplate messagingTemplate, String nodeId) {
         this.redisTemplate = redisTemplate;
+        this.messagingTemplate = messagingTemplate;
+        this.nodeId = nodeId;
+        Envelope.nodeBytes(nodeId);
     }
 
     public void publishLobbyUpdate(String message) {
-        redisTemplate.convertAndSend("lobby:updates", message);
+        publish("lobby:updates", message);
     }
 
     public void publishRoomUpdate(String roomId, String message) {
-        redisTemplate.convertAndSend("room:" + roomId + ":updates", message);
+        publish("room:" + roomId + ":updates", message);
     }
 
     public void publishGameUpdate(String roomId, String message) {
-        redisTemplate.convertAndSend("game:" + roomId + ":updates", message);
+        publish("game:" + roomId + ":updates", message);
     }
 
     public void publishGameStarted(String roomId, String message) {
-        redisTemplate.convertAndSend("game:" + roomId + ":started", message);
+        publish("game:" + roomId + ":started", message);
     }
 
     public void publishGameEnded(String roomId, String message) {
-        redisTemplate.convertAndSend("game:" + roomId + ":ended", message);
+        publish("game:" + roomId + ":ended", message);
     }
 
     public void publishChatMessage(String roomId, String message) {
-        redisTemplate.convertAndSend("chat:" + roomId + ":messages", message);
+        publish("chat:" + roomId + ":messages", message);
     }
 
     public void publishRoomSeats(String roomId, String message) {
-        redisTemplate.convertAndSend("room:" + roomId + ":seats", message);
+        publish("room:" + roomId + ":seats", message);
     }
 
     public void publishRoomPlayerList(String roomId, String message) {
-        redisTemplate.convertAndSend("room:" + roomId + ":player-list", message);
+        publish("room:" + roomId + ":player-list", message);
     }
 
     public void publishUserPresence(String username, String action) {
-        redisTemplate.convertAndSend("presence:updates", username + ":" + action);
+        publish("presence:updates", username + ":" + action);
+    }
+
+    public String getNodeId() { return nodeId; }
+
+    private void publish(String channel, String message) {
+        publish(channel, message.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Phát payload đã mã hóa sẵn (JSON UTF-8) lên một kênh trong {@link ChannelRouter#SCHEMA}.
+     * Cùng một mảng byte được giao cho broker cục bộ và gói vào phong bì Redis, không mã hóa lại.
+     */
+    public void publish(String channel, byte[] payload) {
+        byte[] channelBytes = channel.getBytes(StandardCharsets.UTF_8);
+        String destination = router.destination(channelBytes);
+        if (destination != null) messagingTemplate.send(destination, frame(payload));
+        byte[] body = Envelope.wrap(nodeId, payload);
+        redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channelBytes, body));
+    }
+
+    /** Tin gửi broker: payload nguyên byte, không qua message converter. */
+    static org.springframework.messaging.Message<byte[]> frame(byte[] payload) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setContentType(PAYLOAD_TYPE);
+        headers.setLeaveMutable(true);
+        return MessageBuilder.createMessage(payload, headers.getMessageHeaders());
     }
 }
@@ -1,88 +1,76 @@
 package com.tetgame.websocket;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.connection.Message;
 import org.springframework.data.redis.connection.MessageListener;
-import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.ChannelTopic;
 import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.Topic;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Component
 public class RedisSubscriber implements MessageListener {
 
     private final SimpMessagingTemplate messagingTemplate;
-    private final ObjectMapper objectMapper;
 
-    public RedisSubscriber(SimpMessagingTemplate messagingTemplate, ObjectMapper objectMapper) {
+    private final ChannelRouter router = ChannelRouter.standard();
+    private final byte[] nodeId;
+    private volatile RedisMessageListenerContainer container;
+
+    @Autowired
+    public RedisSubscriber(SimpMessagingTemplate messagingTemplate) {
+        this(messagingTemplate, Envelope.LOCAL_NODE);
+    }
+
+    RedisSubscriber(SimpMessagingTemplate messagingTemplate, String nodeId) {
         this.messagingTemplate = messagingTemplate;
-        this.objectMapper = objectMapper;
+        this.nodeId = Envelope.nodeBytes(nodeId);
     }
 
     public void registerChannels(RedisMessageListenerContainer container) {
-        // Subscribe to lobby updates
-        container.addMessageListener(this, new PatternTopic("lobby:updates"));
-        
-        // Subscribe to room updates (pattern for all rooms)
-        container.addMessageListener(this, new PatternTopic("room:*:updates"));
-        // Subscribe to room seats updates
-        container.addMessageListener(this, new PatternTopic("room:*:seats"));
-        // Subscribe to room player list updates
-        container.addMessageListener(this, new PatternTopic("room:*:player-list"));
-        
-        // Subscribe to game updates
-        container.addMessageListener(this, new PatternTopic("game:*:updates"));
-        // Subscribe to new game started/ended channels
-        container.addMessageListener(this, new PatternTopic("game:*:started"));
-        container.addMessageListener(this, new PatternTopic("game:*:ended"));
-        
-        // Subscribe to chat messages
-        container.addMessageListener(this, new PatternTopic("chat:*:messages"));
-        
-        // Subscribe to presence updates
-        container.addMessageListener(this, new PatternTopic("presence:updates"));
+        this.container = container;
+        // Kênh toàn cục: mọi node đều cần
+        container.addMessageListener(this, List.of(new ChannelTopic("lobby:updates"), new ChannelTopic("presence:updates")));
+        // Kênh theo phòng đăng ký theo nhu cầu qua subscribeRoom/unsubscribeRoom (RoomInterestRegistry)
     }
 
+    /** SUBSCRIBE các kênh của phòng (gọi khi session cục bộ đầu tiên quan tâm phòng). */
+    public void subscribeRoom(String roomId) {
+        RedisMessageListenerContainer c = container;
+        if (c != null) c.addMessageListener(this, roomTopics(roomId));
+    }
+
+    /** UNSUBSCRIBE các kênh của phòng (gọi khi session cục bộ cuối cùng rời phòng). */
+    public void unsubscribeRoom(String roomId) {
+        RedisMessageListenerContainer c = container;
+        if (c != null) c.removeMessageListener(this, roomTopics(roomId));
+    }
+
+    static List<Topic> roomTopics(String roomId) {
+        List<Topic> topics = new ArrayList<>();
+        for (String channel : ChannelRouter.roomChannels(roomId)) topics.add(new ChannelTopic(channel));
+        return topics;
+    }
+
+    /**
+     * Bỏ tiếng vọng của chính node này (RedisPublisher đã giao cho session cục bộ), tra bảng
+     * {@link ChannelRouter} trên byte của tên kênh rồi chuyển payload nguyên byte cho broker,
+     * không giải mã body và không qua message converter.
+     */
     @Override
     public void onMessage(Message message, byte[] pattern) {
         try {
-            String channel = new String(message.getChannel());
-            String payload = new String(message.getBody());
-
-            if (channel.startsWith("lobby:")) {
-                messagingTemplate.convertAndSend("/topic/lobby/updates", payload);
-            } else if (channel.startsWith("room:") && channel.endsWith(":updates")) {
-                String roomId = extractRoomId(channel, "room:", ":updates");
-                messagingTemplate.convertAndSend("/topic/room/" + roomId + "/updates", payload);
-            } else if (channel.startsWith("room:") && channel.endsWith(":seats")) {
-                String roomId = extractRoomId(channel, "room:", ":seats");
-                messagingTemplate.convertAndSend("/topic/room/" + roomId + "/seats", payload);
-            } else if (channel.startsWith("room:") && channel.endsWith(":player-list")) {
-                String roomId = extractRoomId(channel, "room:", ":player-list");
-                messagingTemplate.convertAndSend("/topic/room/" + roomId + "/player-list", payload);
-            } else if (channel.startsWith("game:") && channel.endsWith(":updates")) {
-                String roomId = extractRoomId(channel, "game:", ":updates");
-                messagingTemplate.convertAndSend("/topic/game/" + roomId + "/updates", payload);
-            } else if (channel.startsWith("game:") && channel.endsWith(":started")) {
-                String roomId = extractRoomId(channel, "game:", ":started");
-                messagingTemplate.convertAndSend("/topic/game/" + roomId + "/started", payload);
-            } else if (channel.startsWith("game:") && channel.endsWith(":ended")) {
-                String roomId = extractRoomId(channel, "game:", ":ended");
-                messagingTemplate.convertAndSend("/topic/game/" + roomId + "/ended", payload);
-            } else if (channel.startsWith("chat:") && channel.endsWith(":messages")) {
-                String roomId = extractRoomId(channel, "chat:", ":messages");
-                messagingTemplate.convertAndSend("/topic/chat/" + roomId + "/messages", payload);
-            } else if (channel.startsWith("presence:")) {
-                messagingTemplate.convertAndSend("/topic/presence/updates", payload);
-            }
+            byte[] body = message.getBody();
+            if (Envelope.isFrom(body, nodeId)) return;
+            String destination = router.destination(message.getChannel());
+            if (destination == null) return;
+            messagingTemplate.send(destination, RedisPublisher.frame(Envelope.payload(body)));
         } catch (Exception ex) {
             // Log error
         }
     }
-
-    private String extractRoomId(String channel, String prefix, String suffix) {
-        int startIdx = channel.indexOf(prefix) + prefix.length();
-        int endIdx = channel.indexOf(suffix, startIdx);
-        return channel.substring(startIdx, endIdx);
-    }
 }
@@ -0,0 +1,49 @@
+package com.tetgame.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+/**
+ * Phát sự kiện cho cả phòng với chi phí serialize một lần mỗi sự kiện: payload được Jackson ghi
+ * thẳng ra byte JSON, rồi đúng mảng byte đó đi tới broker cục bộ (broker chia sẻ cùng payload cho
+ * mọi session đang subscribe destination, kể cả người xem) và tới Redis cho các node khác.
+ * Không qua message converter của SimpMessagingTemplate, không có bản String trung gian.
+ */
+@Component
+public class RoomBroadcaster {
+
+    private final ObjectMapper objectMapper;
+    private final RedisPublisher redisPublisher;
+
+    public RoomBroadcaster(ObjectMapper objectMapper, RedisPublisher redisPublisher) {
+        this.objectMapper = objectMapper;
+        this.redisPublisher = redisPublisher;
+    }
+
+    /** Phát tới /topic/game/{roomId}/{event} (event: state, next-turn, pile-cleared, ended...). */
+    public void game(String roomId, String event, Object payload) {
+        broadcast(roomId, "game", event, payload);
+    }
+
+    /** Phát tới /topic/room/{roomId}/{event}. */
+    public void room(String roomId, String event, Object payload) {
+        broadcast(roomId, "room", event, payload);
+    }
+
+    /** Phát tới /topic/loto/{roomId}/{event}. */
+    public void loto(String roomId, String event, Object payload) {
+        broadcast(roomId, "loto", event, payload);
+    }
+
+    /** Kênh {namespace}:{roomId}:{event} phải có trong {@link ChannelRouter#SCHEMA}. */
+    public void broadcast(String roomId, String namespace, String event, Object payload) {
+        byte[] bytes;
+        try {
+            bytes = objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Cannot serialize " + namespace + ":" + event + " payload", ex);
+        }
+        redisPublisher.publish(namespace + ":" + roomId + ":" + event, bytes);
+    }
+}
@@ -0,0 +1,110 @@
+package com.tetgame.websocket;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Đếm tham chiếu các subscription STOMP cục bộ vào topic của từng phòng
+ * (/topic/room|game|chat|loto/{roomId}/...). Phòng lên 1 thì SUBSCRIBE kênh Redis của phòng,
+ * về 0 thì UNSUBSCRIBE, nên lưu lượng pub/sub vào node tỉ lệ với số phòng có người trên node
+ * chứ không với tổng lưu lượng của cụm. Người xem cũng tính vì họ cũng subscribe topic phòng.
+ */
+@Component
+public class RoomInterestRegistry {
+
+    private static final String[] ROOM_PREFIXES = {"/topic/room/", "/topic/game/", "/topic/chat/", "/topic/loto/"};
+
+    private final RedisSubscriber redisSubscriber;
+    // session -> subscription id -> roomId
+    private final Map<String, Map<String, String>> bySession = new ConcurrentHashMap<>();
+    private final Map<String, Integer> refCounts = new ConcurrentHashMap<>();
+
+    public RoomInterestRegistry(RedisSubscriber redisSubscriber) {
+        this.redisSubscriber = redisSubscriber;
+    }
+
+    @EventListener
+    public void handleSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        subscribe(headers.getSessionId(), headers.getSubscriptionId(), headers.getDestination());
+    }
+
+    @EventListener
+    public void handleUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        unsubscribe(headers.getSessionId(), headers.getSubscriptionId());
+    }
+
+    @EventListener
+    public void handleDisconnect(SessionDisconnectEvent event) {
+        disconnect(event.getSessionId());
+    }
+
+    public void subscribe(String sessionId, String subscriptionId, String destination) {
+        String roomId = roomOf(destination);
+        if (sessionId == null || subscriptionId == null || roomId == null) return;
+        String previous = bySession.computeIfAbsent(sessionId, k -> new ConcurrentHashMap<>()).put(subscriptionId, roomId);
+        acquire(roomId);
+        if (previous != null) release(previous);
+    }
+
+    public void unsubscribe(String sessionId, String subscriptionId) {
+        if (sessionId == null || subscriptionId == null) return;
+        Map<String, String> subs = bySession.get(sessionId);
+        String roomId = subs != null ? subs.remove(subscriptionId) : null;
+        if (roomId != null) release(roomId);
+    }
+
+    public void disconnect(String sessionId) {
+        if (sessionId == null) return;
+        Map<String, String> subs = bySession.remove(sessionId);
+        if (subs != null) subs.values().forEach(this::release);
+    }
+
+    /** Số subscription cục bộ đang giữ phòng (0 = node không nghe kênh của phòng). */
+    public int interestCount(String roomId) {
+        return refCounts.getOrDefault(roomId, 0);
+    }
+
+    public int activeRooms() {
+        return refCounts.size();
+    }
+
+    /** roomId trong destination topic phòng, null nếu là topic toàn cục (lobby, presence...). */
+    static String roomOf(String destination) {
+        if (destination == null) return null;
+        for (String prefix : ROOM_PREFIXES) {
+            if (!destination.startsWith(prefix)) continue;
+            int end = destination.indexOf('/', prefix.length());
+            if (end <= prefix.length()) return null;
+            return destination.substring(prefix.length(), end);
+        }
+        return null;
+    }
+
+    // compute khóa theo phòng nên SUBSCRIBE/UNSUBSCRIBE của cùng phòng không chen nhau
+    private void acquire(String roomId) {
+        refCounts.compute(roomId, (k, v) -> {
+            if (v == null) {
+                redisSubscriber.subscribeRoom(k);
+                return 1;
+            }
+            return v + 1;
+        });
+    }
+
+    private void release(String roomId) {
+        refCounts.computeIfPresent(roomId, (k, v) -> {
+            if (v > 1) return v - 1;
+            redisSubscriber.unsubscribeRoom(k);
+            return null;
+        });
+    }
+}
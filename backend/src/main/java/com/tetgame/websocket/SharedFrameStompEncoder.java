@@ -0,0 +1,145 @@
+package com.tetgame.websocket;
+
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompEncoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.NativeMessageHeaderAccessor;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * StompEncoder đóng khung MESSAGE một lần cho mọi session nhận cùng một tin.
+ * <p>
+ * Broker giao cùng một mảng payload cho mọi session đang subscribe destination
+ * ({@link RoomBroadcaster}); khung STOMP của các session chỉ khác nhau ở {@code subscription} và
+ * {@code message-id}. Phần còn lại (command, header chung, content-length, payload, NUL) được mã hóa
+ * một lần theo identity của payload và giữ thành hai mảng bất biến; mỗi session chỉ còn ghép hai
+ * header riêng vào giữa. Khung khác (CONNECTED, ERROR, heartbeat...) đi đường mã hóa gốc.
+ */
+public class SharedFrameStompEncoder extends StompEncoder {
+
+    private static final int SLOTS = 64;
+    private static final String SUBSCRIPTION = "subscription";
+    private static final String MESSAGE_ID = "message-id";
+    private static final String CONTENT_LENGTH = "content-length";
+    private static final byte[] SUBSCRIPTION_KEY = (SUBSCRIPTION + ":").getBytes(StandardCharsets.UTF_8);
+    private static final byte[] MESSAGE_ID_KEY = (MESSAGE_ID + ":").getBytes(StandardCharsets.UTF_8);
+
+    /** Khung dựng sẵn: đầu (command + header chung) và đuôi (dòng trống + payload + NUL). */
+    private record Frame(byte[] payload, Map<String, List<String>> shared, byte[] head, byte[] tail) {}
+
+    private final AtomicReferenceArray<Frame> frames = new AtomicReferenceArray<>(SLOTS);
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public byte[] encode(Map<String, Object> headers, byte[] payload) {
+        Object nativeHeaders = headers.get(NativeMessageHeaderAccessor.NATIVE_HEADERS);
+        if (payload.length == 0 || !(nativeHeaders instanceof Map<?, ?>)
+            || StompHeaderAccessor.getCommand(headers) != StompCommand.MESSAGE) {
+            return super.encode(headers, payload);
+        }
+        Map<String, List<String>> values = (Map<String, List<String>>) nativeHeaders;
+        int slot = System.identityHashCode(payload) & (SLOTS - 1);
+        Frame frame = frames.get(slot);
+        if (frame == null || frame.payload != payload || !sameSharedHeaders(frame.shared, values)) {
+            frame = build(values, payload);
+            frames.set(slot, frame);
+        }
+        // chỉ subscription và message-id là riêng của session: ghi thẳng vào giữa khung
+        String subscription = first(values, SUBSCRIPTION), messageId = first(values, MESSAGE_ID);
+        byte[] sub = subscription != null ? escape(subscription).getBytes(StandardCharsets.UTF_8) : null;
+        byte[] id = messageId != null ? escape(messageId).getBytes(StandardCharsets.UTF_8) : null;
+        int size = frame.head.length + frame.tail.length
+            + (sub != null ? SUBSCRIPTION_KEY.length + sub.length + 1 : 0)
+            + (id != null ? MESSAGE_ID_KEY.length + id.length + 1 : 0);
+        byte[] out = new byte[size];
+        int pos = put(out, 0, frame.head);
+        if (sub != null) {
+            pos = put(out, put(out, pos, SUBSCRIPTION_KEY), sub);
+            out[pos++] = '\n';
+        }
+        if (id != null) {
+            pos = put(out, put(out, pos, MESSAGE_ID_KEY), id);
+            out[pos++] = '\n';
+        }
+        put(out, pos, frame.tail);
+        return out;
+    }
+
+    private static String first(Map<String, List<String>> headers, String key) {
+        List<String> values = headers.get(key);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    private static int put(byte[] out, int pos, byte[] src) {
+        System.arraycopy(src, 0, out, pos, src.length);
+        return pos + src.length;
+    }
+
+    private static Frame build(Map<String, List<String>> headers, byte[] payload) {
+        Map<String, List<String>> shared = new HashMap<>();
+        ByteArrayOutputStream head = new ByteArrayOutputStream(256);
+        head.writeBytes(StompCommand.MESSAGE.name().getBytes(StandardCharsets.UTF_8));
+        head.write('\n');
+        for (Map.Entry<String, List<String>> e : headers.entrySet()) {
+            if (!isShared(e.getKey()) || e.getValue() == null) continue;
+            shared.put(e.getKey(), List.copyOf(e.getValue()));
+            for (String value : e.getValue()) writeHeader(head, e.getKey(), value);
+        }
+        writeHeader(head, CONTENT_LENGTH, Integer.toString(payload.length));
+        byte[] tail = new byte[payload.length + 2];
+        tail[0] = '\n';
+        System.arraycopy(payload, 0, tail, 1, payload.length);
+        tail[tail.length - 1] = 0;
+        return new Frame(payload, shared, head.toByteArray(), tail);
+    }
+
+    // Header chung (mọi header trừ subscription, message-id, content-length) phải giống hệt khung đã dựng
+    private static boolean sameSharedHeaders(Map<String, List<String>> cached, Map<String, List<String>> current) {
+        int shared = 0;
+        for (Map.Entry<String, List<String>> e : current.entrySet()) {
+            if (!isShared(e.getKey()) || e.getValue() == null) continue;
+            if (!e.getValue().equals(cached.get(e.getKey()))) return false;
+            shared++;
+        }
+        return shared == cached.size();
+    }
+
+    private static boolean isShared(String key) {
+        return !SUBSCRIPTION.equals(key) && !MESSAGE_ID.equals(key) && !CONTENT_LENGTH.equals(key);
+    }
+
+    private static void writeHeader(ByteArrayOutputStream out, String key, String value) {
+        out.writeBytes(escape(key).getBytes(StandardCharsets.UTF_8));
+        out.write(':');
+        out.writeBytes(escape(value).getBytes(StandardCharsets.UTF_8));
+        out.write('\n');
+    }
+
+    // Escape header của khung MESSAGE theo STOMP 1.2
+    private static String escape(String s) {
+        StringBuilder sb = null;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            String r = switch (c) {
+                case '\\' -> "\\\\";
+                case ':' -> "\\c";
+                case '\n' -> "\\n";
+                case '\r' -> "\\r";
+                default -> null;
+            };
+            if (r == null) {
+                if (sb != null) sb.append(c);
+                continue;
+            }
+            if (sb == null) sb = new StringBuilder(s.length() + 8).append(s, 0, i);
+            sb.append(r);
+        }
+        return sb != null ? sb.toString() : s;
+    }
+}
@@ -4,6 +4,8 @@ import com.tetgame.websocket.MessagePayload;
 import com.tetgame.websocket.RedisPublisher;
 import com.tetgame.websocket.UserSessionRegistry;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
@@ -15,17 +17,24 @@ import org.springframework.context.event.EventListener;
 
 import java.util.Map;
 import java.util.UUID;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import com.tetgame.modules.room.service.RoomService;
 import com.tetgame.modules.room.service.RoomStateService;
+import com.tetgame.modules.game.RoomCommandExecutor;
 import com.tetgame.modules.game.tienlen.GameEngine;
 import com.tetgame.modules.game.tienlen.GameState;
+import com.tetgame.modules.game.tienlen.GameStateDelta;
+import com.tetgame.modules.game.tienlen.TurnManager;
+import com.tetgame.modules.game.loto.LoToEngine;
+import com.tetgame.modules.game.loto.LoToGame;
+import com.tetgame.modules.game.tienlen.EndgameSolver;
+import com.tetgame.modules.game.tienlen.bot.MonteCarloBot;
 
 @Controller
 public class WebSocketController {
+    private static final Logger log = LoggerFactory.getLogger(WebSocketController.class);
 
     private final UserSessionRegistry sessionRegistry;
     private final RedisPublisher redisPublisher;
@@ -34,11 +43,19 @@ public class WebSocketController {
     private final RoomService roomService;
     private final RoomStateService roomStateService;
     private final GameEngine gameEngine;
+    private final RoomCommandExecutor roomCommands;
+    private final TurnManager turnManager;
+    private final MonteCarloBot bot;
+    private final EndgameSolver endgameSolver;
+    private final LoToEngine loToEngine;
+    private final RoomBroadcaster roomBroadcaster;
     
     public WebSocketController(UserSessionRegistry sessionRegistry, RedisPublisher redisPublisher,
                               SimpMessagingTemplate messagingTemplate, ObjectMapper objectMapper,
                               RoomService roomService, RoomStateService roomStateService,
-                              GameEngine gameEngine) {
+                              GameEngine gameEngine, RoomCommandExecutor roomCommands,
+                              TurnManager turnManager, MonteCarloBot bot, EndgameSolver endgameSolver,
+                              LoToEngine loToEngine, RoomBroadcaster roomBroadcaster) {
         this.sessionRegistry = sessionRegistry;
         this.redisPublisher = redisPublisher;
         this.messagingTemplate = messagingTemplate;
@@ -46,6 +63,16 @@ public class WebSocketController {
         this.roomService = roomService;
         this.roomStateService = roomStateService;
         this.gameEngine = gameEngine;
+        this.roomCommands = roomCommands;
+        this.turnManager = turnManager;
+        this.bot = bot;
+        this.endgameSolver = endgameSolver;
+        this.loToEngine = loToEngine;
+        this.roomBroadcaster = roomBroadcaster;
+        // Hết giờ lượt: chuyển sang mailbox của phòng, không xử lý trên thread của timing wheel
+        turnManager.setTurnTimeoutHandler(expiry ->
+            roomCommands.submit(expiry.roomId(), () -> autoMoveInRoom(expiry, false)));
+        loToEngine.setDrawHandler(roomId -> roomCommands.submit(roomId, () -> drawInRoom(roomId)));
     }
 
     // Room actions via WebSocket
@@ -56,11 +83,11 @@ public class WebSocketController {
         try {
             UUID userId = UUID.fromString(username);
             var resp = roomService.joinRoom(UUID.fromString(roomId), userId);
+            headerAccessor.getSessionAttributes().put("roomId", roomId);
             String json = objectMapper.writeValueAsString(resp);
             redisPublisher.publishRoomUpdate(roomId, json);
             redisPublisher.publishRoomSeats(roomId, json);
             redisPublisher.publishRoomPlayerList(roomId, json);
-            messagingTemplate.convertAndSend("/topic/room/" + roomId + "/updates", resp);
         } catch (Exception ex) {
             // ignore
         }
@@ -73,11 +100,11 @@ public class WebSocketController {
         try {
             UUID userId = UUID.fromString(username);
             var resp = roomService.leaveRoom(UUID.fromString(roomId), userId);
+            headerAccessor.getSessionAttributes().remove("roomId");
             String json = objectMapper.writeValueAsString(resp);
             redisPublisher.publishRoomUpdate(roomId, json);
             redisPublisher.publishRoomSeats(roomId, json);
             redisPublisher.publishRoomPlayerList(roomId, json);
-            messagingTemplate.convertAndSend("/topic/room/" + roomId + "/updates", resp);
         } catch (Exception ex) {
             // ignore
         }
@@ -96,7 +123,7 @@ public class WebSocketController {
             var resp = roomService.markReady(UUID.fromString(roomId), userId, ready);
             String json = objectMapper.writeValueAsString(resp);
             redisPublisher.publishRoomUpdate(roomId, json);
-            messagingTemplate.convertAndSend("/topic/room/" + roomId + "/updates", resp);
+            scheduleReadyCheck(UUID.fromString(roomId), resp != null ? resp.getStatus() : null);
         } catch (Exception ex) {
             // ignore
         }
@@ -110,6 +137,11 @@ public class WebSocketController {
 
         if (username != null) {
             sessionRegistry.registerUser(username, sessionId);
+            try {
+                UUID playerId = UUID.fromString(username);
+                turnManager.cancelReconnectGrace(playerId);
+                bot.release(playerId);
+            } catch (IllegalArgumentException ignored) {}
             // Broadcast user joined to lobby
             try {
                 MessagePayload<Map<String, String>> payload = new MessagePayload<>("lobby.user-online", username,
@@ -129,6 +161,8 @@ public class WebSocketController {
 
         if (username != null) {
             sessionRegistry.unregisterUser(username);
+            Object roomId = headers.getSessionAttributes().get("roomId");
+            if (roomId != null) scheduleReconnectGrace(roomId.toString(), username);
             // Broadcast user left
             try {
                 MessagePayload<Map<String, String>> payload = new MessagePayload<>("lobby.user-offline", username,
@@ -161,7 +195,6 @@ public class WebSocketController {
             try {
                 String roomId = (String) message.getData().get("roomId");
                 redisPublisher.publishChatMessage(roomId, objectMapper.writeValueAsString(message));
-                messagingTemplate.convertAndSend("/topic/chat/" + roomId + "/messages", message);
             } catch (Exception ex) {
                 // Log error
             }
@@ -257,6 +290,7 @@ public class WebSocketController {
     /**
      * Handle player play (đánh bài)
      * Payload: { "cards": [{ "suit": "SPADES", "rank": "THREE" }, ...] }
+     * hoặc dạng gọn theo mã lá (rank * 4 + suit): { "cards": [3, 7] }
      */
     @MessageMapping("/game/{roomId}/play")
     public void handleGamePlay(@DestinationVariable String roomId,
@@ -264,18 +298,21 @@ public class WebSocketController {
                                SimpMessageHeaderAccessor headerAccessor) {
         String username = (String) headerAccessor.getSessionAttributes().get("username");
         if (username == null) return;
+        submitGameCommand(roomId, username, () -> playInRoom(roomId, username, payload));
+    }
+
+    private void playInRoom(String roomId, String username, Map<String, Object> payload) {
         try {
             UUID userId = UUID.fromString(username);
             
-            // Parse cards from payload
-            List<Map<String, String>> cardMaps = (List<Map<String, String>>) payload.get("cards");
-            if (cardMaps == null || cardMaps.isEmpty()) return;
-            
-            List<com.tetgame.modules.game.tienlen.Card> cards = new ArrayList<>();
-            for (Map<String, String> cardMap : cardMaps) {
-                var suit = com.tetgame.modules.game.tienlen.CardSuit.valueOf(cardMap.get("suit"));
-                var rank = com.tetgame.modules.game.tienlen.CardRank.valueOf(cardMap.get("rank"));
-                cards.add(new com.tetgame.modules.game.tienlen.Card(suit, rank));
+            // Parse cards from payload: mã lá 0..51 hoặc {suit, rank}, gom thẳng vào bitboard
+            Object rawCards = payload.get("cards");
+            if (!(rawCards instanceof List<?> items) || items.isEmpty()) return;
+            long cards = com.tetgame.modules.game.tienlen.CardMask.parse(items);
+            if (cards < 0) {
+                messagingTemplate.convertAndSendToUser(username, "/queue/game/error",
+                    Map.of("error", "Invalid cards"));
+                return;
             }
 
             // Get game state from roomStateService
@@ -283,31 +320,32 @@ public class WebSocketController {
             if (state == null) return;
 
             // Validate & execute play
+            int fromSeq = state.getJournal().size();
             boolean success = gameEngine.playMove(state, userId, cards);
             if (!success) {
                 messagingTemplate.convertAndSendToUser(username, "/queue/game/error", 
                     Map.of("error", "Invalid play"));
                 return;
             }
+            if (!roomStateService.saveGameState(state)) {
+                rejectStale(username);
+                return;
+            }
 
-            // Broadcast game state to all players in room
-            Map<String, Object> gameStateMsg = new HashMap<>();
-            gameStateMsg.put("currentPlayer", state.getCurrentPlayer().toString());
-            gameStateMsg.put("currentPile", state.getCurrentPile() != null ? state.getCurrentPile().toString() : null);
-            gameStateMsg.put("hands", buildHandsResponse(state)); // Don't expose all cards
-            gameStateMsg.put("log", state.getGameLog());
-            
-            redisPublisher.publishGameUpdate(roomId, objectMapper.writeValueAsString(gameStateMsg));
-            messagingTemplate.convertAndSend("/topic/game/" + roomId + "/state", gameStateMsg);
+            // Broadcast delta (nước mới, bàn, số lá, người đi tiếp) to all players in room
+            // ngay khi nước đi đã ghi, trước bước tự kết thúc ván (có thể thua cuộc đua ghi riêng)
+            roomBroadcaster.game(roomId, "state", GameStateDelta.delta(state, fromSeq));
+            if (!autoFinish(state)) return;
 
             // Check if game ended
             List<UUID> rankings = gameEngine.checkGameEnd(state);
             if (rankings != null) {
                 handleGameEnd(UUID.fromString(roomId), state, rankings);
             } else {
+                scheduleNextTurn(state);
                 // Send next player notification
                 UUID nextPlayer = state.getCurrentPlayer();
-                messagingTemplate.convertAndSend("/topic/game/" + roomId + "/next-turn", 
+                roomBroadcaster.game(roomId, "next-turn",
                     Map.of("playerId", nextPlayer.toString()));
             }
         } catch (Exception ex) {
@@ -323,30 +361,44 @@ public class WebSocketController {
                                SimpMessageHeaderAccessor headerAccessor) {
         String username = (String) headerAccessor.getSessionAttributes().get("username");
         if (username == null) return;
+        submitGameCommand(roomId, username, () -> passInRoom(roomId, username));
+    }
+
+    private void passInRoom(String roomId, String username) {
         try {
             UUID userId = UUID.fromString(username);
             GameState state = roomStateService.getGameState(UUID.fromString(roomId));
             if (state == null) return;
 
+            // chưa tới lượt, hoặc đang cầm cái (bàn trống) thì không được bỏ
+            if (!gameEngine.validatePass(state, userId)) {
+                messagingTemplate.convertAndSendToUser(username, "/queue/game/error",
+                    Map.of("error", "Invalid pass"));
+                return;
+            }
+            int fromSeq = state.getJournal().size();
             boolean allPassed = gameEngine.pass(state, userId);
+            if (!roomStateService.saveGameState(state)) {
+                rejectStale(username);
+                return;
+            }
 
-            // Broadcast state
-            Map<String, Object> gameStateMsg = new HashMap<>();
-            gameStateMsg.put("currentPlayer", state.getCurrentPlayer().toString());
-            gameStateMsg.put("currentPile", state.getCurrentPile() != null ? state.getCurrentPile().toString() : null);
-            gameStateMsg.put("hands", buildHandsResponse(state));
-            gameStateMsg.put("log", state.getGameLog());
-            gameStateMsg.put("passedThisTurn", state.getPassedThisTurn().stream().map(UUID::toString).toList());
-            
-            redisPublisher.publishGameUpdate(roomId, objectMapper.writeValueAsString(gameStateMsg));
-            messagingTemplate.convertAndSend("/topic/game/" + roomId + "/state", gameStateMsg);
+            // Broadcast state delta
+            roomBroadcaster.game(roomId, "state", GameStateDelta.delta(state, fromSeq));
+            if (!autoFinish(state)) return;
 
+            List<UUID> rankings = gameEngine.checkGameEnd(state);
+            if (rankings != null) {
+                handleGameEnd(UUID.fromString(roomId), state, rankings);
+                return;
+            }
+            scheduleNextTurn(state);
             if (allPassed) {
-                messagingTemplate.convertAndSend("/topic/game/" + roomId + "/pile-cleared",
-                    Map.of("message", "All players passed. Pile cleared. " + userId + " continues."));
+                roomBroadcaster.game(roomId, "pile-cleared",
+                    Map.of("message", "All players passed. Pile cleared. " + state.getCurrentPlayer() + " continues."));
             } else {
                 UUID nextPlayer = state.getCurrentPlayer();
-                messagingTemplate.convertAndSend("/topic/game/" + roomId + "/next-turn",
+                roomBroadcaster.game(roomId, "next-turn",
                     Map.of("playerId", nextPlayer.toString()));
             }
         } catch (Exception ex) {
@@ -354,6 +406,22 @@ public class WebSocketController {
         }
     }
 
+    /**
+     * Client xin trạng thái đầy đủ (mới vào, kết nối lại, hoặc thấy fromSeq của delta lệch seq đang giữ).
+     * Chạy trong mailbox của phòng nên snapshot khớp đúng một seq.
+     */
+    @MessageMapping("/game/{roomId}/snapshot")
+    public void handleGameSnapshot(@DestinationVariable String roomId,
+                                   SimpMessageHeaderAccessor headerAccessor) {
+        String username = (String) headerAccessor.getSessionAttributes().get("username");
+        if (username == null) return;
+        submitGameCommand(roomId, username, () -> {
+            GameState state = roomStateService.getGameState(UUID.fromString(roomId));
+            if (state == null) return;
+            messagingTemplate.convertAndSendToUser(username, "/queue/game/snapshot", GameStateDelta.snapshot(state));
+        });
+    }
+
     /**
      * Handle chat in game room
      */
@@ -370,21 +438,197 @@ public class WebSocketController {
             chatMsg.put("text", message);
             chatMsg.put("timestamp", System.currentTimeMillis());
             
-            redisPublisher.publishChatMessage(roomId, objectMapper.writeValueAsString(chatMsg));
-            messagingTemplate.convertAndSend("/topic/game/" + roomId + "/chat", chatMsg);
+            roomBroadcaster.game(roomId, "chat", chatMsg);
         } catch (Exception ex) {
             ex.printStackTrace();
         }
     }
 
+    // ============= LÔ TÔ =============
+
+    /** Mua một tờ lô tô; tờ được gửi riêng cho người mua. */
+    @MessageMapping("/loto/{roomId}/buy")
+    public void handleLoToBuy(@DestinationVariable String roomId, SimpMessageHeaderAccessor headerAccessor) {
+        String username = (String) headerAccessor.getSessionAttributes().get("username");
+        if (username == null) return;
+        try {
+            UUID room = UUID.fromString(roomId);
+            var ticket = loToEngine.buyTicket(room, UUID.fromString(username));
+            if (ticket == null) {
+                messagingTemplate.convertAndSendToUser(username, "/queue/game/error",
+                    Map.of("error", "Game already started"));
+                return;
+            }
+            messagingTemplate.convertAndSendToUser(username, "/queue/loto/ticket", Map.of(
+                "roomId", roomId,
+                "ticket", ticket.index(),
+                "rows", ticket.rows()));
+        } catch (IllegalArgumentException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    /** Chủ phòng chốt vé và bắt đầu xổ. */
+    @MessageMapping("/loto/{roomId}/start")
+    public void handleLoToStart(@DestinationVariable String roomId, SimpMessageHeaderAccessor headerAccessor) {
+        String username = (String) headerAccessor.getSessionAttributes().get("username");
+        if (username == null) return;
+        try {
+            UUID room = UUID.fromString(roomId);
+            var details = roomService.getRoomDetails(room);
+            if (details == null || !UUID.fromString(username).equals(details.getHostId()) || !loToEngine.start(room)) {
+                messagingTemplate.convertAndSendToUser(username, "/queue/game/error",
+                    Map.of("error", "Cannot start Lo To"));
+                return;
+            }
+            roomBroadcaster.loto(roomId, "started",
+                Map.of("tickets", loToEngine.getGame(room).getTicketCount(),
+                    "intervalMs", LoToEngine.DRAW_INTERVAL_MS));
+        } catch (Exception ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    // Đến nhịp xổ (trong mailbox của phòng): một tin cho cả phòng, người chơi tự dò vé
+    private void drawInRoom(UUID roomId) {
+        try {
+            LoToGame.Draw draw = loToEngine.draw(roomId);
+            if (draw == null) return;
+            Map<String, Object> drawMsg = new HashMap<>();
+            drawMsg.put("number", draw.number());
+            drawMsg.put("drawIndex", draw.drawIndex());
+            drawMsg.put("winners", draw.winners().stream()
+                .map(w -> Map.of("playerId", w.playerId().toString(), "ticket", w.ticket(), "row", w.row()))
+                .toList());
+            roomBroadcaster.loto(roomId.toString(), "draw", drawMsg);
+        } catch (Exception ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Nước đi tự động, chạy trong mailbox của phòng. Bot đánh thay ghế mất kết nối;
+     * hết giờ lượt thì đang cầm cái đánh lá nhỏ nhất, còn lại tự bỏ lượt.
+     */
+    private void autoMoveInRoom(TurnManager.TurnExpiry expiry, boolean byBot) {
+        try {
+            String roomId = expiry.roomId().toString();
+            GameState state = roomStateService.getGameState(expiry.roomId());
+            // đã có nước đi sau khi đặt hạn: hạn cũ, bỏ qua
+            if (state == null || !TurnManager.isCurrent(state, expiry)) return;
+
+            UUID timedOut = state.getCurrentPlayer();
+            int fromSeq = state.getJournal().size();
+            boolean pileCleared = byBot || bot.isControlling(timedOut)
+                ? bot.playTurn(gameEngine, state)
+                : TurnManager.applyTimeout(gameEngine, state);
+            // node khác đã ghi trước: nước đi đó thắng, hạn giờ này đã cũ
+            if (!roomStateService.saveGameState(state)) return;
+
+            Map<String, Object> gameStateMsg = GameStateDelta.delta(state, fromSeq);
+            gameStateMsg.put(byBot ? "botPlayed" : "timedOut", timedOut.toString());
+
+            roomBroadcaster.game(roomId, "state", gameStateMsg);
+            if (!autoFinish(state)) return;
+
+            List<UUID> rankings = gameEngine.checkGameEnd(state);
+            if (rankings != null) {
+                handleGameEnd(expiry.roomId(), state, rankings);
+            } else {
+                scheduleNextTurn(state);
+                if (pileCleared) {
+                    roomBroadcaster.game(roomId, "pile-cleared",
+                        Map.of("message", "All players passed. Pile cleared. " + state.getCurrentPlayer() + " continues."));
+                } else {
+                    roomBroadcaster.game(roomId, "next-turn",
+                        Map.of("playerId", state.getCurrentPlayer().toString()));
+                }
+            }
+        } catch (Exception ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    // Phòng còn chờ: nếu hết hạn mà chưa đủ người sẵn sàng thì báo cho cả phòng
+    private void scheduleReadyCheck(UUID roomId, com.tetgame.modules.room.entity.RoomStatus status) {
+        if (status != com.tetgame.modules.room.entity.RoomStatus.WAITING) {
+            turnManager.cancelReadyCheck(roomId);
+            return;
+        }
+        turnManager.scheduleReadyCheck(roomId, () -> roomCommands.submit(roomId, () -> {
+            if (roomStateService.areAllPlayersReady(roomId)) return;
+            roomBroadcaster.room(roomId.toString(), "updates",
+                Map.of("type", "room.ready-check-expired", "roomId", roomId.toString()));
+        }));
+    }
+
+    // Cuối ván đã ngã ngũ (có người chắc chắn về nhất): tuyên bố người thắng, không đánh hộ ghế nào,
+    // rồi báo cho cả phòng. False nếu ghi snapshot bị node khác chen trước: nước đi vừa rồi đã ghi và
+    // đã phát, chỉ phần tuyên bố bị bỏ; lệnh kế tiếp của phòng (ở node nào cũng vậy) sẽ thử lại
+    private boolean autoFinish(GameState state) {
+        if (gameEngine.checkGameEnd(state) != null || !EndgameSolver.isEndgame(state)) return true;
+        if (!endgameSolver.autoFinish(state)) return true;
+        if (!roomStateService.saveGameState(state)) {
+            log.warn("Room {}: auto-finish lost the save race at seq {}, retrying on the next command",
+                state.getRoomId(), state.getJournal().size());
+            return false;
+        }
+        roomBroadcaster.game(state.getRoomId().toString(), "auto-finish",
+            Map.of("message", "Result is forced. The game ends without playing the remaining moves."));
+        return true;
+    }
+
+    // Đặt hạn cho lượt kế tiếp; nếu ghế đó đang do bot giữ thì bot đánh ngay
+    private void scheduleNextTurn(GameState state) {
+        turnManager.scheduleTurn(state);
+        if (bot.isControlling(state.getCurrentPlayer())) {
+            var expiry = new TurnManager.TurnExpiry(state.getRoomId(), state.getCurrentSeat(), state.getJournal().size());
+            roomCommands.submit(state.getRoomId(), () -> autoMoveInRoom(expiry, true));
+        }
+    }
+
+    // Mất kết nối giữa ván: bot giữ ghế ngay, hết thời gian chờ thì báo cho cả phòng
+    private void scheduleReconnectGrace(String roomId, String username) {
+        try {
+            UUID playerId = UUID.fromString(username);
+            bot.takeOver(playerId);
+            UUID room = UUID.fromString(roomId);
+            // nếu đang đến lượt người vừa rớt mạng thì bot đánh luôn
+            roomCommands.submit(room, () -> {
+                GameState state = roomStateService.getGameState(room);
+                if (state != null && playerId.equals(state.getCurrentPlayer())) {
+                    autoMoveInRoom(new TurnManager.TurnExpiry(room, state.getCurrentSeat(), state.getJournal().size()), true);
+                }
+            });
+            turnManager.scheduleReconnectGrace(playerId, () ->
+                roomBroadcaster.room(roomId, "updates",
+                    Map.of("type", "room.player-disconnected", "roomId", roomId, "playerId", username)));
+        } catch (IllegalArgumentException ignored) {}
+    }
+
     // ============= HELPER METHODS =============
 
-    private Map<String, Integer> buildHandsResponse(GameState state) {
-        Map<String, Integer> handCounts = new HashMap<>();
-        for (Map.Entry<UUID, List<com.tetgame.modules.game.tienlen.Card>> entry : state.getHands().entrySet()) {
-            handCounts.put(entry.getKey().toString(), entry.getValue().size());
+    /**
+     * Mọi lệnh làm thay đổi GameState của một phòng đi qua mailbox của phòng đó,
+     * nên đọc-sửa-ghi snapshot không bao giờ chạy song song trong cùng phòng.
+     */
+    private void submitGameCommand(String roomId, String username, Runnable command) {
+        UUID room;
+        try {
+            room = UUID.fromString(roomId);
+        } catch (IllegalArgumentException ex) {
+            return;
+        }
+        if (!roomCommands.submit(room, command)) {
+            messagingTemplate.convertAndSendToUser(username, "/queue/game/error",
+                Map.of("error", "Room is busy, try again"));
         }
-        return handCounts;
+    }
+
+    // Snapshot trong Redis đã đổi (lệnh cùng phòng chạy trên node khác): bỏ nước này, client gửi lại
+    private void rejectStale(String username) {
+        messagingTemplate.convertAndSendToUser(username, "/queue/game/error",
+            Map.of("error", "Game state changed, try again"));
     }
 
     private void handleGameEnd(UUID roomId, GameState state, List<UUID> rankings) {
@@ -400,10 +644,11 @@ public class WebSocketController {
             endMsg.put("log", state.getGameLog());
 
             // Publish to game end topic
-            redisPublisher.publishGameEnded(roomId.toString(), objectMapper.writeValueAsString(endMsg));
-            messagingTemplate.convertAndSend("/topic/game/" + roomId + "/ended", endMsg);
+            roomBroadcaster.game(roomId.toString(), "ended", endMsg);
 
             // Settlement will be handled by RoomStateService (after room starts with betLevel)
+            turnManager.cancelRoom(roomId);
+            roomCommands.release(roomId);
         } catch (Exception ex) {
             ex.printStackTrace();
         }
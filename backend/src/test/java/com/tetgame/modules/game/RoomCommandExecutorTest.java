@@ -0,0 +1,135 @@
+package com.tetgame.modules.game;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RoomCommandExecutor Tests")
+class RoomCommandExecutorTest {
+
+    private final RoomCommandExecutor executor = new RoomCommandExecutor(4, 64);
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    @DisplayName("Commands of one room run in order and never overlap")
+    void testSingleWriterPerRoom() throws Exception {
+        UUID room = UUID.randomUUID();
+        List<Integer> seen = new ArrayList<>(); // không đồng bộ: chỉ một worker chạm vào mỗi lúc
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        int commands = 5000;
+        CountDownLatch done = new CountDownLatch(commands);
+
+        Thread[] producers = new Thread[4];
+        AtomicInteger next = new AtomicInteger();
+        for (int p = 0; p < producers.length; p++) {
+            producers[p] = new Thread(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < commands) {
+                    int value = i;
+                    while (!executor.submit(room, () -> {
+                        if (running.incrementAndGet() > 1) overlaps.incrementAndGet();
+                        seen.add(value);
+                        running.decrementAndGet();
+                        done.countDown();
+                    })) Thread.onSpinWait();
+                }
+            });
+            producers[p].start();
+        }
+        for (Thread t : producers) t.join();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+
+        assertEquals(0, overlaps.get());
+        assertEquals(commands, seen.size());
+        assertEquals(commands, executor.processedCount(room));
+        assertTrue(executor.peakQueueDepth(room) <= executor.getQueueCapacity());
+    }
+
+    @Test
+    @DisplayName("Bounded queue rejects overflow and reports depth")
+    void testBoundedQueue() throws Exception {
+        UUID room = UUID.randomUUID();
+        CountDownLatch gate = new CountDownLatch(1);
+        assertTrue(executor.submit(room, () -> {
+            try { gate.await(); } catch (InterruptedException ignored) {}
+        }));
+        for (int i = 1; i < executor.getQueueCapacity(); i++) {
+            assertTrue(executor.submit(room, () -> {}));
+        }
+        assertFalse(executor.submit(room, () -> {}));
+        assertEquals(1, executor.rejectedCount());
+        assertEquals(executor.getQueueCapacity(), executor.queueDepth(room));
+        assertEquals(executor.getQueueCapacity(), executor.queueDepths().get(room));
+
+        // phòng khác không bị ảnh hưởng
+        CountDownLatch other = new CountDownLatch(1);
+        assertTrue(executor.submit(UUID.randomUUID(), other::countDown));
+        assertTrue(other.await(5, TimeUnit.SECONDS));
+
+        gate.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.queueDepth(room) > 0 && System.nanoTime() < deadline) Thread.sleep(1);
+        assertEquals(0, executor.queueDepth(room));
+    }
+
+    @Test
+    @DisplayName("Release from inside a room command drops the idle mailbox")
+    void testReleaseFromCommand() throws Exception {
+        UUID room = UUID.randomUUID();
+        CountDownLatch done = new CountDownLatch(1);
+        executor.submit(room, () -> {
+            executor.release(room);
+            done.countDown();
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.queueDepths().containsKey(room) && System.nanoTime() < deadline) Thread.sleep(1);
+        assertFalse(executor.queueDepths().containsKey(room));
+    }
+
+    @Test
+    @DisplayName("Idle mailboxes are evicted without release, busy ones are kept")
+    void testIdleEviction() throws Exception {
+        RoomCommandExecutor idle = new RoomCommandExecutor(2, 16, 20);
+        try {
+            UUID quiet = UUID.randomUUID(), busy = UUID.randomUUID();
+            CountDownLatch ran = new CountDownLatch(1), gate = new CountDownLatch(1);
+            assertTrue(idle.submit(quiet, ran::countDown));
+            assertTrue(idle.submit(busy, () -> {
+                try { gate.await(); } catch (InterruptedException ignored) {}
+            }));
+            assertTrue(ran.await(5, TimeUnit.SECONDS));
+            Thread.sleep(60);
+
+            // submit của phòng khác kích hoạt lượt quét
+            CountDownLatch other = new CountDownLatch(1);
+            assertTrue(idle.submit(UUID.randomUUID(), other::countDown));
+            assertTrue(other.await(5, TimeUnit.SECONDS));
+            assertFalse(idle.queueDepths().containsKey(quiet));
+            assertTrue(idle.queueDepths().containsKey(busy));
+
+            gate.countDown();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (idle.queueDepth(busy) > 0 && System.nanoTime() < deadline) Thread.sleep(1);
+            Thread.sleep(60);
+            assertTrue(idle.evictIdle() >= 1);
+            assertFalse(idle.queueDepths().containsKey(busy));
+        } finally {
+            idle.close();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.tetgame.modules.game;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TimingWheel Tests")
+class TimingWheelTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    // tick 10ms, 8 ô: một vòng 80ms để kiểm tra cả timeout nhiều vòng
+    private final TimingWheel wheel = new TimingWheel(10, 8, now::get);
+
+    private void advanceTo(long millis) {
+        now.set(millis);
+        wheel.advance(millis);
+    }
+
+    @Test
+    @DisplayName("Timeouts fire at their deadline, including multi-round ones")
+    void testExpiryOrder() {
+        List<String> fired = new ArrayList<>();
+        wheel.schedule(() -> fired.add("250"), 250);
+        wheel.schedule(() -> fired.add("30"), 30);
+        wheel.schedule(() -> fired.add("95"), 95);
+        assertEquals(3, wheel.pendingTimeouts());
+
+        advanceTo(1_029);
+        assertEquals(List.of(), fired);
+        advanceTo(1_030);
+        assertEquals(List.of("30"), fired);
+        advanceTo(1_100);
+        assertEquals(List.of("30", "95"), fired);
+        advanceTo(1_249);
+        assertEquals(List.of("30", "95"), fired);
+        advanceTo(1_250);
+        assertEquals(List.of("30", "95", "250"), fired);
+        assertEquals(0, wheel.pendingTimeouts());
+    }
+
+    @Test
+    @DisplayName("Cancelled timeouts never fire, before or after entering the wheel")
+    void testCancel() {
+        List<String> fired = new ArrayList<>();
+        TimingWheel.Timeout early = wheel.schedule(() -> fired.add("early"), 20);
+        assertTrue(early.cancel());
+        assertFalse(early.cancel());
+
+        TimingWheel.Timeout late = wheel.schedule(() -> fired.add("late"), 50);
+        wheel.schedule(() -> fired.add("kept"), 50);
+        advanceTo(1_010);
+        assertTrue(late.cancel());
+        advanceTo(1_200);
+
+        assertEquals(List.of("kept"), fired);
+        assertTrue(late.isCancelled());
+        assertEquals(0, wheel.pendingTimeouts());
+    }
+
+    @Test
+    @DisplayName("Rescheduling on every move keeps only the latest deadline")
+    void testRescheduleEveryMove() {
+        List<Integer> fired = new ArrayList<>();
+        TimingWheel.Timeout current = null;
+        for (int move = 0; move < 1000; move++) {
+            if (current != null) current.cancel();
+            int m = move;
+            current = wheel.schedule(() -> fired.add(m), 30);
+            advanceTo(now.get() + 1);
+        }
+        advanceTo(now.get() + 40);
+        assertEquals(List.of(999), fired);
+        assertTrue(current.isExpired());
+    }
+
+    @Test
+    @DisplayName("Background ticker fires scheduled tasks")
+    void testBackgroundThread() throws Exception {
+        try (TimingWheel live = new TimingWheel(5, 64).start()) {
+            java.util.concurrent.CountDownLatch latch = new java.util.concurrent.CountDownLatch(1);
+            live.schedule(latch::countDown, 20);
+            assertTrue(latch.await(2, java.util.concurrent.TimeUnit.SECONDS));
+        }
+    }
+}
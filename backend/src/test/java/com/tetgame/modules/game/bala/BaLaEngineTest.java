@@ -0,0 +1,105 @@
+package com.tetgame.modules.game.bala;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BaLaEngine Tests")
+class BaLaEngineTest {
+
+    // mã lá = rank * 4 + suit; rank 3 = 0 ... K = 10, A = 11, 2 = 12; chất Chuồn, Rô, Cơ, Bích
+    private static long hand(int... codes) {
+        long mask = 0L;
+        for (int c : codes) mask |= 1L << c;
+        return mask;
+    }
+
+    private static int code(int rank, int suit) { return rank * 4 + suit; }
+
+    private final BaLaEngine engine = new BaLaEngine();
+
+    @Test
+    @DisplayName("Every three-card hand has an index and a dense rank")
+    void testIndexAndRanks() {
+        Set<Integer> indexes = new HashSet<>();
+        Set<Integer> ranks = new HashSet<>();
+        for (int a = 0; a < 52; a++)
+            for (int b = a + 1; b < 52; b++)
+                for (int c = b + 1; c < 52; c++) {
+                    long h = hand(a, b, c);
+                    assertTrue(indexes.add(BaLaRanking.index(h)));
+                    ranks.add(BaLaRanking.rank(h));
+                }
+        assertEquals(BaLaRanking.HANDS, indexes.size());
+        // hạng dày: 0..k-1 không thiếu số nào
+        assertEquals(ranks.size() - 1, ranks.stream().mapToInt(Integer::intValue).max().orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Sap beats Ba Tay beats points, ties go to the best card")
+    void testOrdering() {
+        long sap = hand(code(0, 0), code(0, 1), code(0, 2));                 // ba lá 3
+        long baTay = hand(code(8, 0), code(9, 1), code(10, 2));              // J Q K
+        long nine = hand(code(11, 1), code(5, 0), code(7, 3));               // A + 8 + 10 = 9 nút
+        long nineClubs = hand(code(11, 0), code(5, 2), code(7, 0));          // 9 nút, lá mạnh nhất 8 Cơ
+        long zero = hand(code(7, 0), code(8, 1), code(7, 2));                // 10 + J + 10 = 0 nút
+
+        assertEquals(BaLaRanking.SAP, BaLaRanking.category(sap));
+        assertEquals(BaLaRanking.BA_TAY, BaLaRanking.category(baTay));
+        assertEquals(9, BaLaRanking.points(nine));
+        assertEquals(0, BaLaRanking.points(zero));
+        assertTrue(BaLaRanking.rank(sap) > BaLaRanking.rank(baTay));
+        assertTrue(BaLaRanking.rank(baTay) > BaLaRanking.rank(nine));
+        assertTrue(BaLaRanking.rank(nine) > BaLaRanking.rank(zero));
+        // cùng 9 nút: A Rô mạnh hơn 8 Cơ
+        assertTrue(BaLaRanking.rank(nine) > BaLaRanking.rank(nineClubs));
+    }
+
+    @Test
+    @DisplayName("Winner has the top rank, takes the pot and rounds replay from the seed")
+    void testRounds() {
+        List<UUID> players = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        BaLaTable a = new BaLaTable(UUID.randomUUID(), players);
+        BaLaTable b = new BaLaTable(UUID.randomUUID(), players);
+        for (int s = 0; s < 4; s++) {
+            a.setBet(s, 1_000L * (s + 1));
+            b.setBet(s, 1_000L * (s + 1));
+        }
+        for (long seed = 0; seed < 1_000; seed++) {
+            int winner = engine.playRound(a, seed);
+            assertEquals(winner, engine.playRound(b, seed));
+            long sum = 0L, cards = 0L;
+            for (int s = 0; s < 4; s++) {
+                assertEquals(3, Long.bitCount(a.getHand(s)));
+                assertEquals(0L, cards & a.getHand(s));
+                cards |= a.getHand(s);
+                assertTrue(a.getRank(winner) >= a.getRank(s));
+                assertEquals(a.getHand(s), b.getHand(s));
+                sum += a.getDelta(s);
+            }
+            assertEquals(0L, sum);
+            assertEquals(10_000L - a.getBet(winner), a.getDelta(winner));
+        }
+    }
+
+    @Test
+    @DisplayName("Playing rounds does not allocate")
+    void testAllocationFree() {
+        BaLaTable table = new BaLaTable(UUID.randomUUID(),
+            List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()));
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long id = Thread.currentThread().getId();
+        for (int r = 0; r < 20_000; r++) engine.playRound(table, r);
+        long before = threads.getThreadAllocatedBytes(id);
+        for (int r = 0; r < 20_000; r++) engine.playRound(table, r);
+        long allocated = threads.getThreadAllocatedBytes(id) - before;
+        assertTrue(allocated < 4_096, "allocated " + allocated + " bytes");
+    }
+}
@@ -0,0 +1,166 @@
+package com.tetgame.modules.game.baucua;
+
+import com.tetgame.modules.user.service.WalletService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.tetgame.modules.game.baucua.BauCuaSymbol.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("BauCuaEngine Tests")
+class BauCuaEngineTest {
+
+    private final WalletService walletService = mock(WalletService.class);
+    private final BauCuaEngine engine = new BauCuaEngine(walletService);
+
+    @Test
+    @DisplayName("Payouts follow how many dice show each symbol")
+    void testPayouts() {
+        BauCuaRound round = engine.openRound(UUID.randomUUID());
+        UUID a = UUID.randomUUID(), b = UUID.randomUUID(), c = UUID.randomUUID();
+        assertTrue(engine.placeBet(round, a, CUA, 100));
+        assertTrue(engine.placeBet(round, b, TOM, 100));
+        assertTrue(engine.placeBet(round, c, GA, 50));
+        assertTrue(engine.placeBet(round, c, NAI, 50));
+        assertFalse(engine.placeBet(round, a, CA, 0));
+
+        BauCuaEngine.Result result = engine.settle(round, List.of(CUA, CUA, GA));
+        assertEquals(200L, result.deltas().get(a));   // cua ra 2 lần
+        assertEquals(-100L, result.deltas().get(b));
+        assertFalse(result.deltas().containsKey(c));  // +50 gà, -50 nai
+        assertEquals(-100L, result.houseDelta());
+        // vốn đã trừ lúc đặt: chỉ cộng lại vốn + tiền ăn cho mặt trúng
+        assertEquals(Map.of(a, 300L, c, 100L), result.payouts());
+        verify(walletService, times(4)).subtract(any(), anyLong());
+        verify(walletService, times(1)).applyDeltas(result.payouts());
+        verify(walletService, never()).add(any(), anyLong());
+
+        assertFalse(engine.placeBet(round, a, CUA, 100));
+        assertThrows(IllegalStateException.class, () -> engine.settle(round, List.of(CUA, CUA, GA)));
+    }
+
+    @Test
+    @DisplayName("Concurrent bets are all counted and settled in one wallet call")
+    void testConcurrentBets() throws Exception {
+        BauCuaRound round = engine.openRound(UUID.randomUUID());
+        int threads = 8, usersPerThread = 500;
+        LongAdder accepted = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                for (int u = 0; u < usersPerThread; u++) {
+                    UUID user = UUID.randomUUID();
+                    for (int k = 0; k < 3; k++) {
+                        if (engine.placeBet(round, user, BauCuaSymbol.of(rnd.nextInt(6)), 10)) accepted.add(10);
+                    }
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        Thread.sleep(5); // đóng ván khi còn đang nhận cược
+        BauCuaEngine.Result result = engine.settle(round, List.of(BAU, CA, CA));
+        for (Thread worker : workers) worker.join();
+
+        long totalStaked = 0L;
+        for (BauCuaSymbol s : BauCuaSymbol.values()) totalStaked += round.getTotal(s);
+        assertEquals(accepted.sum(), totalStaked, "no bet accepted after close may be lost");
+
+        long expectedHouse = round.getTotal(NAI) + round.getTotal(GA) + round.getTotal(CUA) + round.getTotal(TOM)
+            - round.getTotal(BAU) - 2 * round.getTotal(CA);
+        assertEquals(expectedHouse, result.houseDelta());
+        long sum = result.deltas().values().stream().mapToLong(Long::longValue).sum();
+        assertEquals(-result.houseDelta(), sum);
+        verify(walletService, times(1)).applyDeltas(anyMap());
+    }
+
+    @Test
+    @DisplayName("Stakes are debited when placed and a failed payout can be retried")
+    void testWalletReservation() {
+        InMemoryWallet wallet = new InMemoryWallet();
+        BauCuaEngine engine = new BauCuaEngine(wallet);
+        UUID rich = UUID.randomUUID(), poor = UUID.randomUUID();
+        wallet.balances.put(rich, 1_000L);
+        wallet.balances.put(poor, 50L);
+
+        BauCuaRound round = engine.openRound(UUID.randomUUID());
+        assertTrue(engine.placeBet(round, rich, CUA, 400));
+        assertFalse(engine.placeBet(round, poor, CUA, 100), "cannot stake more than the balance");
+        assertTrue(engine.placeBet(round, poor, TOM, 50));
+        assertFalse(engine.placeBet(round, poor, TOM, 1));
+        assertEquals(600L, wallet.getBalance(rich));
+        assertEquals(0L, wallet.getBalance(poor));
+
+        wallet.failNext = true;
+        assertThrows(IllegalStateException.class, () -> engine.settle(round, List.of(CUA, GA, GA)));
+        assertFalse(round.isSettled());
+        assertEquals(600L, wallet.getBalance(rich));
+
+        // tính lại dùng đúng kết quả xúc xắc đã chốt
+        assertThrows(IllegalStateException.class, () -> engine.settle(round, List.of(TOM, TOM, TOM)));
+        BauCuaEngine.Result result = engine.settle(round);
+        assertEquals(List.of(CUA, GA, GA), result.dice());
+        assertTrue(round.isSettled());
+        assertEquals(1_400L, wallet.getBalance(rich));
+        assertEquals(0L, wallet.getBalance(poor));
+        assertEquals(-350L, result.houseDelta());
+        assertThrows(IllegalStateException.class, () -> engine.settle(round));
+        assertEquals(1_400L, wallet.getBalance(rich));
+    }
+
+    /** Ví trong bộ nhớ với cùng ràng buộc như WalletServiceImpl; failNext làm lần applyDeltas kế tiếp lỗi. */
+    private static class InMemoryWallet implements WalletService {
+        final Map<UUID, Long> balances = new ConcurrentHashMap<>();
+        volatile boolean failNext;
+
+        @Override
+        public long getBalance(UUID userId) { return balances.getOrDefault(userId, 0L); }
+
+        @Override
+        public synchronized void add(UUID userId, long amount) {
+            if (!balances.containsKey(userId)) throw new IllegalArgumentException("Wallet not found");
+            balances.merge(userId, amount, Long::sum);
+        }
+
+        @Override
+        public synchronized void subtract(UUID userId, long amount) {
+            Long balance = balances.get(userId);
+            if (balance == null) throw new IllegalArgumentException("Wallet not found");
+            if (balance < amount) throw new IllegalArgumentException("Insufficient balance");
+            balances.put(userId, balance - amount);
+        }
+
+        @Override
+        public synchronized void applyDeltas(Map<UUID, Long> deltas) {
+            if (failNext) {
+                failNext = false;
+                throw new IllegalStateException("Wallet store unavailable");
+            }
+            for (var e : deltas.entrySet()) {
+                Long balance = balances.get(e.getKey());
+                if (balance == null) throw new IllegalArgumentException("Wallet not found");
+                if (balance + e.getValue() < 0) throw new IllegalArgumentException("Insufficient balance");
+            }
+            deltas.forEach((id, delta) -> balances.merge(id, delta, Long::sum));
+        }
+    }
+}
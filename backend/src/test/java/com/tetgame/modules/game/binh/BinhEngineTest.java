@@ -0,0 +1,114 @@
+package com.tetgame.modules.game.binh;
+
+import com.tetgame.modules.game.tienlen.DeckSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static com.tetgame.modules.game.binh.BinhEvaluator.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BinhEngine Tests")
+class BinhEngineTest {
+
+    private final BinhEngine engine = new BinhEngine();
+
+    // lá theo rank Tiến Lên (3 = 0 ... A = 11, 2 = 12) và chất 0..3
+    private static long card(int rank, int suit) { return 1L << (rank * 4 + suit); }
+
+    private static long cards(int[]... rankSuit) {
+        long mask = 0L;
+        for (int[] rs : rankSuit) mask |= card(rs[0], rs[1]);
+        return mask;
+    }
+
+    @Test
+    @DisplayName("Categories and ordering of five-card hands")
+    void testFiveCardOrdering() {
+        long highCard = cards(new int[]{0, 0}, new int[]{2, 1}, new int[]{4, 2}, new int[]{6, 3}, new int[]{9, 0});
+        long pair = cards(new int[]{0, 0}, new int[]{0, 1}, new int[]{4, 2}, new int[]{6, 3}, new int[]{9, 0});
+        long twoPair = cards(new int[]{0, 0}, new int[]{0, 1}, new int[]{4, 2}, new int[]{4, 3}, new int[]{9, 0});
+        long trips = cards(new int[]{0, 0}, new int[]{0, 1}, new int[]{0, 2}, new int[]{6, 3}, new int[]{9, 0});
+        long wheel = cards(new int[]{11, 0}, new int[]{12, 1}, new int[]{0, 2}, new int[]{1, 3}, new int[]{2, 0});
+        long sixHigh = cards(new int[]{12, 0}, new int[]{0, 1}, new int[]{1, 2}, new int[]{2, 3}, new int[]{3, 0});
+        long flush = cards(new int[]{0, 2}, new int[]{2, 2}, new int[]{4, 2}, new int[]{6, 2}, new int[]{9, 2});
+        long fullHouse = cards(new int[]{0, 0}, new int[]{0, 1}, new int[]{0, 2}, new int[]{6, 3}, new int[]{6, 0});
+        long quads = cards(new int[]{0, 0}, new int[]{0, 1}, new int[]{0, 2}, new int[]{0, 3}, new int[]{6, 0});
+        long straightFlush = cards(new int[]{3, 1}, new int[]{4, 1}, new int[]{5, 1}, new int[]{6, 1}, new int[]{7, 1});
+
+        long[] ordered = {highCard, pair, twoPair, trips, wheel, sixHigh, flush, fullHouse, quads, straightFlush};
+        int[] categories = {HIGH_CARD, PAIR, TWO_PAIR, TRIPS, STRAIGHT, STRAIGHT, FLUSH, FULL_HOUSE, QUADS, STRAIGHT_FLUSH};
+        for (int i = 0; i < ordered.length; i++) {
+            assertEquals(categories[i], category(eval5(ordered[i])), "hand " + i);
+            if (i > 0) assertTrue(eval5(ordered[i]) > eval5(ordered[i - 1]), "hand " + i);
+            if (i > 0) assertTrue(strength5(ordered[i]) >= strength5(ordered[i - 1]), "strength " + i);
+        }
+        // đôi A > đôi K, cùng đôi thì so lá lẻ
+        long acesPair = cards(new int[]{11, 0}, new int[]{11, 1}, new int[]{0, 2}, new int[]{1, 3}, new int[]{2, 0});
+        long kingsPair = cards(new int[]{10, 0}, new int[]{10, 1}, new int[]{12, 2}, new int[]{9, 3}, new int[]{8, 0});
+        assertTrue(eval5(acesPair) > eval5(kingsPair));
+    }
+
+    @Test
+    @DisplayName("Three-card hands share the five-card scale")
+    void testThreeCardScale() {
+        long tripsFront = cards(new int[]{5, 0}, new int[]{5, 1}, new int[]{5, 2});
+        long pairFront = cards(new int[]{11, 0}, new int[]{11, 1}, new int[]{0, 2});
+        long twoPairMiddle = cards(new int[]{0, 0}, new int[]{0, 1}, new int[]{1, 2}, new int[]{1, 3}, new int[]{2, 0});
+        assertEquals(TRIPS, category(eval3(tripsFront)));
+        assertEquals(PAIR, category(eval3(pairFront)));
+        assertTrue(eval3(tripsFront) > eval5(twoPairMiddle));
+        assertTrue(eval3(pairFront) < eval5(twoPairMiddle));
+        assertTrue(strength3(tripsFront) > strength3(pairFront));
+    }
+
+    @Test
+    @DisplayName("Auto-arrange always returns a valid, non-fouled split")
+    void testAutoArrange() {
+        Random random = new Random(3);
+        for (int game = 0; game < 20; game++) {
+            long[] hands = engine.deal(4, random.nextLong());
+            for (long hand : hands) {
+                BinhArrangement a = engine.autoArrange(hand);
+                assertTrue(a.isWellFormed(hand));
+                assertFalse(a.isFouled());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Showdown is zero-sum and punishes fouled hands")
+    void testShowdown() {
+        long[] hands = engine.deal(4, 11L);
+        BinhArrangement[] arrangements = new BinhArrangement[4];
+        for (int i = 0; i < 4; i++) arrangements[i] = engine.autoArrange(hands[i]);
+        // ghế 3 cố tình xếp lủng: đổi chi cuối và chi giữa nếu khác giá trị
+        BinhArrangement good = arrangements[3];
+        if (eval5(good.back()) != eval5(good.middle())) {
+            arrangements[3] = new BinhArrangement(good.middle(), good.back(), good.front());
+        }
+        BinhEngine.Showdown result = engine.showdown(hands, arrangements);
+        int sum = 0;
+        for (int c : result.chi()) sum += c;
+        assertEquals(0, sum);
+        if (arrangements[3] != good) {
+            assertTrue(result.isFouled(3));
+            assertEquals(-3 * BinhEngine.FOUL_PENALTY, result.chi()[3]);
+        }
+
+        // tay bài không khớp thì được xếp tự động
+        arrangements[0] = new BinhArrangement(0L, 0L, 0L);
+        engine.showdown(hands, arrangements);
+        assertTrue(arrangements[0].isWellFormed(hands[0]));
+
+        for (int seed = 0; seed < 50; seed++) {
+            long[] deal = DeckSource.shuffle(seed).dealMasks(4, 13);
+            BinhArrangement[] auto = new BinhArrangement[4];
+            BinhEngine.Showdown s = engine.showdown(deal, auto);
+            int total = 0;
+            for (int c : s.chi()) total += c;
+            assertEquals(0, total);
+        }
+    }
+}
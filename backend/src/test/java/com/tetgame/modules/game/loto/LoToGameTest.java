@@ -0,0 +1,176 @@
+package com.tetgame.modules.game.loto;
+
+import com.tetgame.modules.game.TimingWheel;
+import com.tetgame.modules.game.tienlen.TurnManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LoToGame Tests")
+class LoToGameTest {
+
+    @Test
+    @DisplayName("Tickets have 9 rows of 5 distinct numbers in distinct columns")
+    void testTicketLayout() {
+        LoToGame game = new LoToGame(UUID.randomUUID());
+        SplittableRandom random = new SplittableRandom(1);
+        for (int t = 0; t < 200; t++) {
+            int ticket = game.addTicket(UUID.randomUUID(), random);
+            Set<Integer> seen = new HashSet<>();
+            for (int[] row : game.ticketNumbers(ticket)) {
+                assertEquals(LoToGame.ROW_SIZE, row.length);
+                Set<Integer> columns = new HashSet<>();
+                for (int n : row) {
+                    assertTrue(n >= 1 && n <= LoToGame.MAX_NUMBER);
+                    assertTrue(seen.add(n), "number repeated on a ticket");
+                    columns.add(Math.min(n / 10, 8));
+                }
+                assertEquals(LoToGame.ROW_SIZE, columns.size());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Inverted index finds exactly the rows a full scan would")
+    void testWinnersMatchFullScan() {
+        for (long seed = 0; seed < 20; seed++) {
+            LoToGame game = new LoToGame(UUID.randomUUID());
+            SplittableRandom random = new SplittableRandom(seed);
+            int tickets = 300;
+            for (int t = 0; t < tickets; t++) game.addTicket(UUID.randomUUID(), random);
+            assertTrue(game.start(seed));
+            assertEquals(-1, game.addTicket(UUID.randomUUID(), random));
+
+            LoToGame.Draw draw;
+            List<LoToGame.Draw> draws = new ArrayList<>();
+            while ((draw = game.draw()) != null) draws.add(draw);
+            LoToGame.Draw last = draws.get(draws.size() - 1);
+            assertTrue(game.isFinished());
+            assertFalse(last.winners().isEmpty());
+
+            // quét toàn bộ: hàng nào đủ 5 số đã xổ; trước lượt cuối thì chưa hàng nào đủ
+            Set<String> expected = new HashSet<>();
+            for (int t = 0; t < tickets; t++) {
+                int[][] rows = game.ticketNumbers(t);
+                for (int r = 0; r < rows.length; r++) {
+                    boolean full = true;
+                    for (int n : rows[r]) full &= game.isDrawn(n);
+                    if (full) expected.add(t + ":" + r);
+                }
+            }
+            Set<String> actual = new HashSet<>();
+            for (LoToGame.Winner w : last.winners()) {
+                actual.add(w.ticket() + ":" + w.row());
+                assertEquals(game.getOwner(w.ticket()), w.playerId());
+            }
+            assertEquals(expected, actual);
+            for (int i = 0; i < draws.size() - 1; i++) assertTrue(draws.get(i).winners().isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("Draws are paced by the shared timing wheel until someone wins")
+    void testEngineSchedulesDraws() {
+        AtomicLong now = new AtomicLong();
+        TimingWheel wheel = new TimingWheel(100, 512, now::get);
+        LoToEngine engine = new LoToEngine(new TurnManager(wheel), new InMemoryTicketBook(), 1_000);
+        UUID room = UUID.randomUUID();
+        AtomicInteger due = new AtomicInteger();
+        engine.setDrawHandler(roomId -> {
+            assertEquals(room, roomId);
+            due.incrementAndGet();
+            engine.draw(roomId);
+        });
+
+        assertFalse(engine.start(room));
+        for (int i = 0; i < 50; i++) engine.buyTicket(room, UUID.randomUUID());
+        assertTrue(engine.start(room));
+        assertEquals(1, wheel.pendingTimeouts());
+
+        now.addAndGet(999);
+        wheel.advance(now.get());
+        assertEquals(0, due.get());
+        while (engine.getGame(room) != null && now.get() < 200_000) {
+            now.addAndGet(100);
+            wheel.advance(now.get());
+        }
+        assertNull(engine.getGame(room), "finished game is removed");
+        assertTrue(due.get() >= LoToGame.ROW_SIZE);
+        assertEquals(0, wheel.pendingTimeouts());
+    }
+
+    @Test
+    @DisplayName("Tickets bought on any node are drawn by the node that starts the game")
+    void testSharedTicketBookAcrossNodes() {
+        InMemoryTicketBook book = new InMemoryTicketBook();
+        TimingWheel wheel = new TimingWheel(100, 512, () -> 0L);
+        LoToEngine nodeA = new LoToEngine(new TurnManager(wheel), book, 1_000);
+        LoToEngine nodeB = new LoToEngine(new TurnManager(wheel), book, 1_000);
+        UUID room = UUID.randomUUID(), alice = UUID.randomUUID(), bob = UUID.randomUUID();
+
+        LoToTicketBook.Ticket onA = nodeA.buyTicket(room, alice);
+        LoToTicketBook.Ticket onB = nodeB.buyTicket(room, bob);
+        assertEquals(0, onA.index());
+        assertEquals(1, onB.index());
+
+        assertTrue(nodeA.start(room));
+        assertFalse(nodeB.start(room), "only one node may draw");
+        assertNull(nodeB.buyTicket(room, bob), "book is closed once drawing starts");
+        assertNull(nodeB.getGame(room));
+
+        LoToGame game = nodeA.getGame(room);
+        assertEquals(2, game.getTicketCount());
+        assertEquals(bob, game.getOwner(1));
+        // tờ người mua nhận được ở node B trùng với tờ node A dò
+        assertArrayEquals(onB.rows(), game.ticketNumbers(1));
+        assertArrayEquals(onA.rows(), game.ticketNumbers(0));
+
+        nodeA.cancel(room);
+        assertNotNull(nodeB.buyTicket(room, bob), "a cancelled game reopens the book");
+    }
+
+    /** Sổ vé trong bộ nhớ với cùng ngữ nghĩa như RedisLoToTicketBook, dùng chung cho nhiều engine (node). */
+    private static class InMemoryTicketBook implements LoToTicketBook {
+        private final Map<UUID, List<Ticket>> books = new HashMap<>();
+        private final Set<UUID> started = new HashSet<>();
+
+        @Override
+        public synchronized Ticket add(UUID roomId, UUID owner, long seed) {
+            if (started.contains(roomId)) return null;
+            List<Ticket> book = books.computeIfAbsent(roomId, id -> new ArrayList<>());
+            Ticket ticket = new Ticket(book.size(), owner, seed);
+            book.add(ticket);
+            return ticket;
+        }
+
+        @Override
+        public synchronized boolean claimStart(UUID roomId, Duration drawLease) {
+            if (started.contains(roomId) || books.getOrDefault(roomId, List.of()).isEmpty()) return false;
+            return started.add(roomId);
+        }
+
+        @Override
+        public synchronized List<Ticket> tickets(UUID roomId) {
+            return List.copyOf(books.getOrDefault(roomId, List.of()));
+        }
+
+        @Override
+        public synchronized void clear(UUID roomId) {
+            books.remove(roomId);
+            started.remove(roomId);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.tetgame.modules.game.tienlen;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Card / Play flyweight Tests")
+class CardTest {
+
+    @Test
+    @DisplayName("Cards come from the canonical 52-entry table")
+    void testCanonicalCards() {
+        Card threeSpades = Card.of(CardSuit.SPADES, CardRank.THREE);
+        assertSame(threeSpades, Card.fromCode(3));
+        assertSame(threeSpades, Card.of("SPADES", "THREE"));
+        assertEquals(new Card(CardSuit.SPADES, CardRank.THREE), threeSpades);
+        assertSame(threeSpades.toString(), Card.fromCode(3).toString());
+        assertEquals("THREE_of_SPADES", threeSpades.toString());
+        assertNull(Card.of("SPADE", "THREE"));
+        assertNull(Card.of(null, "THREE"));
+    }
+
+    @Test
+    @DisplayName("Wire payload accepts integer codes and verbose maps")
+    void testParse() {
+        long expected = Card.fromCode(3).mask() | Card.fromCode(51).mask();
+        assertEquals(expected, CardMask.parse(List.of(3, 51)));
+        assertEquals(expected, CardMask.parse(List.of(3, Map.of("suit", "SPADES", "rank", "TWO"))));
+        assertEquals(0L, CardMask.parse(List.of()));
+
+        assertEquals(-1L, CardMask.parse(List.of(3, 3)));
+        assertEquals(-1L, CardMask.parse(List.of(52)));
+        assertEquals(-1L, CardMask.parse(List.of(-1)));
+        assertEquals(-1L, CardMask.parse(List.of(2.5)));
+        assertEquals(-1L, CardMask.parse(List.of(Map.of("suit", "SPADES"))));
+        assertEquals(-1L, CardMask.parse(List.of("THREE_of_SPADES")));
+        assertEquals(-1L, CardMask.parse(null));
+    }
+
+    @Test
+    @DisplayName("Same-rank plays are interned, other shapes are not")
+    void testPlayInterning() {
+        long pair = Card.fromCode(20).mask() | Card.fromCode(23).mask();
+        Play a = Play.fromMask(pair);
+        assertSame(a, Play.fromMask(pair));
+        assertSame(a, Play.fromCards(List.of(Card.fromCode(23), Card.fromCode(20))));
+        assertEquals(PlayType.PAIR, a.getType());
+        assertEquals(pair, a.getMask());
+        assertThrows(UnsupportedOperationException.class, () -> a.getCards().clear());
+
+        assertSame(Play.fromMask(1L << 51), Play.fromCards(List.of(Card.fromCode(51))));
+        assertEquals(PlayType.FOUR_OF_KIND, Play.fromMask(0xFL << 8).getType());
+
+        long straight = Card.fromCode(0).mask() | Card.fromCode(4).mask() | Card.fromCode(8).mask();
+        assertEquals(PlayType.STRAIGHT, Play.fromMask(straight).getType());
+        assertNotSame(Play.fromMask(straight), Play.fromMask(straight));
+        // lá trùng vẫn là bộ không hợp lệ
+        assertEquals(PlayType.INVALID, Play.fromCards(List.of(Card.fromCode(5), Card.fromCode(5))).getType());
+    }
+}
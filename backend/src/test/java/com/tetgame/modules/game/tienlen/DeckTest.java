@@ -2,7 +2,10 @@ package com.tetgame.modules.game.tienlen;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -21,4 +24,52 @@ public class DeckTest {
         // It's possible (extremely unlikely) they are same; just ensure method runs
         assertNotNull(after);
     }
+
+    @Test
+    public void testSeededShuffleIsReproduciblePermutation() {
+        ShuffledDeck a = DeckSource.shuffle(123L);
+        ShuffledDeck b = DeckSource.shuffle(123L);
+        assertArrayEquals(a.order(), b.order());
+
+        long all = 0L;
+        for (byte code : a.order()) all |= 1L << code;
+        assertEquals(CardMask.FULL_DECK, all);
+
+        long[] hands = a.dealMasks(4, 13);
+        long union = 0L;
+        for (long h : hands) {
+            assertEquals(13, Long.bitCount(h));
+            assertEquals(0L, union & h);
+            union |= h;
+        }
+        assertEquals(CardMask.FULL_DECK, union);
+    }
+
+    @Test
+    public void testDeckSourceRecordsSeedPerGame() {
+        DeckSource source = new DeckSource(8);
+        try {
+            Set<Long> seeds = new HashSet<>();
+            for (int i = 0; i < 32; i++) {
+                ShuffledDeck deck = source.next();
+                assertArrayEquals(DeckSource.shuffle(deck.seed()).order(), deck.order());
+                seeds.add(deck.seed());
+            }
+            assertEquals(32, seeds.size());
+        } finally {
+            source.close();
+        }
+    }
+
+    @Test
+    public void testGameCanBeReplayedFromSeed() {
+        GameEngine engine = new GameEngine(null);
+        List<UUID> players = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        GameState state = engine.startTienLenGame(UUID.randomUUID(), players);
+
+        long[] replay = DeckSource.shuffle(state.getDeckSeed()).dealMasks(4, 13);
+        for (int i = 0; i < players.size(); i++) {
+            assertEquals(replay[i], state.getHandMask(players.get(i)));
+        }
+    }
 }
@@ -0,0 +1,169 @@
+package com.tetgame.modules.game.tienlen;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("EndgameSolver Tests")
+class EndgameSolverTest {
+
+    // hạn thời gian rộng để kết quả chỉ phụ thuộc trần số nút, không phụ thuộc tốc độ máy
+    private final EndgameSolver solver = new EndgameSolver(16, TimeUnit.SECONDS.toNanos(30));
+    private final GameEngine engine = new GameEngine(null);
+
+    // mã lá = rank * 4 + suit (3♠ = 0, 2♥ = 51)
+    private static long cards(int... codes) {
+        long mask = 0L;
+        for (int c : codes) mask |= 1L << c;
+        return mask;
+    }
+
+    private static GameState state(long... hands) {
+        List<UUID> players = new ArrayList<>();
+        for (int i = 0; i < hands.length; i++) players.add(UUID.randomUUID());
+        GameState state = new GameState(UUID.randomUUID(), players);
+        for (int s = 0; s < hands.length; s++) state.setHand(s, hands[s]);
+        state.setCurrentTurnIndex(0);
+        return state;
+    }
+
+    @Test
+    @DisplayName("Leading the unbeatable card first wins")
+    void testLeadHighestFirst() {
+        // ghế 0: 3♠ + 2♥, ghế 1: 4♠ → đánh 2♥ trước rồi về bằng 3♠
+        EndgameSolver.Result r = solver.solve(new long[]{cards(0, 51), cards(4)}, 0, null, 0, 0);
+        assertTrue(r.forced());
+        assertEquals(cards(51), r.move().getMask());
+    }
+
+    @Test
+    @DisplayName("Opponent with a single high card finishes first")
+    void testForcedLoss() {
+        // ghế 0 phải đánh 3♠ hoặc 5♠, ghế 1 còn 2♥ chặt được rồi về
+        GameState state = state(cards(0, 8), cards(51));
+        assertFalse(solver.solve(state, 0).forced());
+        assertEquals(1, solver.forcedWinner(state));
+    }
+
+    @Test
+    @DisplayName("Beating the pile wins where passing loses")
+    void testBeatPile() {
+        // pile 6♠, ghế 0 cầm 3♠ + 7♠, ghế 1 cầm đôi 4: chặt 7♠ thì ghế 1 không chặn được, ghế 0 về bằng 3♠;
+        // bỏ lượt thì ghế 1 được đi tự do với đôi 4 rồi về
+        Play pile = Play.fromMask(cards(12));
+        EndgameSolver.Result r = solver.solve(new long[]{cards(0, 16), cards(4, 5)}, 0, pile, 0, 0);
+        assertTrue(r.forced());
+        assertEquals(cards(16), r.move().getMask());
+
+        // chỉ còn 3♠ thì buộc phải bỏ lượt và thua
+        assertEquals(EndgameSolver.Result.NONE, solver.solve(new long[]{cards(0), cards(4, 5)}, 0, pile, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Hands larger than the limit are not solved")
+    void testOutsideEndgame() {
+        GameState state = state(cards(0, 1, 2, 4, 5, 6, 8), cards(51));
+        assertFalse(EndgameSolver.isEndgame(state));
+        assertEquals(-1, solver.forcedWinner(state));
+    }
+
+    @Test
+    @DisplayName("Auto-finish declares the forced winner without playing anyone's cards")
+    void testAutoFinishDeclaresWinner() {
+        Random random = new Random(7);
+        int forced = 0;
+        for (int game = 0; game < 300; game++) {
+            int players = 2 + random.nextInt(3);
+            long[] deal = DeckSource.shuffle(random.nextLong()).dealMasks(players, 13);
+            long[] hands = new long[players];
+            for (int s = 0; s < players; s++) {
+                int keep = 1 + random.nextInt(EndgameSolver.MAX_HAND);
+                for (long m = deal[s]; m != 0L && keep-- > 0; m &= m - 1) hands[s] |= Long.lowestOneBit(m);
+            }
+            GameState state = state(hands);
+            state.setCurrentTurnIndex(random.nextInt(players));
+            int winner = solver.forcedWinner(state);
+            if (winner < 0) {
+                assertFalse(solver.autoFinish(state));
+                assertEquals(0, state.getFinishedSeats());
+                assertNull(engine.checkGameEnd(state));
+                continue;
+            }
+            forced++;
+            assertTrue(solver.autoFinish(state));
+            assertEquals(state.getPlayer(winner), engine.checkGameEnd(state).get(0));
+            assertEquals(0, state.getJournal().size());
+            for (int s = 0; s < players; s++) assertEquals(hands[s], state.getHand(s).getMask());
+        }
+        assertTrue(forced > 0);
+        assertTrue(solver.hitCount() > 0, "transposition table should be reused across re-solves");
+    }
+
+    @Test
+    @DisplayName("A forced winner still finishes first against any replies the engine accepts")
+    void testForcedWinnerHoldsUnderEngineRules() {
+        Random random = new Random(11);
+        int forced = 0;
+        for (int game = 0; game < 200; game++) {
+            int players = 2 + random.nextInt(3);
+            long[] deal = DeckSource.shuffle(random.nextLong()).dealMasks(players, 13);
+            long[] hands = new long[players];
+            for (int s = 0; s < players; s++) {
+                int keep = 1 + random.nextInt(EndgameSolver.MAX_HAND);
+                for (long m = deal[s]; m != 0L && keep-- > 0; m &= m - 1) hands[s] |= Long.lowestOneBit(m);
+            }
+            GameState state = state(hands);
+            state.setCurrentTurnIndex(random.nextInt(players));
+            int winner = solver.forcedWinner(state);
+            if (winner < 0) continue;
+            forced++;
+            // ghế thắng đi theo lời giải, các ghế khác đi ngẫu nhiên trong số nước engine chấp nhận
+            while (engine.checkGameEnd(state) == null) {
+                int seat = state.getCurrentSeat();
+                UUID player = state.getPlayer(seat);
+                long[] masks = new long[players];
+                for (int s = 0; s < players; s++) masks[s] = state.getHand(s).getMask();
+                Play move;
+                if (seat == winner) {
+                    EndgameSolver.Result r = solver.solve(masks, seat, state.getCurrentPile(), state.getPassedSeats(), winner);
+                    assertTrue(r.forced());
+                    move = r.move();
+                } else {
+                    List<Play> options = new ArrayList<>(MoveGenerator.legalPlays(masks[seat], state.getCurrentPile()));
+                    if (state.getCurrentPile() != null) options.add(null);
+                    move = options.get(random.nextInt(options.size()));
+                }
+                if (move != null) {
+                    assertTrue(engine.playMove(state, player, move.getMask()));
+                } else {
+                    assertTrue(engine.validatePass(state, player));
+                    engine.pass(state, player);
+                }
+            }
+            assertEquals(state.getPlayer(winner), engine.checkGameEnd(state).get(0));
+        }
+        assertTrue(forced > 0);
+    }
+
+    @Test
+    @DisplayName("Declared winner is paid first even while still holding cards")
+    void testSettlementAfterAutoFinish() {
+        // ghế 1 còn 2♥ chắc chắn về nhất; ghế 0 (2 lá) vẫn xếp trên ghế 2 (3 lá) theo bài đang cầm
+        GameState state = state(cards(0, 8), cards(51), cards(1, 9, 13));
+        state.setCurrentTurnIndex(1);
+        assertTrue(solver.autoFinish(state));
+        List<UUID> rankings = engine.checkGameEnd(state);
+        assertEquals(List.of(state.getPlayer(1), state.getPlayer(0), state.getPlayer(2)), rankings);
+        var deltas = SettlementEngine.settle(state, com.tetgame.modules.room.entity.BetLevel.BAN1);
+        assertEquals(10_000, deltas.get(state.getPlayer(1)));
+        assertEquals(5_000, deltas.get(state.getPlayer(0)));
+        assertEquals(-5_000, deltas.get(state.getPlayer(2)));
+    }
+}
@@ -224,10 +224,12 @@ class GameEngineTest {
     @DisplayName("Should mark player as passed")
     void testPassMarkPlayer() {
         UUID room = UUID.randomUUID();
-        List<UUID> players = Arrays.asList(UUID.randomUUID(), UUID.randomUUID());
+        List<UUID> players = Arrays.asList(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
         GameState state = gameEngine.startTienLenGame(room, players);
 
         UUID player = players.get(0);
+        // cầm cái thì không được bỏ lượt: cần có bài trên bàn
+        state.setCurrentPile(Play.fromMask(Card.fromCode(0).mask()));
         Set<UUID> passedBefore = new HashSet<>(state.getPassedThisTurn());
 
         gameEngine.pass(state, player);
@@ -244,6 +246,7 @@ class GameEngineTest {
         UUID player2 = UUID.randomUUID();
         List<UUID> players = Arrays.asList(player1, player2);
         GameState state = gameEngine.startTienLenGame(room, players);
+        state.setCurrentPile(Play.fromMask(Card.fromCode(0).mask()));
 
         UUID currentBeforePass = state.getCurrentPlayer();
         gameEngine.pass(state, player1);
@@ -265,6 +268,7 @@ class GameEngineTest {
         Play pile = new Play(PlayType.SINGLE, 
             Arrays.asList(new Card(CardSuit.SPADES, CardRank.THREE)), 3);
         state.setCurrentPile(pile);
+        state.setCurrentTurnIndex(1);
 
         // Player2 passes (only player left is player1)
         gameEngine.pass(state, player2);
@@ -272,6 +276,51 @@ class GameEngineTest {
         assertNull(state.getCurrentPile());
     }
 
+    @Test
+    @DisplayName("Should reject passing on lead and moves out of turn")
+    void testTurnAndLeadRules() {
+        List<UUID> players = Arrays.asList(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        GameState state = new GameState(UUID.randomUUID(), players);
+        state.setHand(0, Card.fromCode(0).mask() | Card.fromCode(40).mask());
+        state.setHand(1, Card.fromCode(1).mask() | Card.fromCode(41).mask());
+        state.setHand(2, Card.fromCode(2).mask() | Card.fromCode(42).mask());
+
+        // cầm cái thì không được bỏ lượt, người chưa tới lượt không được đánh
+        assertFalse(gameEngine.validatePass(state, players.get(0)));
+        assertFalse(gameEngine.pass(state, players.get(0)));
+        assertEquals(0, state.getJournal().size());
+        assertFalse(gameEngine.playMove(state, players.get(1), Card.fromCode(1).mask()));
+
+        assertTrue(gameEngine.playMove(state, players.get(0), Card.fromCode(0).mask()));
+        assertFalse(gameEngine.validatePass(state, players.get(2)));
+        assertTrue(gameEngine.validatePass(state, players.get(1)));
+    }
+
+    @Test
+    @DisplayName("Should keep a passed player out until the pile clears")
+    void testPassedPlayerLockedUntilPileClears() {
+        List<UUID> players = Arrays.asList(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        GameState state = new GameState(UUID.randomUUID(), players);
+        state.setHand(0, Card.fromCode(0).mask() | Card.fromCode(40).mask());
+        state.setHand(1, Card.fromCode(4).mask() | Card.fromCode(41).mask());
+        state.setHand(2, Card.fromCode(8).mask() | Card.fromCode(44).mask());
+
+        assertTrue(gameEngine.playMove(state, players.get(0), Card.fromCode(0).mask()));
+        assertFalse(gameEngine.pass(state, players.get(1)));
+        assertTrue(gameEngine.playMove(state, players.get(2), Card.fromCode(8).mask()));
+        // ghế 1 đã bỏ nên bị bỏ qua, lượt về ghế 0
+        assertEquals(0, state.getCurrentSeat());
+        assertTrue(state.hasPassed(1));
+        state.setCurrentTurnIndex(1);
+        assertFalse(gameEngine.playMove(state, players.get(1), Card.fromCode(41).mask()));
+        state.setCurrentTurnIndex(0);
+        assertTrue(gameEngine.pass(state, players.get(0)));
+        // ghế 0 bỏ nốt: chỉ còn ghế 2, bàn được xóa và ghế 2 đi tự do
+        assertNull(state.getCurrentPile());
+        assertEquals(2, state.getCurrentSeat());
+        assertFalse(state.hasPassed(1));
+    }
+
     // ========== CHECK GAME END TESTS ==========
 
     @Test
@@ -0,0 +1,82 @@
+package com.tetgame.modules.game.tienlen;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GameStateCodec Tests")
+class GameStateCodecTest {
+
+    private final GameEngine gameEngine = new GameEngine(null);
+
+    @Test
+    @DisplayName("Mid-game state round-trips through the binary snapshot")
+    void testRoundTrip() {
+        List<UUID> players = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        GameState state = gameEngine.startTienLenGame(UUID.randomUUID(), players);
+        for (int i = 0; i < 6; i++) {
+            UUID current = state.getCurrentPlayer();
+            List<Play> legal = gameEngine.getLegalPlays(state, current);
+            if (legal.isEmpty() || i % 3 == 2) gameEngine.pass(state, current);
+            else gameEngine.playMove(state, current, legal.get(0).getCards());
+        }
+
+        state.setRevision(7);
+        byte[] bytes = GameStateCodec.encode(state);
+        assertTrue(bytes.length < 400, "snapshot is " + bytes.length + " bytes");
+        GameState copy = GameStateCodec.decode(bytes);
+
+        assertEquals(state.getRoomId(), copy.getRoomId());
+        assertEquals(state.getTurnOrder(), copy.getTurnOrder());
+        assertEquals(state.getCurrentTurnIndex(), copy.getCurrentTurnIndex());
+        assertEquals(state.getPassedSeats(), copy.getPassedSeats());
+        assertEquals(state.getDeckSeed(), copy.getDeckSeed());
+        assertEquals(7, copy.getRevision());
+        for (int seat = 0; seat < players.size(); seat++) {
+            assertEquals(state.getHand(seat).getMask(), copy.getHand(seat).getMask());
+        }
+        if (state.getCurrentPile() == null) assertNull(copy.getCurrentPile());
+        else {
+            assertEquals(state.getCurrentPile().getMask(), copy.getCurrentPile().getMask());
+            assertEquals(state.getCurrentPile().getType(), copy.getCurrentPile().getType());
+        }
+        assertEquals(state.getGameLog(), copy.getGameLog());
+        assertArrayEquals(bytes, GameStateCodec.encode(copy));
+    }
+
+    @Test
+    @DisplayName("Undealt seats stay null and unknown versions are rejected")
+    void testUndealtAndVersion() {
+        GameState state = new GameState(UUID.randomUUID(), List.of(UUID.randomUUID(), UUID.randomUUID()));
+        state.setHand(1, CardMask.FULL_DECK);
+        GameState copy = GameStateCodec.decode(GameStateCodec.encode(state));
+        assertNull(copy.getHand(0));
+        assertEquals(CardMask.FULL_DECK, copy.getHand(1).getMask());
+
+        byte[] bytes = GameStateCodec.encode(state);
+        bytes[0] = 99;
+        assertThrows(IllegalArgumentException.class, () -> GameStateCodec.decode(bytes));
+        assertThrows(IllegalArgumentException.class, () -> GameStateCodec.decode(new byte[]{GameStateCodec.VERSION, 1}));
+    }
+
+    @Test
+    @DisplayName("Version 1 snapshots without a revision still decode")
+    void testVersion1Snapshot() {
+        GameState state = new GameState(UUID.randomUUID(), List.of(UUID.randomUUID(), UUID.randomUUID()));
+        state.setHand(0, CardMask.FULL_DECK);
+        state.setRevision(3);
+        byte[] v2 = GameStateCodec.encode(state);
+        byte[] v1 = new byte[v2.length - 4];
+        v1[0] = 1;
+        System.arraycopy(v2, 5, v1, 1, v1.length - 1);
+
+        GameState copy = GameStateCodec.decode(v1);
+        assertEquals(0, copy.getRevision());
+        assertEquals(state.getRoomId(), copy.getRoomId());
+        assertEquals(CardMask.FULL_DECK, copy.getHand(0).getMask());
+    }
+}
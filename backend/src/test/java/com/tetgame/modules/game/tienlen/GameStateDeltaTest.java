@@ -0,0 +1,101 @@
+package com.tetgame.modules.game.tienlen;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GameStateDelta Tests")
+class GameStateDeltaTest {
+
+    private final List<UUID> players = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+
+    private GameState dealt() {
+        GameState state = new GameState(UUID.randomUUID(), players);
+        state.setHand(0, Card.fromCode(0).mask() | Card.fromCode(5).mask() | Card.fromCode(9).mask());
+        state.setHand(1, Card.fromCode(1).mask() | Card.fromCode(20).mask());
+        state.setHand(2, Card.fromCode(2).mask() | Card.fromCode(30).mask());
+        // ghế 0 đánh lá 0, ghế 1 bỏ lượt
+        state.logMove(0, Card.fromCode(0).mask());
+        state.setHand(0, Card.fromCode(5).mask() | Card.fromCode(9).mask());
+        state.setCurrentPile(Play.fromMask(Card.fromCode(0).mask()));
+        state.nextTurn();
+        state.markPass(1);
+        state.logMove(1, 0L);
+        state.nextTurn();
+        return state;
+    }
+
+    @Test
+    @DisplayName("Delta carries only moves since fromSeq and hand counts of seats that played")
+    @SuppressWarnings("unchecked")
+    void testDeltaSinceSeq() {
+        GameState state = dealt();
+        state.logMove(2, Card.fromCode(30).mask());
+        state.setHand(2, Card.fromCode(2).mask());
+        state.setCurrentPile(Play.fromMask(Card.fromCode(30).mask()));
+
+        Map<String, Object> delta = GameStateDelta.delta(state, 2);
+        assertEquals("game.delta", delta.get("type"));
+        assertEquals(2, delta.get("fromSeq"));
+        assertEquals(3, delta.get("seq"));
+        List<Map<String, Object>> moves = (List<Map<String, Object>>) delta.get("moves");
+        assertEquals(1, moves.size());
+        assertEquals(players.get(2).toString(), moves.get(0).get("playerId"));
+        assertArrayEquals(new int[]{30}, (int[]) moves.get(0).get("cards"));
+        assertArrayEquals(new int[]{30}, (int[]) delta.get("currentPile"));
+        assertEquals(Map.of(players.get(2).toString(), 1), delta.get("hands"));
+        assertEquals(List.of(players.get(1).toString()), delta.get("passedThisTurn"));
+        assertFalse(delta.containsKey("log"));
+    }
+
+    @Test
+    @DisplayName("Pass moves have no cards and change no hand counts")
+    @SuppressWarnings("unchecked")
+    void testPassDelta() {
+        GameState state = dealt();
+        Map<String, Object> delta = GameStateDelta.delta(state, 1);
+        List<Map<String, Object>> moves = (List<Map<String, Object>>) delta.get("moves");
+        assertEquals(1, moves.size());
+        assertEquals(0, ((int[]) moves.get(0).get("cards")).length);
+        assertTrue(((Map<String, Integer>) delta.get("hands")).isEmpty());
+        assertEquals(players.get(2).toString(), delta.get("currentPlayer"));
+    }
+
+    @Test
+    @DisplayName("Snapshot has every hand count and the full log at the current seq")
+    @SuppressWarnings("unchecked")
+    void testSnapshot() {
+        GameState state = dealt();
+        Map<String, Object> snapshot = GameStateDelta.snapshot(state);
+        assertEquals("game.snapshot", snapshot.get("type"));
+        assertEquals(2, snapshot.get("seq"));
+        Map<String, Integer> hands = (Map<String, Integer>) snapshot.get("hands");
+        assertEquals(3, hands.size());
+        assertEquals(2, hands.get(players.get(0).toString()));
+        assertEquals(2, ((List<?>) snapshot.get("log")).size());
+    }
+
+    @Test
+    @DisplayName("Journal can be iterated from a move index")
+    void testForEachSince() {
+        MoveJournal journal = new MoveJournal(0L);
+        journal.append(0, Card.fromCode(3).mask() | Card.fromCode(7).mask(), 10);
+        journal.append(1, 0L, 20);
+        journal.append(2, Card.fromCode(51).mask(), 300);
+
+        long[] seen = new long[3];
+        int[] count = {0};
+        journal.forEachSince(1, (seat, mask, ts) -> {
+            seen[count[0]++] = mask;
+            if (seat == 2) assertEquals(300, ts);
+        });
+        assertEquals(2, count[0]);
+        assertEquals(0L, seen[0]);
+        assertEquals(1L << 51, seen[1]);
+    }
+}
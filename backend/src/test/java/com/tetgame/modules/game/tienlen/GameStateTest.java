@@ -0,0 +1,62 @@
+package com.tetgame.modules.game.tienlen;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GameState Tests")
+class GameStateTest {
+
+    private final List<UUID> players = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+
+    @Test
+    @DisplayName("Seats follow turn order and wrap around")
+    void testSeatsAndTurns() {
+        GameState state = new GameState(UUID.randomUUID(), players);
+        assertEquals(3, state.getSeatCount());
+        assertEquals(2, state.seatOf(players.get(2)));
+        assertEquals(-1, state.seatOf(UUID.randomUUID()));
+
+        state.nextTurn();
+        state.nextTurn();
+        assertEquals(players.get(2), state.getCurrentPlayer());
+        state.nextTurn();
+        assertEquals(0, state.getCurrentSeat());
+    }
+
+    @Test
+    @DisplayName("Passed seats are a bitmask exposed as a Set<UUID> view")
+    void testPassedSeats() {
+        GameState state = new GameState(UUID.randomUUID(), players);
+        state.markPass(players.get(1));
+        state.markPass(2);
+
+        assertTrue(state.areAllOthersPass(0));
+        assertTrue(state.areAllOthersPass(players.get(0)));
+        assertFalse(state.areAllOthersPass(1));
+        assertEquals(2, state.getPassedThisTurn().size());
+        assertTrue(state.getPassedThisTurn().contains(players.get(1)));
+        assertFalse(state.getPassedThisTurn().contains(players.get(0)));
+
+        state.resetPassedThisTurn();
+        assertTrue(state.getPassedThisTurn().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Hands are stored per seat and reject unknown players")
+    void testHandsPerSeat() {
+        GameState state = new GameState(UUID.randomUUID(), players);
+        long mask = new Card(CardSuit.HEARTS, CardRank.FIVE).mask();
+        state.setHand(players.get(1), mask);
+
+        assertEquals(mask, state.getHand(1).getMask());
+        assertEquals(1, state.getCardCount(1));
+        assertNull(state.getHand(players.get(0)));
+        assertEquals(List.of(players.get(1)), List.copyOf(state.getHands().keySet()));
+        assertThrows(IllegalArgumentException.class, () -> state.setHand(UUID.randomUUID(), mask));
+    }
+}
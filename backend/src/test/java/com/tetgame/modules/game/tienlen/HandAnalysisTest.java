@@ -0,0 +1,74 @@
+package com.tetgame.modules.game.tienlen;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("HandAnalysis Tests")
+class HandAnalysisTest {
+
+    private static long cards(int... codes) {
+        long mask = 0L;
+        for (int c : codes) mask |= Card.fromCode(c).mask();
+        return mask;
+    }
+
+    @Test
+    @DisplayName("Incremental updates match a fresh analysis after every move")
+    void testIncrementalMatchesFresh() {
+        Random random = new Random(42);
+        for (int game = 0; game < 500; game++) {
+            long deal = DeckSource.shuffle(random.nextLong()).dealMasks(4, 13)[0];
+            Hand hand = new Hand(deal);
+            while (!hand.isEmpty()) {
+                List<Play> plays = MoveGenerator.legalPlays(hand.analysis(), null);
+                assertEquals(MoveGenerator.legalPlays(hand.getMask(), null).size(), plays.size());
+                hand.removeMask(plays.get(random.nextInt(plays.size())).getMask());
+
+                HandAnalysis fresh = new Hand(hand.getMask()).analysis();
+                HandAnalysis live = hand.analysis();
+                assertEquals(fresh.getHistogram(), live.getHistogram());
+                assertEquals(fresh.getCardCount(), live.getCardCount());
+                assertEquals(fresh.hasBomb(), live.hasBomb());
+                assertFalse(live.isToiTrang());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Bomb availability flags")
+    void testBombs() {
+        // tứ quý 7
+        assertTrue(new Hand(cards(16, 17, 18, 19, 0)).analysis().hasQuads());
+        // 3 đôi thông 3-4-5
+        HandAnalysis pairs = new Hand(cards(0, 1, 4, 5, 8, 9)).analysis();
+        assertTrue(pairs.hasConsecutivePairs(3));
+        assertFalse(pairs.hasConsecutivePairs(4));
+        assertTrue(pairs.hasBomb());
+        // 3 đôi không liền nhau
+        assertFalse(new Hand(cards(0, 1, 4, 5, 12, 13)).analysis().hasBomb());
+    }
+
+    @Test
+    @DisplayName("Tới trắng is flagged at deal and cleared once a card leaves the hand")
+    void testToiTrangFlag() {
+        long tuQuyHeo = cards(48, 49, 50, 51, 0, 5, 10, 15, 20, 25, 30, 35, 40);
+        GameState state = new GameState(java.util.UUID.randomUUID(),
+            List.of(java.util.UUID.randomUUID(), java.util.UUID.randomUUID()));
+        state.setHand(0, tuQuyHeo);
+        state.setHand(1, cards(1, 2, 3));
+
+        assertTrue(state.getAnalysis(0).isToiTrang());
+        assertFalse(state.getAnalysis(1).isToiTrang());
+        assertEquals(HandValidator.laToiTrang(tuQuyHeo), state.getAnalysis(0).isToiTrang());
+
+        state.getHand(0).remove(Card.fromCode(0));
+        assertFalse(state.getAnalysis(0).isToiTrang());
+        assertEquals(12, state.getCardCount(0));
+        assertEquals(4, state.getAnalysis(0).count(CardRank.TWO.ordinal()));
+    }
+}
@@ -0,0 +1,58 @@
+package com.tetgame.modules.game.tienlen;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HandTest {
+
+    @Test
+    public void testCardCodesAreUniqueAndOrderedByRank() {
+        Card threeClubs = new Card(CardSuit.CLUBS, CardRank.THREE);
+        Card twoSpades = new Card(CardSuit.SPADES, CardRank.TWO);
+        assertEquals(0, threeClubs.code());
+        assertEquals(51, twoSpades.code());
+        assertEquals(twoSpades, Card.fromCode(51));
+        assertEquals(CardMask.FULL_DECK, CardMask.of(new Deck().getCards()));
+    }
+
+    @Test
+    public void testHandBehavesLikeList() {
+        Card a = new Card(CardSuit.HEARTS, CardRank.ACE);
+        Card b = new Card(CardSuit.CLUBS, CardRank.FIVE);
+        Card c = new Card(CardSuit.SPADES, CardRank.THREE);
+        Hand hand = new Hand(List.of(a, b, c));
+
+        assertEquals(3, hand.size());
+        assertEquals(List.of(c, b, a), hand); // luôn tăng dần theo mã lá
+        assertTrue(hand.containsAll(List.of(a, c)));
+
+        hand.removeAll(List.of(a));
+        assertFalse(hand.contains(a));
+        assertEquals(2, hand.size());
+
+        hand.retainAll(hand.subList(0, 1));
+        assertEquals(List.of(c), hand);
+    }
+
+    @Test
+    public void testMaskOperations() {
+        Card a = new Card(CardSuit.HEARTS, CardRank.ACE);
+        Card b = new Card(CardSuit.CLUBS, CardRank.FIVE);
+        Hand hand = new Hand(a.mask() | b.mask());
+
+        assertTrue(hand.containsMask(a.mask()));
+        assertFalse(hand.containsMask(new Card(CardSuit.SPADES, CardRank.ACE).mask()));
+        hand.removeMask(b.mask());
+        assertEquals(a.mask(), hand.getMask());
+        assertEquals(1, CardMask.rankCount(hand.getMask(), CardRank.ACE.ordinal()));
+    }
+
+    @Test
+    public void testDuplicateCardsAreNotAValidPlay() {
+        Card a = new Card(CardSuit.HEARTS, CardRank.ACE);
+        assertEquals(PlayType.INVALID, Play.fromCards(List.of(a, a)).getType());
+    }
+}
@@ -52,4 +52,48 @@ public class HandValidatorTest {
         );
         assertTrue(HandValidator.laToiTrang(cards));
     }
+
+    @Test
+    public void testStraightAndConsecutivePairs() {
+        List<Card> straight = List.of(
+            new Card(CardSuit.CLUBS, CardRank.NINE), new Card(CardSuit.HEARTS, CardRank.TEN),
+            new Card(CardSuit.SPADES, CardRank.JACK)
+        );
+        assertEquals(HandType.STRAIGHT, HandValidator.classify(straight));
+
+        List<Card> broken = List.of(
+            new Card(CardSuit.CLUBS, CardRank.NINE), new Card(CardSuit.HEARTS, CardRank.TEN),
+            new Card(CardSuit.SPADES, CardRank.QUEEN)
+        );
+        assertEquals(HandType.OTHER, HandValidator.classify(broken));
+
+        List<Card> doiThong = List.of(
+            new Card(CardSuit.CLUBS, CardRank.FIVE), new Card(CardSuit.HEARTS, CardRank.FIVE),
+            new Card(CardSuit.CLUBS, CardRank.SIX), new Card(CardSuit.HEARTS, CardRank.SIX),
+            new Card(CardSuit.CLUBS, CardRank.SEVEN), new Card(CardSuit.HEARTS, CardRank.SEVEN)
+        );
+        assertEquals(HandType.CONSECUTIVE_PAIRS, HandValidator.classify(doiThong));
+        assertEquals(7, Play.fromCards(doiThong).getPrimaryRankValue());
+    }
+
+    @Test
+    public void testTripleFourOfKindAndMixed() {
+        Card a = new Card(CardSuit.CLUBS, CardRank.KING);
+        Card b = new Card(CardSuit.HEARTS, CardRank.KING);
+        Card c = new Card(CardSuit.SPADES, CardRank.KING);
+        Card d = new Card(CardSuit.DIAMONDS, CardRank.KING);
+        assertEquals(HandType.TRIPLE, HandValidator.classify(List.of(a, b, c)));
+        assertEquals(HandType.FOUR_OF_KIND, HandValidator.classify(List.of(a, b, c, d)));
+        assertEquals(HandType.OTHER, HandValidator.classify(List.of(a, b, new Card(CardSuit.CLUBS, CardRank.ACE))));
+    }
+
+    @Test
+    public void testNormalHandIsNotToiTrang() {
+        List<Card> cards = List.of(
+            new Card(CardSuit.CLUBS, CardRank.THREE), new Card(CardSuit.HEARTS, CardRank.THREE),
+            new Card(CardSuit.CLUBS, CardRank.FIVE), new Card(CardSuit.CLUBS, CardRank.SEVEN),
+            new Card(CardSuit.CLUBS, CardRank.TWO), new Card(CardSuit.HEARTS, CardRank.TWO)
+        );
+        assertFalse(HandValidator.laToiTrang(cards));
+    }
 }
@@ -0,0 +1,89 @@
+package com.tetgame.modules.game.tienlen;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("MoveGenerator Tests")
+class MoveGeneratorTest {
+
+    @Test
+    @DisplayName("Leading: generator matches brute force over all subsets")
+    void testMatchesBruteForceWhenLeading() {
+        Random rnd = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            long hand = randomHand(rnd, 10);
+            assertEquals(bruteForce(hand, null), shapes(MoveGenerator.legalPlays(hand, null)));
+        }
+    }
+
+    @Test
+    @DisplayName("Following: generator matches brute force against random piles")
+    void testMatchesBruteForceAgainstPile() {
+        Random rnd = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            long hand = randomHand(rnd, 10);
+            List<Play> options = MoveGenerator.legalPlays(randomHand(rnd, 13), null);
+            Play pile = options.get(rnd.nextInt(options.size()));
+            Set<String> expected = bruteForce(hand, pile);
+            assertEquals(expected, shapes(MoveGenerator.legalPlays(hand, pile)));
+            assertEquals(!expected.isEmpty(), MoveGenerator.hasLegalPlay(hand, pile));
+        }
+    }
+
+    @Test
+    @DisplayName("Generated plays only use cards from the hand and beat the pile")
+    void testPlaysAreOwnedAndBeatPile() {
+        long hand = randomHand(new Random(1), 13);
+        Play pile = Play.fromCards(List.of(new Card(CardSuit.CLUBS, CardRank.SIX)));
+        for (Play p : MoveGenerator.legalPlays(hand, pile)) {
+            assertTrue(CardMask.containsAll(hand, p.getMask()));
+            assertTrue(p.beats(pile));
+            assertEquals(p.getType(), Play.fromCards(p.getCards()).getType());
+        }
+    }
+
+    @Test
+    @DisplayName("No legal play over the highest single")
+    void testNoBeatOverTopSingle() {
+        long hand = new Card(CardSuit.CLUBS, CardRank.THREE).mask() | new Card(CardSuit.HEARTS, CardRank.NINE).mask();
+        Play pile = Play.fromCards(List.of(new Card(CardSuit.SPADES, CardRank.TWO)));
+        assertFalse(MoveGenerator.hasLegalPlay(hand, pile));
+        assertTrue(MoveGenerator.legalPlays(hand, pile).isEmpty());
+    }
+
+    private static long randomHand(Random rnd, int size) {
+        long hand = 0L;
+        while (Long.bitCount(hand) < size) hand |= 1L << rnd.nextInt(CardMask.DECK_SIZE);
+        return hand;
+    }
+
+    // (loại, số lá, rank cao nhất) của mọi tập con hợp lệ chặt được pile
+    private static Set<String> bruteForce(long hand, Play pile) {
+        int[] codes = new int[Long.bitCount(hand)];
+        int n = 0;
+        for (long m = hand; m != 0L; m &= m - 1) codes[n++] = Long.numberOfTrailingZeros(m);
+        Set<String> result = new TreeSet<>();
+        for (int sub = 1; sub < (1 << n); sub++) {
+            long mask = 0L;
+            for (int i = 0; i < n; i++) if ((sub & (1 << i)) != 0) mask |= 1L << codes[i];
+            Play p = Play.fromMask(mask);
+            if (p.getType() != PlayType.INVALID && p.beats(pile)) result.add(shape(p));
+        }
+        return result;
+    }
+
+    private static Set<String> shapes(List<Play> plays) {
+        Set<String> result = new TreeSet<>();
+        for (Play p : plays) result.add(shape(p));
+        assertEquals(plays.size(), result.size(), "generator should not emit duplicate shapes");
+        return result;
+    }
+
+    private static String shape(Play p) {
+        return p.getType() + "/" + p.getCards().size() + "/" + p.getPrimaryRankValue();
+    }
+}
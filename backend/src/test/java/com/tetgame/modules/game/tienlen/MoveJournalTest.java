@@ -0,0 +1,116 @@
+package com.tetgame.modules.game.tienlen;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("MoveJournal Tests")
+class MoveJournalTest {
+
+    @Test
+    @DisplayName("Moves round-trip seat, mask and timestamp")
+    void testRoundTrip() {
+        long start = 1_700_000_000_000L;
+        MoveJournal journal = new MoveJournal(start);
+        long straight = Card.fromCode(12).mask() | Card.fromCode(17).mask() | Card.fromCode(20).mask();
+        journal.append(0, straight, start + 1500);
+        journal.append(1, 0L, start + 1500);
+        journal.append(3, Card.fromCode(51).mask(), start + 400_000);
+
+        List<long[]> moves = new ArrayList<>();
+        journal.forEach((seat, mask, ts) -> moves.add(new long[]{seat, mask, ts}));
+        assertEquals(3, journal.size());
+        assertArrayEquals(new long[]{0, straight, start + 1500}, moves.get(0));
+        assertArrayEquals(new long[]{1, 0L, start + 1500}, moves.get(1));
+        assertArrayEquals(new long[]{3, 1L << 51, start + 400_000}, moves.get(2));
+        // header + 3 lá + 2 byte varint, header + 1 byte, header + 1 lá + 3 byte varint
+        assertEquals(6 + 2 + 5, journal.byteSize());
+    }
+
+    @Test
+    @DisplayName("Journal restored from bytes keeps appending")
+    void testFromBytes() {
+        MoveJournal journal = new MoveJournal(0L);
+        journal.append(2, Card.fromCode(5).mask(), 10);
+        MoveJournal copy = MoveJournal.fromBytes(0L, journal.toBytes());
+        copy.append(0, 0L, 25);
+
+        assertEquals(2, copy.size());
+        List<Long> times = new ArrayList<>();
+        copy.forEach((seat, mask, ts) -> times.add(ts));
+        assertEquals(List.of(10L, 25L), times);
+    }
+
+    @Test
+    @DisplayName("Plays of 16+ cards round-trip without corrupting later moves")
+    void testLongPlayRoundTrip() {
+        // 8 đôi thông 3..10 (ván 2 người), rồi một nước thường phía sau
+        long pairs = 0L;
+        for (int rank = 0; rank < 8; rank++) pairs |= Card.fromCode(rank * 4).mask() | Card.fromCode(rank * 4 + 1).mask();
+        MoveJournal journal = new MoveJournal(0L);
+        journal.append(1, pairs, 200);
+        journal.append(0, Card.fromCode(51).mask(), 70_000);
+        journal.append(1, 0L, 70_100);
+
+        MoveJournal copy = MoveJournal.fromBytes(0L, journal.toBytes());
+        for (MoveJournal j : List.of(journal, copy)) {
+            List<long[]> moves = new ArrayList<>();
+            j.forEach((seat, mask, ts) -> moves.add(new long[]{seat, mask, ts}));
+            assertEquals(3, moves.size());
+            assertArrayEquals(new long[]{1, pairs, 200}, moves.get(0));
+            assertArrayEquals(new long[]{0, 1L << 51, 70_000}, moves.get(1));
+            assertArrayEquals(new long[]{1, 0L, 70_100}, moves.get(2));
+        }
+        assertEquals(3, copy.size());
+    }
+
+    @Test
+    @DisplayName("Iterating from any move matches the tail of a full pass, before and after restore")
+    void testForEachSinceResumes() {
+        long pairs = 0L;
+        for (int rank = 0; rank < 8; rank++) pairs |= Card.fromCode(rank * 4).mask() | Card.fromCode(rank * 4 + 1).mask();
+        MoveJournal journal = new MoveJournal(1_000L);
+        // hơn 16 nước để mảng vị trí phải nới; có nước dài, bỏ lượt và mốc thời gian lùi
+        for (int i = 0; i < 40; i++) {
+            long mask = i == 7 ? pairs : i % 3 == 0 ? 0L : Card.fromCode(i).mask();
+            journal.append(i % 4, mask, i == 20 ? 1_000L : 1_000L + i * 250L);
+        }
+        MoveJournal copy = MoveJournal.fromBytes(1_000L, journal.toBytes());
+        copy.append(1, Card.fromCode(50).mask(), 20_000L);
+        journal.append(1, Card.fromCode(50).mask(), 20_000L);
+
+        for (MoveJournal j : List.of(journal, copy)) {
+            List<long[]> all = new ArrayList<>();
+            j.forEach((seat, mask, ts) -> all.add(new long[]{seat, mask, ts}));
+            assertEquals(41, all.size());
+            for (int from = 0; from <= all.size(); from++) {
+                List<long[]> tail = new ArrayList<>();
+                j.forEachSince(from, (seat, mask, ts) -> tail.add(new long[]{seat, mask, ts}));
+                assertEquals(all.size() - from, tail.size());
+                for (int i = 0; i < tail.size(); i++) assertArrayEquals(all.get(from + i), tail.get(i));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Decoder produces the legacy game log shape")
+    void testGameLogShape() {
+        List<UUID> players = List.of(UUID.randomUUID(), UUID.randomUUID());
+        GameState state = new GameState(UUID.randomUUID(), players);
+        state.logMove(players.get(1), List.of(new Card(CardSuit.HEARTS, CardRank.TWO)));
+        state.logMove(0, 0L);
+
+        List<Map<String, Object>> log = state.getGameLog();
+        assertEquals(2, log.size());
+        assertEquals(players.get(1).toString(), log.get(0).get("playerId"));
+        assertEquals(List.of("TWO_of_HEARTS"), log.get(0).get("cards"));
+        assertEquals(List.of(), log.get(1).get("cards"));
+        assertTrue(log.get(1).get("timestamp") instanceof Long);
+    }
+}
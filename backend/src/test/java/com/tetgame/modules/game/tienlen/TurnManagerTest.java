@@ -0,0 +1,84 @@
+package com.tetgame.modules.game.tienlen;
+
+import com.tetgame.modules.game.TimingWheel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TurnManager Tests")
+class TurnManagerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final TimingWheel wheel = new TimingWheel(100, 512, now::get);
+    private final TurnManager turnManager = new TurnManager(wheel);
+    private final GameEngine gameEngine = new GameEngine(null);
+    private final List<UUID> players = List.of(UUID.randomUUID(), UUID.randomUUID());
+
+    private void advance(long millis) {
+        now.addAndGet(millis);
+        wheel.advance(now.get());
+    }
+
+    @Test
+    @DisplayName("Only the latest turn deadline fires and it matches the current turn")
+    void testTurnDeadline() {
+        GameState state = gameEngine.startTienLenGame(UUID.randomUUID(), players);
+        List<TurnManager.TurnExpiry> expired = new ArrayList<>();
+        turnManager.setTurnTimeoutHandler(expired::add);
+
+        turnManager.scheduleTurn(state);
+        advance(10_000);
+        TurnManager.applyTimeout(gameEngine, state); // cầm cái: đánh lá nhỏ nhất
+        turnManager.scheduleTurn(state);
+        advance(TurnManager.TURN_TIMEOUT_MS - 1);
+        assertTrue(expired.isEmpty());
+
+        advance(200);
+        assertEquals(1, expired.size());
+        assertTrue(TurnManager.isCurrent(state, expired.get(0)));
+        gameEngine.pass(state, state.getCurrentPlayer());
+        assertFalse(TurnManager.isCurrent(state, expired.get(0)));
+    }
+
+    @Test
+    @DisplayName("Timeout plays the lowest card when leading and passes otherwise")
+    void testApplyTimeout() {
+        GameState state = new GameState(UUID.randomUUID(), players);
+        long hand0 = Card.fromCode(7).mask() | Card.fromCode(30).mask();
+        state.setHand(0, hand0);
+        state.setHand(1, Card.fromCode(1).mask() | Card.fromCode(2).mask());
+
+        assertFalse(TurnManager.applyTimeout(gameEngine, state));
+        assertEquals(Card.fromCode(30).mask(), state.getHand(0).getMask());
+        assertEquals(Card.fromCode(7).mask(), state.getCurrentPile().getMask());
+        assertEquals(1, state.getCurrentSeat());
+
+        // không cầm cái: bỏ lượt, chỉ còn người đánh cuối nên pile bị xóa
+        assertTrue(TurnManager.applyTimeout(gameEngine, state));
+        assertNull(state.getCurrentPile());
+        assertEquals(0, state.getCurrentSeat());
+    }
+
+    @Test
+    @DisplayName("Ready-check and reconnect timers can be cancelled")
+    void testAuxTimers() {
+        UUID room = UUID.randomUUID();
+        List<String> fired = new ArrayList<>();
+        turnManager.scheduleReadyCheck(room, () -> fired.add("ready"));
+        turnManager.scheduleReconnectGrace(players.get(0), () -> fired.add("reconnect-0"));
+        turnManager.scheduleReconnectGrace(players.get(1), () -> fired.add("reconnect-1"));
+
+        assertTrue(turnManager.cancelReconnectGrace(players.get(0)));
+        assertFalse(turnManager.cancelReconnectGrace(players.get(0)));
+        advance(TurnManager.RECONNECT_GRACE_MS + 100);
+
+        assertEquals(List.of("ready", "reconnect-1"), fired);
+        assertEquals(0, turnManager.pendingTimers());
+    }
+}
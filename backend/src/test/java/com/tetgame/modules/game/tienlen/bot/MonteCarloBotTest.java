@@ -0,0 +1,136 @@
+package com.tetgame.modules.game.tienlen.bot;
+
+import com.tetgame.modules.game.tienlen.Card;
+import com.tetgame.modules.game.tienlen.GameEngine;
+import com.tetgame.modules.game.tienlen.GameState;
+import com.tetgame.modules.game.tienlen.MoveGenerator;
+import com.tetgame.modules.game.tienlen.Play;
+import com.tetgame.modules.game.tienlen.PlayType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("MonteCarloBot Tests")
+class MonteCarloBotTest {
+
+    private final MonteCarloBot bot = new MonteCarloBot(2, TimeUnit.MILLISECONDS.toNanos(5), 2.0);
+    private final GameEngine gameEngine = new GameEngine(null);
+    private final List<UUID> players = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+
+    @AfterEach
+    void tearDown() {
+        bot.close();
+    }
+
+    private static long cards(int... codes) {
+        long mask = 0L;
+        for (int c : codes) mask |= Card.fromCode(c).mask();
+        return mask;
+    }
+
+    @Test
+    @DisplayName("Chooses a legal move within the time budget and accounts CPU")
+    void testBudgetAndAccounting() {
+        GameState state = gameEngine.startTienLenGame(UUID.randomUUID(), players);
+        int seat = state.getCurrentSeat();
+        bot.takeOver(players.get(seat));
+        // làm nóng JIT để một rollout không vượt quá ngân sách
+        for (int i = 0; i < 20; i++) bot.chooseMove(state, seat);
+
+        long start = System.nanoTime();
+        Play move = bot.chooseMove(state, seat);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertNotNull(move); // đang cầm cái thì không được bỏ lượt
+        assertTrue(MoveGenerator.legalPlays(state.getHand(seat).getMask(), null).stream()
+            .anyMatch(p -> p.getMask() == move.getMask()));
+        assertTrue(elapsedMs < 200, "took " + elapsedMs + "ms");
+        assertTrue(bot.rolloutCount() > 0);
+        assertTrue(bot.cpuNanos(players.get(seat)) > 0);
+        assertTrue(bot.cpuNanos(players.get(seat)) <= bot.totalCpuNanos());
+    }
+
+    @Test
+    @DisplayName("Takes the winning play instead of passing")
+    void testFinishesWhenPossible() {
+        GameState state = new GameState(UUID.randomUUID(), players);
+        // ghế 1 đánh đôi 5, bot (ghế 2) chỉ còn đôi 9 và có thể về nhất ngay
+        state.setHand(0, cards(0, 4, 8, 12, 16, 20, 24, 28, 32, 36));
+        state.setHand(1, cards(1, 5, 9, 13, 17, 21, 25, 29, 33, 37));
+        state.setHand(2, cards(24 + 2, 24 + 3));
+        state.setHand(3, cards(2, 6, 10, 14, 18, 22, 30, 34, 38, 42));
+        state.setCurrentPile(Play.fromMask(cards(8 + 1, 8 + 3)));
+        state.setCurrentTurnIndex(2);
+
+        Play move = bot.chooseMove(state, 2);
+        assertNotNull(move);
+        assertEquals(PlayType.PAIR, move.getType());
+
+        assertFalse(bot.playTurn(gameEngine, state));
+        assertTrue(state.getHand(2).isEmpty());
+        assertNotNull(gameEngine.checkGameEnd(state));
+    }
+
+    @Test
+    @DisplayName("Falls back to the greedy policy when the node CPU cap is exhausted")
+    void testCpuCapFallback() {
+        MonteCarloBot capped = new MonteCarloBot(1, TimeUnit.MILLISECONDS.toNanos(5), 0.0);
+        try {
+            GameState state = gameEngine.startTienLenGame(UUID.randomUUID(), players);
+            Play move = capped.chooseMove(state, state.getCurrentSeat());
+            assertNotNull(move);
+            assertEquals(1, capped.fallbackCount());
+            assertEquals(0, capped.rolloutCount());
+        } finally {
+            capped.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Rollouts terminate with a score in [0, 1]")
+    void testRolloutScore() {
+        Random rnd = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            var deck = gameEngine.startTienLenGame(UUID.randomUUID(), players);
+            long[] hands = new long[4];
+            for (int s = 0; s < 4; s++) hands[s] = deck.getHand(s).getMask();
+            Play first = MoveGenerator.legalPlays(hands[0], null).get(0);
+            double score = MonteCarloBot.rollout(hands, 0, 0, first, null, 0, rnd);
+            assertTrue(score >= 0.0 && score <= 1.0);
+        }
+    }
+
+    @Test
+    @DisplayName("Seats can be taken over and released")
+    void testTakeOver() {
+        UUID p = players.get(0);
+        assertFalse(bot.isControlling(p));
+        bot.takeOver(p);
+        assertTrue(bot.isControlling(p));
+        bot.release(p);
+        assertFalse(bot.isControlling(p));
+    }
+
+    @Test
+    @DisplayName("Releasing a seat drops its CPU accounting")
+    void testReleaseDropsAccounting() {
+        GameState state = gameEngine.startTienLenGame(UUID.randomUUID(), players);
+        UUID p = state.getCurrentPlayer();
+        bot.takeOver(p);
+        bot.chooseMove(state, state.getCurrentSeat());
+        // worker bị hủy có thể còn chạy sau release: chỉ cộng vào bộ đếm đã bị bỏ, không tạo lại mục
+        bot.release(p);
+        assertEquals(0L, bot.cpuNanos(p));
+        bot.chooseMove(state, state.getCurrentSeat());
+        bot.close();
+        assertEquals(0L, bot.cpuNanos(p));
+        assertFalse(bot.isControlling(p));
+    }
+}
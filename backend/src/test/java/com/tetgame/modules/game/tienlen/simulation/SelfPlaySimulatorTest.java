@@ -0,0 +1,44 @@
+package com.tetgame.modules.game.tienlen.simulation;
+
+import com.tetgame.modules.room.entity.BetLevel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SelfPlaySimulator Tests")
+class SelfPlaySimulatorTest {
+
+    @Test
+    @DisplayName("Every simulated game finishes and is settled for every bet level")
+    void testAllGamesFinish() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        SimulationStats stats = new SelfPlaySimulator(4, PolicyPlayer.LOWEST, 1L).run(5_000, pool);
+        pool.shutdown();
+
+        assertEquals(5_000, stats.getGames());
+        assertEquals(0, stats.getAbortedGames());
+        assertTrue(stats.getMovesPerGame() > 0);
+        for (BetLevel level : BetLevel.values()) {
+            Map<Long, Long> dist = stats.getPayouts().get(level);
+            assertNotNull(dist);
+            // 4 người chơi mỗi ván
+            assertEquals(4 * 5_000L, dist.values().stream().mapToLong(Long::longValue).sum());
+        }
+    }
+
+    @Test
+    @DisplayName("Random policy also terminates with 2 and 3 players")
+    void testRandomPolicyFewerPlayers() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        for (int players = 2; players <= 3; players++) {
+            SimulationStats stats = new SelfPlaySimulator(players, PolicyPlayer.RANDOM, 7L).run(500, pool);
+            assertEquals(500, stats.getGames());
+            assertEquals(0, stats.getAbortedGames());
+        }
+        pool.shutdown();
+    }
+}
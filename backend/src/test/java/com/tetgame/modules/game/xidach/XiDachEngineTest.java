@@ -0,0 +1,112 @@
+package com.tetgame.modules.game.xidach;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.UUID;
+
+import static com.tetgame.modules.game.xidach.XiDachHand.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("XiDachEngine Tests")
+class XiDachEngineTest {
+
+    // mã lá = rank * 4 + suit
+    private static final int ACE = 44, ACE2 = 45, KING = 40, TEN = 28, FIVE = 8, FIVE2 = 9, THREE = 0, TWO = 48;
+
+    private final XiDachEngine engine = new XiDachEngine();
+
+    private static int hand(int... codes) {
+        int hand = EMPTY;
+        for (int c : codes) hand = add(hand, c);
+        return hand;
+    }
+
+    @Test
+    @DisplayName("Hand totals and special hands come from the tables")
+    void testHandValues() {
+        assertEquals(XI_BANG, category(playerScore(hand(ACE, ACE2))));
+        assertEquals(XI_DACH, category(playerScore(hand(ACE, KING))));
+        assertEquals(16, total(hand(ACE, FIVE)));                 // Xì = 11
+        assertEquals(20, total(hand(FIVE, FIVE2, ACE)));          // 3 lá: Xì = 10
+        assertEquals(14, total(hand(FIVE, FIVE2, THREE, ACE)));   // 4 lá: Xì = 1
+        assertEquals(NGU_LINH, category(playerScore(hand(TWO, THREE, FIVE, FIVE2, ACE))));
+        assertEquals(BUST, category(playerScore(hand(KING, TEN, FIVE))));
+        assertEquals(NON, category(playerScore(hand(TEN, FIVE))));
+        // 15 điểm: nhà con chưa đủ tuổi nhưng nhà cái thì đủ
+        assertEquals(NORMAL, category(dealerScore(hand(TEN, FIVE))));
+        assertTrue(dealerMustHit(hand(TEN, THREE)));
+        assertFalse(dealerMustHit(hand(TEN, FIVE)));
+    }
+
+    @Test
+    @DisplayName("Payoffs follow hand strength and multipliers")
+    void testPayoff() {
+        int dealer18 = dealerScore(hand(TEN, FIVE, THREE));
+        assertEquals(1, payoff(dealer18, playerScore(hand(KING, TEN))));
+        assertEquals(-1, payoff(dealer18, playerScore(hand(TEN, FIVE))));        // non
+        assertEquals(2, payoff(dealer18, playerScore(hand(ACE, KING))));         // Xì Dách x2
+        assertEquals(0, payoff(dealerScore(hand(KING, TEN, FIVE)), playerScore(hand(KING, TEN, FIVE2))));
+        assertEquals(-2, payoff(dealerScore(hand(TWO, THREE, FIVE, FIVE2, ACE)), playerScore(hand(KING, ACE2, TEN))));
+        assertEquals(-3, payoff(dealerScore(hand(ACE, ACE2)), playerScore(hand(KING, 41))));
+    }
+
+    @Test
+    @DisplayName("Rounds are reproducible from the seed and zero-sum")
+    void testRoundsReplayAndBalance() {
+        List<UUID> players = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        XiDachTable a = new XiDachTable(UUID.randomUUID(), players);
+        XiDachTable b = new XiDachTable(UUID.randomUUID(), players);
+        for (long seed = 0; seed < 500; seed++) {
+            for (XiDachTable t : List.of(a, b)) {
+                for (int s = 0; s < t.getSeatCount(); s++) t.setBet(s, 1_000L);
+                if (engine.startRound(t, seed)) continue;
+                for (int s = 0; s < t.getSeatCount(); s++) {
+                    while (!t.isStanding(s) && total(t.getHand(s)) < 17) engine.hit(t, s);
+                    engine.stand(t, s);
+                }
+                assertTrue(t.allStanding());
+                engine.finishRound(t);
+                assertFalse(dealerMustHit(t.getDealerHand()));
+            }
+            assertTrue(a.isSettled());
+            assertEquals(a.getDealerMask(), b.getDealerMask());
+            long sum = a.getDealerDelta();
+            for (int s = 0; s < a.getSeatCount(); s++) {
+                assertEquals(a.getHandMask(s), b.getHandMask(s));
+                assertEquals(a.getDelta(s), b.getDelta(s));
+                assertEquals(Long.bitCount(a.getHandMask(s)), cards(a.getHand(s)));
+                sum += a.getDelta(s);
+            }
+            assertEquals(0L, sum);
+        }
+    }
+
+    @Test
+    @DisplayName("Dealing and settling a round does not allocate")
+    void testAllocationFree() {
+        XiDachTable table = new XiDachTable(UUID.randomUUID(),
+            List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()));
+        for (int s = 0; s < table.getSeatCount(); s++) table.setBet(s, 100L);
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long id = Thread.currentThread().getId();
+        playRounds(table, 20_000); // warm-up
+        long before = threads.getThreadAllocatedBytes(id);
+        playRounds(table, 20_000);
+        long allocated = threads.getThreadAllocatedBytes(id) - before;
+        assertTrue(allocated < 4_096, "allocated " + allocated + " bytes");
+    }
+
+    private void playRounds(XiDachTable table, int rounds) {
+        for (int r = 0; r < rounds; r++) {
+            if (engine.startRound(table, r)) continue;
+            for (int s = 0; s < table.getSeatCount(); s++) {
+                while (!table.isStanding(s) && total(table.getHand(s)) < 16) engine.hit(table, s);
+                engine.stand(table, s);
+            }
+            engine.finishRound(table);
+        }
+    }
+}
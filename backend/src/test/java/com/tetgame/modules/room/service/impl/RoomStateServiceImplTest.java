@@ -8,6 +8,8 @@ import com.tetgame.modules.room.repository.RoomRepository;
 import com.tetgame.modules.room.repository.RoomSeatRepository;
 import com.tetgame.websocket.RedisPublisher;
 import com.tetgame.modules.game.tienlen.GameEngine;
+import com.tetgame.modules.game.tienlen.GameState;
+import com.tetgame.modules.game.tienlen.TurnManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -26,6 +28,7 @@ class RoomStateServiceImplTest {
     private RoomSeatRepository roomSeatRepository;
     private RedisPublisher redisPublisher;
     private RedisTemplate<String, Object> redisTemplate;
+    private RedisTemplate<String, GameState> gameStateRedisTemplate;
     private ObjectMapper objectMapper;
     private GameEngine gameEngine;
     private com.tetgame.modules.user.service.WalletService walletService;
@@ -37,11 +40,12 @@ class RoomStateServiceImplTest {
         roomSeatRepository = mock(RoomSeatRepository.class);
         redisPublisher = mock(RedisPublisher.class);
         redisTemplate = mock(RedisTemplate.class);
+        gameStateRedisTemplate = mock(RedisTemplate.class);
         objectMapper = new ObjectMapper();
         gameEngine = mock(GameEngine.class);
         walletService = mock(com.tetgame.modules.user.service.WalletService.class);
 
-        service = new RoomStateServiceImpl(roomRepository, roomSeatRepository, redisPublisher, redisTemplate, objectMapper, gameEngine, walletService);
+        service = new RoomStateServiceImpl(roomRepository, roomSeatRepository, redisPublisher, redisTemplate, gameStateRedisTemplate, objectMapper, gameEngine, walletService, mock(TurnManager.class));
     }
 
     @Test
@@ -0,0 +1,108 @@
+package com.tetgame.modules.user.service.impl;
+
+import com.tetgame.modules.user.entity.Wallet;
+import com.tetgame.modules.user.repository.WalletRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("WalletServiceImpl Tests")
+class WalletServiceImplTest {
+
+    private final UUID player = UUID.randomUUID();
+    private final UUID other = UUID.randomUUID();
+    // số dư theo ví; UPDATE tương đối nguyên tử theo dòng như trong DB
+    private final Map<UUID, Long> balances = new ConcurrentHashMap<>();
+    private WalletRepository repository;
+    private WalletServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(WalletRepository.class);
+        when(repository.findByUserId(any())).thenAnswer(inv -> {
+            Long balance = balances.get(inv.<UUID>getArgument(0));
+            return balance == null ? Optional.empty() : Optional.of(Wallet.builder().balance(balance).build());
+        });
+        when(repository.debit(any(), anyLong(), any())).thenAnswer(inv ->
+            update(inv.getArgument(0), -inv.<Long>getArgument(1)));
+        when(repository.adjust(any(), anyLong(), any())).thenAnswer(inv ->
+            update(inv.getArgument(0), inv.<Long>getArgument(1)));
+        service = new WalletServiceImpl(repository);
+        balances.put(player, 100_000L); // đủ cho mọi lệnh cược dù lệnh trả thưởng chạy sau
+        balances.put(other, 50L);
+    }
+
+    private int update(UUID userId, long delta) {
+        AtomicInteger rows = new AtomicInteger();
+        balances.computeIfPresent(userId, (id, balance) -> {
+            if (balance + delta < 0) return balance;
+            rows.set(1);
+            return balance + delta;
+        });
+        return rows.get();
+    }
+
+    @Test
+    @DisplayName("Concurrent bets and payouts never lose an update")
+    void testConcurrentBetAndPayout() throws Exception {
+        int rounds = 2_000;
+        CountDownLatch start = new CountDownLatch(1);
+        Thread bets = new Thread(() -> {
+            await(start);
+            for (int i = 0; i < rounds; i++) service.subtract(player, 10L);
+        });
+        Thread payouts = new Thread(() -> {
+            await(start);
+            for (int i = 0; i < rounds; i++) service.applyDeltas(Map.of(player, 30L));
+        });
+        Thread refunds = new Thread(() -> {
+            await(start);
+            for (int i = 0; i < rounds; i++) service.add(player, 1L);
+        });
+        bets.start();
+        payouts.start();
+        refunds.start();
+        start.countDown();
+        bets.join();
+        payouts.join();
+        refunds.join();
+
+        assertEquals(100_000L + rounds * (30L - 10L + 1L), balances.get(player));
+        // không có đường đọc-sửa-ghi nào: mọi thay đổi đi qua UPDATE tương đối
+        verify(repository, never()).save(any());
+        verify(repository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("A batch that would overdraw one wallet fails with the right error")
+    void testApplyDeltasErrors() {
+        IllegalArgumentException overdraw = assertThrows(IllegalArgumentException.class,
+            () -> service.applyDeltas(Map.of(other, -60L)));
+        assertEquals("Insufficient balance", overdraw.getMessage());
+        assertEquals(50L, balances.get(other));
+        IllegalArgumentException missing = assertThrows(IllegalArgumentException.class,
+            () -> service.add(UUID.randomUUID(), 10L));
+        assertEquals("Wallet not found", missing.getMessage());
+        verify(repository, atLeastOnce()).adjust(eq(other), eq(-60L), any(OffsetDateTime.class));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.tetgame.websocket;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ChannelRouter Tests")
+class ChannelRouterTest {
+
+    private static final String ROOM = "3f1c9a52-7b1e-4d7a-9a57-0c2f5e8d4b11";
+    private final ChannelRouter router = ChannelRouter.standard();
+
+    private String route(String channel) {
+        return router.destination(channel.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Every schema channel routes to its topic")
+    void routesSchema() {
+        assertEquals("/topic/lobby/updates", route("lobby:updates"));
+        assertEquals("/topic/presence/updates", route("presence:updates"));
+        assertEquals("/topic/room/" + ROOM + "/updates", route("room:" + ROOM + ":updates"));
+        assertEquals("/topic/room/" + ROOM + "/seats", route("room:" + ROOM + ":seats"));
+        assertEquals("/topic/room/" + ROOM + "/player-list", route("room:" + ROOM + ":player-list"));
+        assertEquals("/topic/game/" + ROOM + "/updates", route("game:" + ROOM + ":updates"));
+        assertEquals("/topic/game/" + ROOM + "/started", route("game:" + ROOM + ":started"));
+        assertEquals("/topic/game/" + ROOM + "/ended", route("game:" + ROOM + ":ended"));
+        assertEquals("/topic/chat/" + ROOM + "/messages", route("chat:" + ROOM + ":messages"));
+    }
+
+    @Test
+    @DisplayName("Unknown or malformed channels are dropped")
+    void rejectsUnknown() {
+        assertNull(route("room:" + ROOM + ":bogus"));
+        assertNull(route("lobby:" + ROOM + ":updates"));
+        assertNull(route("room:updates"));
+        assertNull(route("room::updates"));
+        assertNull(route("chat:" + ROOM + ":"));
+        assertNull(route("nocolon"));
+        assertNull(route(""));
+    }
+
+    @Test
+    @DisplayName("Compile rejects duplicate and malformed patterns")
+    void compileValidates() {
+        assertThrows(IllegalArgumentException.class, () -> ChannelRouter.compile(List.of(
+            new String[]{"a:{id}:x", "/topic/a/{id}/x"}, new String[]{"a:{id}:x", "/topic/b/{id}/x"})));
+        assertThrows(IllegalArgumentException.class, () -> ChannelRouter.compile(List.<String[]>of(
+            new String[]{"a:{id}:x", "/topic/a/x"})));
+        assertEquals(14, ChannelRouter.roomChannels(ROOM).size());
+    }
+
+    @Test
+    @DisplayName("Subscriber forwards body bytes without re-encoding")
+    @SuppressWarnings("unchecked")
+    void forwardsBodyBytes() {
+        SimpMessagingTemplate template = mock(SimpMessagingTemplate.class);
+        RedisSubscriber subscriber = new RedisSubscriber(template);
+        byte[] body = "{\"type\":\"game.play\"}".getBytes(StandardCharsets.UTF_8);
+        org.springframework.data.redis.connection.Message redis = mock(org.springframework.data.redis.connection.Message.class);
+        when(redis.getChannel()).thenReturn(("game:" + ROOM + ":updates").getBytes(StandardCharsets.UTF_8));
+        when(redis.getBody()).thenReturn(body);
+        subscriber.onMessage(redis, null);
+        verify(template).send(eq("/topic/game/" + ROOM + "/updates"), argThat((Message<?> m) -> m.getPayload() == body));
+
+        when(redis.getChannel()).thenReturn("other:channel".getBytes(StandardCharsets.UTF_8));
+        subscriber.onMessage(redis, null);
+        verifyNoMoreInteractions(template);
+    }
+}
@@ -0,0 +1,102 @@
+package com.tetgame.websocket;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("RedisPublisher Tests")
+class RedisPublisherTest {
+
+    private static final String ROOM = "9b2d41e0-55aa-4c1b-8f3e-6a7d0c2e1f90";
+
+    private RedisTemplate<String, Object> redisTemplate;
+    private SimpMessagingTemplate localTemplate;
+    private RedisPublisher publisher;
+    private final List<byte[][]> published = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        redisTemplate = mock(RedisTemplate.class);
+        RedisConnection connection = mock(RedisConnection.class);
+        when(connection.publish(any(byte[].class), any(byte[].class))).thenAnswer(inv -> {
+            published.add(new byte[][]{inv.getArgument(0), inv.getArgument(1)});
+            return 1L;
+        });
+        when(redisTemplate.execute(any(RedisCallback.class))).thenAnswer(inv ->
+            ((RedisCallback<Long>) inv.getArgument(0)).doInRedis(connection));
+        localTemplate = mock(SimpMessagingTemplate.class);
+        publisher = new RedisPublisher(redisTemplate, localTemplate, "node000a");
+    }
+
+    @Test
+    @DisplayName("Publish delivers locally once and sends an origin-tagged envelope")
+    void publishWrapsAndDeliversLocally() {
+        publisher.publish("game:" + ROOM + ":state", "{\"a\":1}".getBytes(StandardCharsets.UTF_8));
+        publisher.publish("game:" + ROOM + ":state", "{\"a\":2}".getBytes(StandardCharsets.UTF_8));
+
+        ArgumentCaptor<Message<?>> local = ArgumentCaptor.forClass(Message.class);
+        verify(localTemplate, times(2)).send(eq("/topic/game/" + ROOM + "/state"), local.capture());
+        assertEquals("{\"a\":1}", new String((byte[]) local.getAllValues().get(0).getPayload(), StandardCharsets.UTF_8));
+
+        assertEquals(2, published.size());
+        byte[] body = published.get(1)[1];
+        assertEquals("game:" + ROOM + ":state", new String(published.get(1)[0], StandardCharsets.UTF_8));
+        assertTrue(Envelope.isFrom(body, Envelope.nodeBytes("node000a")));
+        assertEquals("{\"a\":2}", new String(Envelope.payload(body), StandardCharsets.UTF_8));
+        assertEquals(RedisPublisher.PAYLOAD_TYPE, SimpMessageHeaderAccessor.wrap(local.getAllValues().get(1)).getContentType());
+    }
+
+    @Test
+    @DisplayName("Subscriber drops its own echo and forwards other nodes' messages once")
+    void subscriberDropsSelfEcho() {
+        publisher.publishChatMessage(ROOM, "{\"text\":\"chúc mừng năm mới\"}");
+        byte[][] sent = published.get(0);
+
+        SimpMessagingTemplate sameNodeTemplate = mock(SimpMessagingTemplate.class);
+        new RedisSubscriber(sameNodeTemplate, "node000a").onMessage(redisMessage(sent), null);
+        verifyNoInteractions(sameNodeTemplate);
+
+        SimpMessagingTemplate otherNodeTemplate = mock(SimpMessagingTemplate.class);
+        new RedisSubscriber(otherNodeTemplate, "node000b").onMessage(redisMessage(sent), null);
+        ArgumentCaptor<Message<?>> remote = ArgumentCaptor.forClass(Message.class);
+        verify(otherNodeTemplate).send(eq("/topic/chat/" + ROOM + "/messages"), remote.capture());
+        assertEquals("{\"text\":\"chúc mừng năm mới\"}", new String((byte[]) remote.getValue().getPayload(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Envelope round-trips node id and payload")
+    void envelopeRoundTrip() {
+        byte[] payload = "x".getBytes(StandardCharsets.UTF_8);
+        byte[] body = Envelope.wrap("abcdef01", payload);
+        assertEquals(Envelope.HEADER_LENGTH + 1, body.length);
+        assertTrue(Envelope.isFrom(body, Envelope.nodeBytes("abcdef01")));
+        assertFalse(Envelope.isFrom(body, Envelope.nodeBytes("abcdef02")));
+        assertArrayEquals(payload, Envelope.payload(body));
+        assertFalse(Envelope.isWrapped(payload));
+        assertSame(payload, Envelope.payload(payload));
+        assertThrows(IllegalArgumentException.class, () -> Envelope.nodeBytes("short"));
+    }
+
+    private static org.springframework.data.redis.connection.Message redisMessage(byte[][] sent) {
+        org.springframework.data.redis.connection.Message m = mock(org.springframework.data.redis.connection.Message.class);
+        when(m.getChannel()).thenReturn(sent[0]);
+        when(m.getBody()).thenReturn(sent[1]);
+        return m;
+    }
+}
@@ -0,0 +1,72 @@
+package com.tetgame.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("RoomBroadcaster Tests")
+class RoomBroadcasterTest {
+
+    private static final String ROOM = "5d0e7f3a-1c2b-4e8d-9f6a-3b4c5d6e7f80";
+
+    @Test
+    @DisplayName("Payload is serialized once and shared by every subscriber session")
+    @SuppressWarnings("unchecked")
+    void serializesOnceAndSharesFrame() throws Exception {
+        ExecutorSubscribableChannel inbound = new ExecutorSubscribableChannel();
+        ExecutorSubscribableChannel outbound = new ExecutorSubscribableChannel();
+        ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+        List<Message<?>> delivered = new ArrayList<>();
+        outbound.subscribe(delivered::add);
+        SimpleBrokerMessageHandler broker = new SimpleBrokerMessageHandler(inbound, outbound, brokerChannel, List.of("/topic"));
+        broker.start();
+        for (int i = 0; i < 5; i++) {
+            SimpMessageHeaderAccessor connect = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT);
+            connect.setSessionId("s" + i);
+            broker.handleMessage(MessageBuilder.createMessage(new byte[0], connect.getMessageHeaders()));
+            SimpMessageHeaderAccessor sub = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+            sub.setSessionId("s" + i);
+            sub.setSubscriptionId("sub-" + i);
+            sub.setDestination("/topic/game/" + ROOM + "/state");
+            broker.handleMessage(MessageBuilder.createMessage(new byte[0], sub.getMessageHeaders()));
+        }
+
+        delivered.clear(); // CONNECT_ACK
+        ObjectMapper objectMapper = spy(new ObjectMapper());
+        RedisPublisher publisher = new RedisPublisher(mock(RedisTemplate.class), new SimpMessagingTemplate(brokerChannel), "node000c");
+        new RoomBroadcaster(objectMapper, publisher).game(ROOM, "state", Map.of("currentPlayer", "p1"));
+
+        verify(objectMapper, times(1)).writeValueAsBytes(any());
+        verify(objectMapper, never()).writeValueAsString(any());
+        assertEquals(5, delivered.size());
+        Object payload = delivered.get(0).getPayload();
+        assertEquals("{\"currentPlayer\":\"p1\"}", new String((byte[]) payload));
+        for (Message<?> m : delivered) assertSame(payload, m.getPayload());
+        broker.stop();
+    }
+
+    @Test
+    @DisplayName("Unserializable payload is rejected before anything is sent")
+    void rejectsUnserializable() {
+        RedisPublisher publisher = mock(RedisPublisher.class);
+        RoomBroadcaster broadcaster = new RoomBroadcaster(new ObjectMapper(), publisher);
+        assertThrows(IllegalArgumentException.class, () -> broadcaster.room(ROOM, "updates", new Object()));
+        verifyNoInteractions(publisher);
+    }
+}
@@ -0,0 +1,88 @@
+package com.tetgame.websocket;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.Topic;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("RoomInterestRegistry Tests")
+class RoomInterestRegistryTest {
+
+    private RedisMessageListenerContainer container;
+    private RedisSubscriber subscriber;
+    private RoomInterestRegistry registry;
+
+    @BeforeEach
+    void setup() {
+        container = mock(RedisMessageListenerContainer.class);
+        subscriber = new RedisSubscriber(mock(SimpMessagingTemplate.class));
+        subscriber.registerChannels(container);
+        clearInvocations(container);
+        registry = new RoomInterestRegistry(subscriber);
+    }
+
+    @Test
+    @DisplayName("Global channels are plain channels, no room patterns")
+    void globalChannelsOnly() {
+        RedisMessageListenerContainer fresh = mock(RedisMessageListenerContainer.class);
+        subscriber.registerChannels(fresh);
+        verify(fresh).addMessageListener(eq(subscriber), argThat((Collection<? extends Topic> topics) ->
+            topics.size() == 2 && topics.stream().noneMatch(t -> t.getTopic().contains("*"))));
+    }
+
+    @Test
+    @DisplayName("First subscription subscribes the room, last one unsubscribes it")
+    void refCounting() {
+        registry.subscribe("s1", "sub-0", "/topic/room/r1/updates");
+        registry.subscribe("s1", "sub-1", "/topic/game/r1/updates");
+        registry.subscribe("s2", "sub-0", "/topic/chat/r1/messages");
+        verify(container, times(1)).addMessageListener(eq(subscriber), eq(RedisSubscriber.roomTopics("r1")));
+        assertEquals(3, registry.interestCount("r1"));
+
+        registry.unsubscribe("s1", "sub-0");
+        registry.disconnect("s2");
+        verify(container, never()).removeMessageListener(any(), anyCollection());
+
+        registry.unsubscribe("s1", "sub-1");
+        verify(container).removeMessageListener(eq(subscriber), eq(RedisSubscriber.roomTopics("r1")));
+        assertEquals(0, registry.interestCount("r1"));
+        assertEquals(0, registry.activeRooms());
+    }
+
+    @Test
+    @DisplayName("Disconnect releases every room of the session")
+    void disconnectReleasesAll() {
+        registry.subscribe("s1", "a", "/topic/room/r1/seats");
+        registry.subscribe("s1", "b", "/topic/loto/r2/draw");
+        assertEquals(2, registry.activeRooms());
+        verify(container, times(2)).addMessageListener(eq(subscriber), anyCollection());
+
+        registry.disconnect("s1");
+        verify(container).removeMessageListener(eq(subscriber), eq(RedisSubscriber.roomTopics("r1")));
+        verify(container).removeMessageListener(eq(subscriber), eq(RedisSubscriber.roomTopics("r2")));
+        assertEquals(0, registry.activeRooms());
+        registry.disconnect("s1");
+        registry.unsubscribe("s1", "a");
+        verifyNoMoreInteractions(container);
+    }
+
+    @Test
+    @DisplayName("Global and user destinations do not create room interest")
+    void ignoresNonRoomDestinations() {
+        registry.subscribe("s1", "a", "/topic/lobby/updates");
+        registry.subscribe("s1", "b", "/user/queue/pong");
+        registry.subscribe("s1", "c", "/topic/presence/updates");
+        assertEquals(0, registry.activeRooms());
+        verifyNoInteractions(container);
+        assertEquals("abc", RoomInterestRegistry.roomOf("/topic/game/abc/ended"));
+        assertNull(RoomInterestRegistry.roomOf("/topic/game/abc"));
+    }
+}
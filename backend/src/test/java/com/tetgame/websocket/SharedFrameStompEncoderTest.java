@@ -0,0 +1,74 @@
+package com.tetgame.websocket;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompDecoder;
+import org.springframework.messaging.simp.stomp.StompEncoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SharedFrameStompEncoder Tests")
+class SharedFrameStompEncoderTest {
+
+    private final SharedFrameStompEncoder encoder = new SharedFrameStompEncoder();
+    private final StompDecoder decoder = new StompDecoder();
+
+    private static Map<String, Object> messageHeaders(String destination, String subscription, String messageId) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.MESSAGE);
+        accessor.setDestination(destination);
+        accessor.setSubscriptionId(subscription);
+        accessor.setMessageId(messageId);
+        accessor.setContentType(RedisPublisher.PAYLOAD_TYPE);
+        return accessor.getMessageHeaders();
+    }
+
+    private StompHeaderAccessor decode(byte[] frame, byte[] expectedPayload) {
+        List<Message<byte[]>> messages = decoder.decode(ByteBuffer.wrap(frame));
+        assertEquals(1, messages.size());
+        assertArrayEquals(expectedPayload, messages.get(0).getPayload());
+        return StompHeaderAccessor.wrap(messages.get(0));
+    }
+
+    @Test
+    @DisplayName("Frames match the stock encoder for every session of a shared payload")
+    void matchesStockEncoder() {
+        byte[] payload = "{\"currentPlayer\":\"p1\"}".getBytes(StandardCharsets.UTF_8);
+        StompEncoder stock = new StompEncoder();
+        for (int i = 0; i < 3; i++) {
+            Map<String, Object> headers = messageHeaders("/topic/game/r1/state", "sub-" + i, "s" + i + "-7");
+            StompHeaderAccessor shared = decode(encoder.encode(headers, payload), payload);
+            StompHeaderAccessor expected = decode(stock.encode(headers, payload), payload);
+            assertEquals(StompCommand.MESSAGE, shared.getCommand());
+            assertEquals(expected.toNativeHeaderMap(), shared.toNativeHeaderMap());
+            assertEquals("sub-" + i, shared.getSubscriptionId());
+        }
+    }
+
+    @Test
+    @DisplayName("Same payload to another destination is framed again, header values are escaped")
+    void rebuildsOnHeaderChange() {
+        byte[] payload = "x".getBytes(StandardCharsets.UTF_8);
+        decode(encoder.encode(messageHeaders("/topic/game/r1/state", "a", "1"), payload), payload);
+        StompHeaderAccessor other = decode(encoder.encode(messageHeaders("/topic/game/r:2/state", "b", "2"), payload), payload);
+        assertEquals("/topic/game/r:2/state", other.getDestination());
+        assertEquals("b", other.getSubscriptionId());
+        assertEquals(1, other.getContentLength());
+    }
+
+    @Test
+    @DisplayName("Non-MESSAGE frames use the stock path")
+    void otherFramesUnchanged() {
+        StompHeaderAccessor connected = StompHeaderAccessor.create(StompCommand.CONNECTED);
+        connected.setVersion("1.2");
+        byte[] frame = encoder.encode(connected.getMessageHeaders(), new byte[0]);
+        assertArrayEquals(new StompEncoder().encode(connected.getMessageHeaders(), new byte[0]), frame);
+    }
+}